@@ -0,0 +1,172 @@
+/* BucketTreeTest.java */
+
+/**
+ * The BucketTreeTest class tests the treeified buckets of HashTableChained:
+ * that a bucket gets a tree past TREEIFY_THRESHOLD entries and loses it
+ * below UNTREEIFY_THRESHOLD, that finds in a tree bucket probe O(log n)
+ * entries, and that tree buckets hold the same keys as java.util.HashMap
+ * whether the keys are Comparable or not, and through incremental resizes.
+ */
+
+import hash.*;
+import java.util.HashMap;
+import java.util.Random;
+
+public class BucketTreeTest extends ScoredTest {
+
+  /**
+   * A Key is a key that is not Comparable, so a tree can only tell two Keys
+   * apart by their codes.
+   */
+  private static class Key {
+    final int id;
+
+    Key(int id) {
+      this.id = id;
+    }
+
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).id == id;
+    }
+
+    public int hashCode() {
+      return id;
+    }
+  }
+
+  /**
+   * Every key gets the same code.
+   */
+  private static final HashStrategy CONSTANT = new HashStrategy() {
+    public int hash(Object key) {
+      return 77;
+    }
+  };
+
+  /**
+   * Every key gets a different code, but all codes share their low 16 bits,
+   * so every key lands in bucket 0 of any table of up to 65536 buckets.
+   */
+  private static final HashStrategy HIGH_BITS = new HashStrategy() {
+    public int hash(Object key) {
+      return key.hashCode() << 16;
+    }
+  };
+
+  /**
+   * randomOps() runs random inserts, finds and removes on "table", with
+   * Integer keys if "comparable" is true and Keys otherwise, and checks them
+   * against a HashMap.
+   */
+  private static void randomOps(HashTableChained table, boolean comparable,
+                                int keyRange, int ops, String name) {
+    HashMap<Object, Integer> model = new HashMap<Object, Integer>();
+    Random random = new Random(ops);
+    boolean agree = true;
+    for (int k = 0; k < ops; k++) {
+      int id = random.nextInt(keyRange);
+      Object key = comparable ? (Object) Integer.valueOf(id) : new Key(id);
+      Entry found = table.find(key);
+      Integer expected = model.get(key);
+      if ((found == null) != (expected == null) ||
+          (found != null && !found.value().equals(expected))) {
+        agree = false;
+      }
+      if (random.nextInt(5) < 2) {
+        if ((table.remove(key) == null) != (expected == null)) {
+          agree = false;
+        }
+        model.remove(key);
+      } else if (expected == null) {
+        table.insert(key, Integer.valueOf(k));
+        model.put(key, Integer.valueOf(k));
+      }
+    }
+    check(agree, name + ": the table disagreed with HashMap.");
+    check(table.size() == model.size(),
+          name + ": size() is " + table.size() + ", not " + model.size() + ".");
+    for (int id = 0; id < keyRange; id++) {
+      Object key = comparable ? (Object) Integer.valueOf(id) : new Key(id);
+      if ((table.find(key) == null) != (model.get(key) == null)) {
+        check(false, name + ": key " + id + " is wrong after the run.");
+        return;
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running BucketTree test.");
+
+    System.out.println("Treeifying and untreeifying one bucket.");
+    HashTableChained table = new HashTableChained(HIGH_BITS);
+    table.setLoadFactors(0.0, 0.85);   // a shrink would rebuild the bucket
+    for (int i = 0; i < 8; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    check(table.metrics().treeBuckets() == 0,
+          "a chain of 8 already has a tree.");
+    table.insert(Integer.valueOf(8), null);
+    check(table.metrics().treeBuckets() == 1, "a chain of 9 has no tree.");
+    for (int i = 9; i < 1000; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    check(table.metrics().treeBuckets() == 1 &&
+          table.chainHistogram().length == 1001,
+          "1000 keys in one bucket: " + table.metrics());
+
+    table.setMetricsEnabled(true);
+    for (int i = 0; i < 1000; i++) {
+      table.find(Integer.valueOf(i));
+    }
+    check(table.metrics().averageFindProbes() <= 15,
+          "finds in a tree of 1000 probed " +
+          table.metrics().averageFindProbes() + " entries on average.");
+    check(table.find(Integer.valueOf(-5)) == null,
+          "a tree bucket found a missing key.");
+
+    for (int i = 999; i >= 6; i--) {
+      check(table.remove(Integer.valueOf(i)) != null,
+            "remove(" + i + ") from a tree bucket found nothing.");
+    }
+    check(table.metrics().treeBuckets() == 1,
+          "a chain of 6 lost its tree too early.");
+    table.remove(Integer.valueOf(5));
+    check(table.metrics().treeBuckets() == 0, "a chain of 5 kept its tree.");
+    boolean found = true;
+    for (int i = 0; i < 5; i++) {
+      found = found && table.find(Integer.valueOf(i)) != null;
+    }
+    check(found && table.size() == 5, "untreeifying lost keys.");
+
+    System.out.println("Storing duplicate keys in a tree bucket.");
+    table = new HashTableChained(CONSTANT);
+    for (int i = 0; i < 20; i++) {
+      table.insert(Integer.valueOf(i % 4), Integer.valueOf(i));
+    }
+    int removed = 0;
+    while (table.remove(Integer.valueOf(2)) != null) {
+      removed++;
+    }
+    check(removed == 5 && table.size() == 15 &&
+          table.find(Integer.valueOf(3)) != null,
+          "removing duplicates from a tree bucket removed " + removed + ".");
+
+    System.out.println("Running random operations on colliding keys.");
+    randomOps(new HashTableChained(CONSTANT), true, 300, 8000,
+              "Comparable keys, one code");
+    randomOps(new HashTableChained(CONSTANT), false, 150, 4000,
+              "plain keys, one code");
+    randomOps(new HashTableChained(HIGH_BITS), false, 2000, 20000,
+              "plain keys, distinct codes");
+
+    System.out.println("Resizing incrementally with tree buckets.");
+    table = new HashTableChained(HIGH_BITS);
+    table.setIncrementalResize(true);
+    randomOps(table, true, 3000, 30000, "incremental resizes");
+    table = new HashTableChained(CONSTANT);
+    table.setIncrementalResize(true);
+    randomOps(table, false, 200, 6000, "incremental, one code");
+
+    report("BucketTree");
+  }
+}
@@ -0,0 +1,103 @@
+/* BulkLoadTest.java */
+
+/**
+ * The BulkLoadTest class tests WUGraph.addVertices(), addEdges() and
+ * ensureCapacity() against graphs built one addVertex() and addEdge() at a
+ * time.
+ */
+
+import graph.*;
+
+public class BulkLoadTest extends ScoredTest {
+
+  /**
+   * sameGraph() checks that "bulk" has the vertices and edges of "single".
+   */
+  private static void sameGraph(WUGraph single, WUGraph bulk, Object[] v) {
+    check(bulk.vertexCount() == single.vertexCount(),
+          "vertexCount() is " + bulk.vertexCount() + " but should be " +
+          single.vertexCount() + ".");
+    check(bulk.edgeCount() == single.edgeCount(),
+          "edgeCount() is " + bulk.edgeCount() + " but should be " +
+          single.edgeCount() + ".");
+    for (int i = 0; i < v.length; i++) {
+      check(bulk.isVertex(v[i]) == single.isVertex(v[i]),
+            "isVertex(" + v[i] + ") is wrong.");
+      check(bulk.degree(v[i]) == single.degree(v[i]),
+            "degree(" + v[i] + ") is wrong.");
+      for (int j = 0; j < v.length; j += 7) {
+        check(bulk.weight(v[i], v[j]) == single.weight(v[i], v[j]),
+              "weight(" + v[i] + ", " + v[j] + ") is wrong.");
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running bulk load test.");
+    int n = 500;
+    Integer[] v = new Integer[n];
+    Object[] withDuplicates = new Object[n + 50];
+    for (int i = 0; i < n; i++) {
+      v[i] = Integer.valueOf(i);
+      withDuplicates[i] = v[i];
+    }
+    for (int i = 0; i < 50; i++) {
+      withDuplicates[n + i] = Integer.valueOf(i * 3);
+    }
+
+    int m = 4 * n;
+    Object[] u = new Object[m];
+    Object[] w = new Object[m];
+    int[] weight = new int[m];
+    for (int k = 0; k < m; k++) {
+      u[k] = v[k % n];
+      w[k] = v[(k * 31 + k / n) % n];
+      weight[k] = k;
+    }
+
+    WUGraph single = new WUGraph();
+    for (int i = 0; i < withDuplicates.length; i++) {
+      single.addVertex(withDuplicates[i]);
+    }
+    for (int k = 0; k < m; k++) {
+      single.addEdge(u[k], w[k], weight[k]);
+    }
+
+    System.out.println("Loading with duplicate vertices and edges.");
+    WUGraph bulk = new WUGraph();
+    bulk.addVertices(withDuplicates);
+    bulk.addEdges(u, w, weight);
+    sameGraph(single, bulk, v);
+
+    System.out.println("Loading distinct vertices and edges.");
+    WUGraph distinct = new WUGraph(true);
+    distinct.ensureCapacity(n, single.edgeCount());
+    distinct.addVertices(v, true);
+    Object[] du = new Object[single.edgeCount()];
+    Object[] dw = new Object[single.edgeCount()];
+    int[] dweight = new int[single.edgeCount()];
+    int e = 0;
+    for (int i = 0; i < n; i++) {
+      for (int j = i; j < n; j++) {
+        if (single.isEdge(v[i], v[j])) {
+          du[e] = v[i];
+          dw[e] = v[j];
+          dweight[e] = single.weight(v[i], v[j]);
+          e++;
+        }
+      }
+    }
+    distinct.addEdges(du, dw, dweight, true);
+    sameGraph(single, distinct, v);
+
+    System.out.println("Loading edges with a missing endpoint.");
+    WUGraph partial = new WUGraph();
+    partial.addVertices(new Object[] {v[0], v[1]});
+    partial.addEdges(new Object[] {v[0], v[0]}, new Object[] {v[1], v[2]},
+                     new int[] {4, 5}, true);
+    check(partial.edgeCount() == 1 && partial.weight(v[0], v[1]) == 4,
+          "an edge with a missing endpoint was not skipped.");
+
+    report("bulk load");
+  }
+}
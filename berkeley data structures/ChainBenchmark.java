@@ -0,0 +1,146 @@
+/* ChainBenchmark.java */
+
+import hash.*;
+import list.*;
+
+/**
+ * ChainBenchmark compares the two ways a find() can scan a chain of a
+ * HashTableChained:  with the checked next(), as findNode() did before
+ * nextUnchecked() existed, and with nextUnchecked(), as it does now.  Both
+ * scans run the same loop as findNode() over the same buckets of the same
+ * table, for every key, so the only difference between them is the step.
+ * HashTableChained.find() is timed too, for reference.
+ *
+ * The table's HashStrategy gives each run of "chain" consecutive Integer
+ * keys the same code, so every bucket holds a chain that long (the chains
+ * stay shorter than the length at which buckets are treeified unless a
+ * longer one is asked for).  The two scans take turns going first, and the
+ * best of ROUNDS rounds of each is reported.
+ *
+ * Usage:  java ChainBenchmark [keys] [chain]
+ */
+
+public class ChainBenchmark {
+
+  private static final int ROUNDS = 20;
+
+  /**
+   * findChecked() returns the node of "bucket" holding "key", or null,
+   * stepping with next().
+   */
+  private static DListNode findChecked(DList bucket, Object key) {
+    try {
+      DListNode iter = (DListNode) bucket.front();
+      while (iter.isValidNode()) {
+        if (key.equals(((Entry) iter.item()).key())) {
+          return iter;
+        }
+        iter = (DListNode) iter.next();
+      }
+    } catch (InvalidNodeException e) {
+      System.out.println(e);
+    }
+    return null;
+  }
+
+  /**
+   * findUnchecked() returns the node of "bucket" holding "key", or null,
+   * stepping with nextUnchecked().
+   */
+  private static DListNode findUnchecked(DList bucket, Object key) {
+    DListNode iter = (DListNode) bucket.front();
+    while (iter.isValidNode()) {
+      if (key.equals(((Entry) iter.item()).key())) {
+        return iter;
+      }
+      iter = iter.nextUnchecked();
+    }
+    return null;
+  }
+
+  private static long timeChecked(DList[] buckets, Integer[] keys) {
+    long start = System.nanoTime();
+    for (int i = 0; i < keys.length; i++) {
+      if (findChecked(buckets[i], keys[i]) == null) {
+        throw new IllegalStateException("key " + i + " not found");
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long timeUnchecked(DList[] buckets, Integer[] keys) {
+    long start = System.nanoTime();
+    for (int i = 0; i < keys.length; i++) {
+      if (findUnchecked(buckets[i], keys[i]) == null) {
+        throw new IllegalStateException("key " + i + " not found");
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long timeFind(HashTableChained table, Integer[] keys) {
+    long start = System.nanoTime();
+    for (int i = 0; i < keys.length; i++) {
+      if (table.find(keys[i]) == null) {
+        throw new IllegalStateException("key " + i + " not found");
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  public static void main(String[] args) {
+    final int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+    final int chain = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+    HashTableChained table = new HashTableChained(new HashStrategy() {
+      public int hash(Object key) {
+        return MixingHashStrategy.mix(((Integer) key).intValue() / chain);
+      }
+    });
+    Integer[] keys = new Integer[numKeys];
+    for (int i = 0; i < numKeys; i++) {
+      keys[i] = Integer.valueOf(i);
+      table.insert(keys[i], keys[i]);
+    }
+
+    // Record the bucket of every key, so both scans search the very chain
+    // table.find() would.
+    DList[] buckets = new DList[numKeys];
+    for (int b = 0; b < table.numBuckets(); b++) {
+      DList bucket = table.getEntry(b);
+      DListNode node = (DListNode) bucket.front();
+      while (node.isValidNode()) {
+        int key = ((Integer) ((Entry) node.item()).key()).intValue();
+        buckets[key] = bucket;
+        node = node.nextUnchecked();
+      }
+    }
+
+    long bestChecked = Long.MAX_VALUE;
+    long bestUnchecked = Long.MAX_VALUE;
+    long bestFind = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      if (round % 2 == 0) {
+        bestChecked = Math.min(bestChecked, timeChecked(buckets, keys));
+        bestUnchecked = Math.min(bestUnchecked, timeUnchecked(buckets, keys));
+      } else {
+        bestUnchecked = Math.min(bestUnchecked, timeUnchecked(buckets, keys));
+        bestChecked = Math.min(bestChecked, timeChecked(buckets, keys));
+      }
+      bestFind = Math.min(bestFind, timeFind(table, keys));
+    }
+
+    System.out.println(numKeys + " keys in chains of " + chain);
+    System.out.println("scan with next():          "
+                       + perKey(bestChecked, numKeys) + " ns/key");
+    System.out.println("scan with nextUnchecked(): "
+                       + perKey(bestUnchecked, numKeys) + " ns/key");
+    System.out.println("HashTableChained.find():   "
+                       + perKey(bestFind, numKeys) + " ns/key");
+  }
+
+  private static String perKey(long nanos, int numKeys) {
+    return String.valueOf(Math.round(100.0 * nanos / numKeys) / 100.0);
+  }
+
+}
@@ -0,0 +1,128 @@
+/* ConcurrentHashTableChainedTest.java */
+
+/**
+ * The ConcurrentHashTableChainedTest class tests ConcurrentHashTableChained
+ * with several writer threads, each inserting and removing its own keys,
+ * and reader threads finding keys that no writer touches, then checks that
+ * the table holds exactly what the writers left.
+ */
+
+import hash.*;
+
+public class ConcurrentHashTableChainedTest extends ScoredTest {
+
+  private static final int WRITERS = 6;
+  private static final int KEYS = 20000;   // per writer
+  private static final int FIXED = 1000;   // keys no writer touches
+
+  private static volatile boolean done;
+
+  /**
+   * hammer() runs WRITERS writers and two readers on "table", and checks
+   * the table afterward.  Writer w inserts the keys w * KEYS + i, then
+   * removes every third of them.
+   */
+  private static void hammer(final ConcurrentHashTableChained table,
+                             String name) throws InterruptedException {
+    for (int i = 0; i < FIXED; i++) {
+      table.insert(Integer.valueOf(-1 - i), Integer.valueOf(i));
+    }
+    done = false;
+    final boolean[] readerOk = {true, true};
+    Thread[] readers = new Thread[2];
+    for (int r = 0; r < readers.length; r++) {
+      final int reader = r;
+      readers[r] = new Thread() {
+        public void run() {
+          int i = 0;
+          while (!done) {
+            Entry e = table.find(Integer.valueOf(-1 - i));
+            if (e == null || !e.value().equals(Integer.valueOf(i))) {
+              readerOk[reader] = false;
+            }
+            i = (i + 1) % FIXED;
+          }
+        }
+      };
+      readers[r].start();
+    }
+    Thread[] writers = new Thread[WRITERS];
+    for (int w = 0; w < WRITERS; w++) {
+      final int base = w * KEYS;
+      writers[w] = new Thread() {
+        public void run() {
+          for (int i = 0; i < KEYS; i++) {
+            table.insert(Integer.valueOf(base + i), Integer.valueOf(i));
+          }
+          for (int i = 0; i < KEYS; i += 3) {
+            table.remove(Integer.valueOf(base + i));
+          }
+        }
+      };
+      writers[w].start();
+    }
+    for (int w = 0; w < WRITERS; w++) {
+      writers[w].join();
+    }
+    done = true;
+    for (int r = 0; r < readers.length; r++) {
+      readers[r].join();
+    }
+    check(readerOk[0] && readerOk[1],
+          name + ": a reader missed a key no writer touched.");
+
+    int left = FIXED + WRITERS * (KEYS - (KEYS + 2) / 3);
+    check(table.size() == left,
+          name + ": size() is " + table.size() + ", not " + left + ".");
+    boolean right = true;
+    for (int k = 0; k < WRITERS * KEYS; k++) {
+      Entry e = table.find(Integer.valueOf(k));
+      if (k % KEYS % 3 == 0) {
+        right = right && e == null;
+      } else {
+        right = right && e != null &&
+                e.value().equals(Integer.valueOf(k % KEYS));
+      }
+    }
+    check(right, name + ": the table holds the wrong keys.");
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    System.out.println("Running ConcurrentHashTableChained test.");
+    ConcurrentHashTableChained table = new ConcurrentHashTableChained();
+    check(table.isEmpty() && table.find("x") == null &&
+          table.remove("x") == null, "a new table is not empty.");
+    table.insert("x", "1");
+    table.insert("x", "2");
+    check(table.size() == 2 && table.remove("x") != null &&
+          table.find("x") != null && table.size() == 1,
+          "duplicate keys are not kept apart.");
+    table.makeEmpty();
+    check(table.isEmpty() && table.find("x") == null,
+          "makeEmpty() left entries behind.");
+
+    System.out.println("Running writers and readers on 16 segments.");
+    hammer(new ConcurrentHashTableChained(), "16 segments");
+
+    System.out.println("Running writers and readers on one segment.");
+    hammer(new ConcurrentHashTableChained(0, 1, new MixingHashStrategy()),
+           "one segment");
+
+    System.out.println("Running writers and readers with incremental resizes.");
+    table = new ConcurrentHashTableChained(0, 8,
+                                           MixingHashStrategy.withRandomSeed());
+    table.setIncrementalResize(true);
+    hammer(table, "incremental");
+
+    System.out.println("Presizing and emptying.");
+    table = new ConcurrentHashTableChained(0, 4, new MixingHashStrategy());
+    table.ensureCapacity(50000);
+    hammer(table, "presized");
+    table.makeEmpty();
+    check(table.isEmpty() && table.size() == 0 &&
+          table.find(Integer.valueOf(1)) == null,
+          "makeEmpty() after concurrent use left entries.");
+
+    report("ConcurrentHashTableChained");
+  }
+}
@@ -0,0 +1,175 @@
+/* ConcurrentWUGraphTest.java */
+
+/**
+ * The ConcurrentWUGraphTest class tests ConcurrentWUGraph.  Several threads
+ * add vertices, add edges and remove vertices at once while another takes
+ * snapshots, and the result is compared with a WUGraph that was given the
+ * same changes one at a time.
+ */
+
+import graph.*;
+import java.util.concurrent.CyclicBarrier;
+
+public class ConcurrentWUGraphTest {
+
+  private static final int THREADS = 8;
+  private static final int PER_THREAD = 300;
+  private static final int VERTICES = THREADS * PER_THREAD;
+
+  private static int checks = 0;
+  private static int failures = 0;
+
+  private static synchronized void check(boolean ok, String message) {
+    checks++;
+    if (!ok) {
+      System.out.println(message);
+      failures++;
+    }
+  }
+
+  private static Integer[] v = new Integer[VERTICES];
+  private static volatile boolean done = false;
+
+  private static int partner(int i) {
+    return (i * 7 + 3) % VERTICES;
+  }
+
+  private static int weightOf(int i, int j) {
+    return Math.min(i, j) * 3 - Math.max(i, j);
+  }
+
+  /**
+   * consistent() checks that a snapshot lists each edge under both its
+   * endpoints with the same weight, and that its edge count matches.
+   */
+  private static void consistent(CsrGraph c) {
+    int halfSlots = 0;
+    for (int u = 0; u < c.vertexCount(); u++) {
+      for (int s = c.neighborStart(u); s < c.neighborEnd(u); s++) {
+        int w = c.neighbor(s);
+        if (c.weight(w, u) != c.weightAt(s)) {
+          check(false, "snapshot edge (" + u + ", " + w + ") is one-sided.");
+          return;
+        }
+        halfSlots += (u == w) ? 2 : 1;
+      }
+    }
+    check(halfSlots == 2 * c.edgeCount(),
+          "snapshot holds " + halfSlots / 2.0 + " edges but edgeCount() is " +
+          c.edgeCount() + ".");
+  }
+
+  public static void main(String[] args) throws Exception {
+    System.out.println("Running ConcurrentWUGraph test.");
+    for (int i = 0; i < VERTICES; i++) {
+      v[i] = Integer.valueOf(i);
+    }
+
+    final ConcurrentWUGraph g = new ConcurrentWUGraph(16);
+    final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+    Thread[] workers = new Thread[THREADS];
+
+    System.out.println("Running " + THREADS + " writers and one reader.");
+    for (int t = 0; t < THREADS; t++) {
+      final int first = t * PER_THREAD;
+      workers[t] = new Thread() {
+        public void run() {
+          try {
+            for (int i = first; i < first + PER_THREAD; i++) {
+              g.addVertex(v[i]);
+            }
+            barrier.await();
+            for (int i = first; i < first + PER_THREAD; i++) {
+              g.addEdge(v[i], v[(i + 1) % VERTICES], weightOf(i, i + 1));
+              g.addEdge(v[i], v[partner(i)], weightOf(i, partner(i)));
+              if (i % 13 == 0) {
+                g.addEdge(v[i], v[i], weightOf(i, i));
+              }
+            }
+            barrier.await();
+            for (int i = first; i < first + PER_THREAD; i += 10) {
+              g.removeVertex(v[i]);
+            }
+            for (int i = first + 1; i < first + PER_THREAD; i += 10) {
+              g.removeEdge(v[i], v[(i + 1) % VERTICES]);
+            }
+          } catch (Exception e) {
+            check(false, "writer failed: " + e);
+          }
+        }
+      };
+    }
+    Thread reader = new Thread() {
+      public void run() {
+        while (!done) {
+          consistent(g.snapshot());
+        }
+      }
+    };
+    reader.start();
+    for (int t = 0; t < THREADS; t++) {
+      workers[t].start();
+    }
+    for (int t = 0; t < THREADS; t++) {
+      workers[t].join();
+    }
+    done = true;
+    reader.join();
+
+    System.out.println("Comparing with the same changes made serially.");
+    WUGraph expected = new WUGraph();
+    for (int i = 0; i < VERTICES; i++) {
+      expected.addVertex(v[i]);
+    }
+    for (int i = 0; i < VERTICES; i++) {
+      expected.addEdge(v[i], v[(i + 1) % VERTICES], weightOf(i, i + 1));
+      expected.addEdge(v[i], v[partner(i)], weightOf(i, partner(i)));
+      if (i % 13 == 0) {
+        expected.addEdge(v[i], v[i], weightOf(i, i));
+      }
+    }
+    for (int i = 0; i < VERTICES; i += 10) {
+      expected.removeVertex(v[i]);
+    }
+    for (int i = 1; i < VERTICES; i += 10) {
+      expected.removeEdge(v[i], v[(i + 1) % VERTICES]);
+    }
+
+    check(g.vertexCount() == expected.vertexCount(),
+          "vertexCount() is " + g.vertexCount() + " but should be " +
+          expected.vertexCount() + ".");
+    check(g.edgeCount() == expected.edgeCount(),
+          "edgeCount() is " + g.edgeCount() + " but should be " +
+          expected.edgeCount() + ".");
+    check(g.getVertices().length == expected.vertexCount(),
+          "getVertices() has the wrong length.");
+    for (int i = 0; i < VERTICES; i++) {
+      check(g.isVertex(v[i]) == expected.isVertex(v[i]),
+            "isVertex(" + i + ") is wrong.");
+      check(g.degree(v[i]) == expected.degree(v[i]),
+            "degree(" + i + ") is " + g.degree(v[i]) + " but should be " +
+            expected.degree(v[i]) + ".");
+      int j = partner(i);
+      check(g.isEdge(v[i], v[j]) == expected.isEdge(v[i], v[j]) &&
+            g.weight(v[j], v[i]) == expected.weight(v[j], v[i]),
+            "edge (" + i + ", " + j + ") is wrong.");
+      Neighbors n = g.getNeighbors(v[i]);
+      check((n == null ? 0 : n.neighborList.length) == expected.degree(v[i]),
+            "getNeighbors(" + i + ") has the wrong length.");
+    }
+
+    System.out.println("Checking a snapshot taken after the writers.");
+    CsrGraph c = g.snapshot();
+    consistent(c);
+    check(c == g.snapshot(), "an unchanged graph should reuse its snapshot.");
+    check(c.version() == g.version(), "snapshot has the wrong version().");
+    check(c.edgeCount() == expected.edgeCount(),
+          "snapshot edgeCount() is wrong.");
+    g.addEdge(v[1], v[2], 12);
+    check(c != g.snapshot(), "a changed graph returned its old snapshot.");
+
+    System.out.println();
+    System.out.println("Your ConcurrentWUGraph test score is " +
+                       (checks - failures) + " out of " + checks + ".");
+  }
+}
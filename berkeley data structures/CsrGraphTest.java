@@ -0,0 +1,87 @@
+/* CsrGraphTest.java */
+
+/**
+ * The CsrGraphTest class tests WUGraph.freeze() and the CsrGraph class.
+ */
+
+import graph.*;
+
+public class CsrGraphTest extends ScoredTest {
+
+  /**
+   * sameEdges() checks that the snapshot "c" holds exactly the edges of "g".
+   */
+  private static void sameEdges(WUGraph g, CsrGraph c) {
+    Object[] vertices = g.getVertices();
+    for (int i = 0; i < vertices.length; i++) {
+      int id = c.idOf(vertices[i]);
+      check(id >= 0 && c.vertex(id) == vertices[i],
+            "idOf() and vertex() disagree for vertex " + vertices[i] + ".");
+      check(c.degree(id) == g.degree(vertices[i]),
+            "degree(" + id + ") is " + c.degree(id) + " but should be " +
+            g.degree(vertices[i]) + ".");
+      for (int s = c.neighborStart(id); s < c.neighborEnd(id); s++) {
+        Object neighbor = c.vertex(c.neighbor(s));
+        check(g.weight(vertices[i], neighbor) == c.weightAt(s),
+              "slot " + s + " holds weight " + c.weightAt(s) + " but the " +
+              "edge has weight " + g.weight(vertices[i], neighbor) + ".");
+      }
+      for (int j = 0; j < vertices.length; j++) {
+        int other = c.idOf(vertices[j]);
+        check(c.isEdge(id, other) == g.isEdge(vertices[i], vertices[j]),
+              "isEdge(" + id + ", " + other + ") is wrong.");
+        check(c.weight(id, other) == g.weight(vertices[i], vertices[j]),
+              "weight(" + id + ", " + other + ") is wrong.");
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running CsrGraph test.");
+
+    System.out.println("Freezing empty graph.");
+    WUGraph g = new WUGraph();
+    CsrGraph c = g.freeze();
+    check(c.vertexCount() == 0 && c.edgeCount() == 0,
+          "snapshot of empty graph is not empty.");
+    check(c.idOf("missing") == -1, "idOf() on empty snapshot should be -1.");
+
+    System.out.println("Freezing a graph of 50 vertices with self-edges.");
+    Integer[] v = new Integer[50];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i * 7);
+      g.addVertex(v[i]);
+    }
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j += 3 + i % 4) {
+        g.addEdge(v[i], v[j], i * 100 + j);
+      }
+    }
+    c = g.freeze();
+    check(c.vertexCount() == g.vertexCount(),
+          "vertexCount() is " + c.vertexCount() + " but should be " +
+          g.vertexCount() + ".");
+    check(c.edgeCount() == g.edgeCount(),
+          "edgeCount() is " + c.edgeCount() + " but should be " +
+          g.edgeCount() + ".");
+    check(c.getVertices().length == v.length,
+          "getVertices() has the wrong length.");
+    check(c.idOf(Integer.valueOf(1)) == -1,
+          "idOf() on a non-vertex should be -1.");
+    sameEdges(g, c);
+
+    System.out.println("Changing the graph after freezing it.");
+    int edgesBefore = c.edgeCount();
+    int degreeBefore = c.degree(c.idOf(v[0]));
+    g.removeVertex(v[0]);
+    g.addEdge(v[1], v[2], -5);
+    check(c.edgeCount() == edgesBefore && c.degree(c.idOf(v[0])) ==
+          degreeBefore, "snapshot changed when its graph did.");
+    check(c.idOf(v[0]) >= 0, "removed vertex vanished from old snapshot.");
+    CsrGraph d = g.freeze();
+    check(d.idOf(v[0]) == -1, "removed vertex is in the new snapshot.");
+    sameEdges(g, d);
+
+    report("CsrGraph");
+  }
+}
@@ -0,0 +1,255 @@
+/* DListSpliceTest.java */
+
+/**
+ * The DListSpliceTest class tests DList's splice(), splitAfter(),
+ * moveToFront() and moveToBack() by running random moves of nodes among
+ * several DLists and ArrayList models of them, and checks that every node
+ * keeps its item, stays valid, and belongs to the list it was moved to.
+ * It also checks that nodes can't move between lists of different classes,
+ * such as a DList and a VertexList.
+ */
+
+import list.*;
+import java.util.ArrayList;
+import java.util.Random;
+
+public class DListSpliceTest extends ScoredTest {
+
+  private static final int LISTS = 4;
+
+  private static Integer[] items;
+  private static ArrayList<DListNode> nodes = new ArrayList<DListNode>();
+
+  /**
+   * agree() checks that "list" holds exactly the nodes of "model", in
+   * order, linked both ways, and that each node holds the item it started
+   * with.
+   */
+  private static void agree(DList list, ArrayList<DListNode> model,
+                            String when) throws InvalidNodeException {
+    boolean right = list.length() == model.size();
+    ListNode node = list.front();
+    for (int i = 0; right && i < model.size(); i++) {
+      DListNode expected = model.get(i);
+      right = node == expected && expected.isValidNode() &&
+              expected.item() == items[itemIndex(expected)];
+      node = node.next();
+    }
+    right = right && !node.isValidNode();
+    node = list.back();
+    for (int i = model.size() - 1; right && i >= 0; i--) {
+      right = node == model.get(i);
+      node = node.prev();
+    }
+    check(right && !node.isValidNode(),
+          when + ": the list is " + list + ".");
+  }
+
+  /**
+   * itemIndex() returns the index in "items" of the item "node" started
+   * with.
+   */
+  private static int itemIndex(DListNode node) {
+    return nodes.indexOf(node);
+  }
+
+  public static void main(String[] args) throws InvalidNodeException {
+    System.out.println("Running DList splice test.");
+
+    System.out.println("Splicing and splitting small lists.");
+    DList x = new DList();
+    DList y = new DList();
+    for (int i = 0; i < 5; i++) {
+      x.insertBack(Integer.valueOf(i));
+    }
+    for (int i = 5; i < 8; i++) {
+      y.insertBack(Integer.valueOf(i));
+    }
+    ListNode five = y.front();
+    x.splice(y);
+    check(x.length() == 8 && y.isEmpty() && !y.front().isValidNode() &&
+          x.toString().equals("[  0  1  2  3  4  5  6  7  ]"),
+          "splice() made " + x + " and " + y + ".");
+    check(five.isValidNode() && five.prev().next() == five,
+          "a spliced node is not valid in its new list.");
+    ((DListNode) x.back()).remove();
+    check(x.length() == 7 && y.length() == 0,
+          "removing a spliced node changed the wrong list's length.");
+    x.splice(x);
+    x.splice(new DList());
+    check(x.length() == 7 && x.toString().equals("[  0  1  2  3  4  5  6  ]"),
+          "splicing a list onto itself, or an empty list, changed it.");
+    y.splice(x);
+    x.splice(y);
+    check(x.length() == 7 && y.isEmpty(), "splicing back and forth failed.");
+
+    DList z = x.splitAfter((DListNode) x.front().next().next());
+    check(x.toString().equals("[  0  1  2  ]") &&
+          z.toString().equals("[  3  4  5  6  ]") &&
+          x.length() == 3 && z.length() == 4,
+          "splitAfter() made " + x + " and " + z + ".");
+    ((DListNode) z.front()).remove();
+    check(z.length() == 3 && x.length() == 3,
+          "removing a split node changed the wrong list's length.");
+    check(x.splitAfter((DListNode) x.back()).isEmpty() && x.length() == 3,
+          "splitting after the back node split something off.");
+    DList all = new DList();
+    all.insertBack("only");
+    DList none = all.splitAfter((DListNode) all.front());
+    check(none.isEmpty() && all.length() == 1,
+          "splitting a list of one went wrong.");
+
+    System.out.println("Moving single nodes.");
+    x.moveToFront((DListNode) z.back());
+    check(x.toString().equals("[  6  0  1  2  ]") &&
+          z.toString().equals("[  4  5  ]"),
+          "moveToFront() made " + x + " and " + z + ".");
+    x.moveToBack((DListNode) x.front());
+    check(x.toString().equals("[  0  1  2  6  ]") && x.length() == 4,
+          "moveToBack() within a list made " + x + ".");
+    x.moveToFront((DListNode) x.front());
+    x.moveToBack((DListNode) x.back());
+    check(x.toString().equals("[  0  1  2  6  ]") && x.length() == 4,
+          "moving an end node to its own end made " + x + ".");
+
+    System.out.println("Using invalid or foreign nodes.");
+    int thrown = 0;
+    try {
+      z.splitAfter((DListNode) x.front());
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    DListNode gone = (DListNode) z.front();
+    gone.remove();
+    try {
+      x.moveToFront(gone);
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    try {
+      x.moveToBack((DListNode) x.front().prev());
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    try {
+      x.splitAfter(gone);
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    check(thrown == 4 && x.length() == 4 && z.length() == 1,
+          "an invalid or foreign node was accepted, or changed a list.");
+
+    System.out.println("Mixing kinds of lists.");
+    DList plain = new DList();
+    plain.insertBack("p");
+    VertexList vertices = new VertexList();
+    vertices.insertBack("v");
+    EdgeList edges = new EdgeList();
+    edges.insertBack("e");
+    DList[][] pairs = { { vertices, plain }, { edges, plain },
+                        { plain, vertices }, { vertices, edges } };
+    int refused = 0;
+    for (int i = 0; i < pairs.length; i++) {
+      try {
+        pairs[i][0].splice(pairs[i][1]);
+      } catch (IllegalArgumentException e) {
+        refused++;
+      }
+      try {
+        pairs[i][0].moveToBack((DListNode) pairs[i][1].front());
+      } catch (InvalidNodeException e) {
+        refused++;
+      }
+      try {
+        pairs[i][0].moveToFront((DListNode) pairs[i][1].front());
+      } catch (InvalidNodeException e) {
+        refused++;
+      }
+    }
+    check(refused == 3 * pairs.length,
+          "only " + refused + " of " + 3 * pairs.length +
+          " moves between kinds of lists were refused.");
+    check(plain.toString().equals("[  p  ]") &&
+          vertices.toString().equals("[  v  ]") &&
+          edges.toString().equals("[  e  ]") &&
+          vertices.front() instanceof VertexNode &&
+          edges.front() instanceof EdgeNode,
+          "a refused move changed a list:  " + plain + ", " + vertices +
+          " and " + edges + ".");
+    VertexList more = new VertexList();
+    more.insertBack("w");
+    vertices.splice(more);
+    vertices.moveToFront((DListNode) vertices.back());
+    check(vertices.toString().equals("[  w  v  ]") && more.isEmpty(),
+          "moves between two VertexLists made " + vertices + ".");
+
+    System.out.println("Running random moves among " + LISTS + " lists.");
+    Random random = new Random(25);
+    DList[] lists = new DList[LISTS];
+    ArrayList<ArrayList<DListNode>> models =
+      new ArrayList<ArrayList<DListNode>>();
+    items = new Integer[400];
+    for (int l = 0; l < LISTS; l++) {
+      lists[l] = new DList();
+      models.add(new ArrayList<DListNode>());
+    }
+    for (int i = 0; i < items.length; i++) {
+      items[i] = Integer.valueOf(i);
+      int l = random.nextInt(LISTS);
+      lists[l].insertBack(items[i]);
+      nodes.add((DListNode) lists[l].back());
+      models.get(l).add((DListNode) lists[l].back());
+    }
+    for (int k = 0; k < 5000; k++) {
+      int from = random.nextInt(LISTS);
+      int to = random.nextInt(LISTS);
+      ArrayList<DListNode> source = models.get(from);
+      ArrayList<DListNode> dest = models.get(to);
+      int op = random.nextInt(10);
+      if (op < 4 && !source.isEmpty()) {
+        DListNode node = source.remove(random.nextInt(source.size()));
+        if (op < 2) {
+          lists[to].moveToFront(node);
+          dest.add(0, node);
+        } else {
+          lists[to].moveToBack(node);
+          dest.add(node);
+        }
+      } else if (op < 6 && from != to) {
+        lists[to].splice(lists[from]);
+        dest.addAll(source);
+        source.clear();
+      } else if (op < 8 && !source.isEmpty()) {
+        int at = random.nextInt(source.size());
+        DList rest = lists[from].splitAfter(source.get(at));
+        ArrayList<DListNode> tail =
+          new ArrayList<DListNode>(source.subList(at + 1, source.size()));
+        source.subList(at + 1, source.size()).clear();
+        if (from != to) {
+          lists[to].splice(rest);
+          dest.addAll(tail);
+        } else {
+          lists[from].splice(rest);
+          source.addAll(tail);
+        }
+      } else if (!source.isEmpty()) {
+        DListNode node = source.remove(random.nextInt(source.size()));
+        lists[to].moveToBack(node);
+        dest.add(node);
+      }
+      if (k % 500 == 499) {
+        for (int l = 0; l < LISTS; l++) {
+          agree(lists[l], models.get(l), "list " + l + ", move " + (k + 1));
+        }
+      }
+    }
+    int total = 0;
+    for (int l = 0; l < LISTS; l++) {
+      total += lists[l].length();
+    }
+    check(total == items.length,
+          "the lists hold " + total + " nodes, not " + items.length + ".");
+
+    report("DList splice");
+  }
+}
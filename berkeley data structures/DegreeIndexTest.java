@@ -0,0 +1,120 @@
+/* DegreeIndexTest.java */
+
+/**
+ * The DegreeIndexTest class tests the degree index of WUGraph
+ * (enableDegreeIndex(), maxDegree(), topKByDegree(), verticesWithDegree()
+ * and degreeHistogram()) against degrees counted directly.
+ */
+
+import graph.*;
+import java.util.Random;
+
+public class DegreeIndexTest extends ScoredTest {
+
+  /**
+   * matches() checks every query of the degree index of "g" against the
+   * degrees of its vertices.
+   */
+  private static void matches(WUGraph g, String when) {
+    Object[] vertices = g.getVertices();
+    int max = 0;
+    for (int i = 0; i < vertices.length; i++) {
+      max = Math.max(max, g.degree(vertices[i]));
+    }
+    check(g.maxDegree() == max,
+          when + ": maxDegree() is " + g.maxDegree() + ", not " + max + ".");
+
+    int[] histogram = g.degreeHistogram();
+    check(histogram.length == max + 1,
+          when + ": degreeHistogram() has length " + histogram.length + ".");
+    int total = 0;
+    for (int d = 0; d < histogram.length; d++) {
+      Object[] withD = g.verticesWithDegree(d);
+      check(withD.length == histogram[d],
+            when + ": verticesWithDegree(" + d + ") and degreeHistogram() " +
+            "disagree.");
+      for (int i = 0; i < withD.length; i++) {
+        check(g.degree(withD[i]) == d,
+              when + ": verticesWithDegree(" + d + ") holds a vertex of " +
+              "degree " + g.degree(withD[i]) + ".");
+      }
+      total = total + histogram[d];
+    }
+    check(total == vertices.length,
+          when + ": degreeHistogram() counts " + total + " vertices.");
+    check(g.verticesWithDegree(max + 1).length == 0 &&
+          g.verticesWithDegree(-1).length == 0,
+          when + ": verticesWithDegree() out of range is not empty.");
+
+    Object[] top = g.topKByDegree(5);
+    check(top.length == Math.min(5, vertices.length),
+          when + ": topKByDegree(5) returned " + top.length + " vertices.");
+    for (int i = 0; i < top.length; i++) {
+      int atLeast = 0;
+      for (int j = 0; j < vertices.length; j++) {
+        if (g.degree(vertices[j]) > g.degree(top[i])) {
+          atLeast++;
+        }
+      }
+      check(atLeast <= i && (i == 0 || g.degree(top[i - 1]) >=
+                             g.degree(top[i])),
+            when + ": topKByDegree() entry " + i + " is out of place.");
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running degree index test.");
+    WUGraph g = new WUGraph();
+    boolean threw = false;
+    try {
+      g.maxDegree();
+    } catch (IllegalStateException e) {
+      threw = true;
+    }
+    check(threw, "maxDegree() without the index should throw.");
+
+    System.out.println("Indexing an empty graph.");
+    g.enableDegreeIndex();
+    check(g.isDegreeIndexEnabled(), "isDegreeIndexEnabled() is false.");
+    check(g.verticesWithDegree(0).length == 0,
+          "verticesWithDegree(0) on an empty graph is not empty.");
+    check(g.degreeHistogram().length == 1 && g.degreeHistogram()[0] == 0,
+          "degreeHistogram() on an empty graph should be {0}.");
+    check(g.topKByDegree(3).length == 0,
+          "topKByDegree() on an empty graph is not empty.");
+    matches(g, "empty graph");
+
+    System.out.println("Adding vertices and edges with the index on.");
+    Integer[] v = new Integer[60];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      g.addVertex(v[i]);
+    }
+    matches(g, "isolated vertices");
+    Random random = new Random(4);
+    for (int k = 0; k < 300; k++) {
+      int a = random.nextInt(v.length);
+      int b = (k % 3 == 0) ? 0 : random.nextInt(v.length);   // make a hub
+      g.addEdge(v[a], v[b], k);
+    }
+    g.addEdge(v[1], v[1], 1);
+    matches(g, "after addEdge()");
+
+    System.out.println("Removing edges and vertices with the index on.");
+    for (int k = 0; k < 100; k++) {
+      g.removeEdge(v[random.nextInt(v.length)], v[random.nextInt(v.length)]);
+    }
+    g.removeVertex(v[0]);
+    g.removeVertex(v[1]);
+    matches(g, "after removals");
+
+    System.out.println("Turning the index off and on again.");
+    g.disableDegreeIndex();
+    check(!g.isDegreeIndexEnabled(), "disableDegreeIndex() left it on.");
+    g.addEdge(v[2], v[3], 5);
+    g.enableDegreeIndex();
+    matches(g, "after re-enabling");
+
+    report("degree index");
+  }
+}
@@ -0,0 +1,122 @@
+/* EdgeFilterTest.java */
+
+/**
+ * The EdgeFilterTest class tests the edge filter of WUGraph
+ * (enableEdgeFilter()) by running the same random edits on a graph with the
+ * filter and a graph without it, and checking that they answer every
+ * isEdge() and weight() query alike, through filter rebuilds, vertex
+ * removals and turning the filter off and on.
+ */
+
+import graph.*;
+import java.util.Random;
+
+public class EdgeFilterTest extends ScoredTest {
+
+  private static Integer[] v;
+  private static Random random = new Random(20);
+
+  /**
+   * edit() makes the same "count" random edits to "filtered" and "plain".
+   */
+  private static void edit(WUGraph filtered, WUGraph plain, int count) {
+    for (int k = 0; k < count; k++) {
+      Object a = v[random.nextInt(v.length)];
+      Object b = random.nextInt(20) == 0 ? a : v[random.nextInt(v.length)];
+      int op = random.nextInt(100);
+      if (op < 30) {
+        filtered.removeEdge(a, b);
+        plain.removeEdge(a, b);
+      } else if (op < 31) {
+        filtered.removeVertex(a);
+        plain.removeVertex(a);
+      } else if (op < 33) {
+        filtered.addVertex(a);
+        plain.addVertex(a);
+      } else {
+        int w = random.nextInt(1000) - 500;
+        filtered.addEdge(a, b, w);
+        plain.addEdge(a, b, w);
+      }
+    }
+  }
+
+  /**
+   * agree() checks that "filtered" and "plain" have the same edges.
+   */
+  private static void agree(WUGraph filtered, WUGraph plain, String when) {
+    check(filtered.edgeCount() == plain.edgeCount(),
+          when + ": edgeCount() is " + filtered.edgeCount() + ", not " +
+          plain.edgeCount() + ".");
+    for (int i = 0; i < v.length; i++) {
+      for (int j = 0; j < v.length; j++) {
+        if (filtered.isEdge(v[i], v[j]) != plain.isEdge(v[i], v[j]) ||
+            filtered.weight(v[i], v[j]) != plain.weight(v[i], v[j])) {
+          check(false, when + ": edge (" + i + ", " + j + ") differs.");
+          return;
+        }
+      }
+    }
+    check(!filtered.isEdge("not a vertex", v[0]) &&
+          filtered.weight(v[0], "not a vertex") == 0,
+          when + ": an edge to a missing vertex was found.");
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running edge filter test.");
+    v = new Integer[150];
+    WUGraph filtered = new WUGraph();
+    WUGraph plain = new WUGraph();
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      filtered.addVertex(v[i]);
+      plain.addVertex(v[i]);
+    }
+    check(!filtered.isEdgeFilterEnabled(), "the filter is on by default.");
+
+    System.out.println("Filtering an empty graph.");
+    filtered.enableEdgeFilter(1000);
+    check(filtered.isEdgeFilterEnabled(), "enableEdgeFilter() did not take.");
+    agree(filtered, plain, "no edges");
+
+    System.out.println("Editing with the filter on.");
+    edit(filtered, plain, 3000);
+    agree(filtered, plain, "after 3000 edits");
+
+    System.out.println("Outgrowing a small filter.");
+    filtered.enableEdgeFilter(10);
+    agree(filtered, plain, "after re-enabling small");
+    edit(filtered, plain, 6000);
+    agree(filtered, plain, "after outgrowing the filter");
+
+    System.out.println("Removing most edges.");
+    for (int i = 0; i < v.length; i += 2) {
+      filtered.removeVertex(v[i]);
+      plain.removeVertex(v[i]);
+    }
+    agree(filtered, plain, "after removing half the vertices");
+
+    System.out.println("Turning the filter off and on.");
+    filtered.disableEdgeFilter();
+    check(!filtered.isEdgeFilterEnabled(), "disableEdgeFilter() left it on.");
+    edit(filtered, plain, 2000);
+    agree(filtered, plain, "with the filter off");
+    filtered.enableEdgeFilter(0);
+    agree(filtered, plain, "after enabling on a full graph");
+    edit(filtered, plain, 2000);
+    agree(filtered, plain, "at the end");
+
+    System.out.println("Filtering an open-addressing graph.");
+    filtered = new WUGraph(true);
+    plain = new WUGraph(true);
+    for (int i = 0; i < v.length; i++) {
+      filtered.addVertex(v[i]);
+      plain.addVertex(v[i]);
+    }
+    filtered.enableEdgeFilter(100);
+    edit(filtered, plain, 5000);
+    agree(filtered, plain, "open addressing");
+
+    report("edge filter");
+  }
+}
@@ -0,0 +1,141 @@
+/* EdgeListImporterTest.java */
+
+/**
+ * The EdgeListImporterTest class tests EdgeListImporter on text and binary
+ * edge-list files, including comments, '\r', negative numbers, numbers out
+ * of range and malformed lines.
+ */
+
+import graph.*;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class EdgeListImporterTest extends ScoredTest {
+
+  private static File file;
+
+  private static void writeText(String text) throws IOException {
+    FileOutputStream out = new FileOutputStream(file);
+    out.write(text.getBytes("US-ASCII"));
+    out.close();
+  }
+
+  /**
+   * rejects() checks that importing "text" fails with an IOException.
+   */
+  private static void rejects(String text, String why) throws IOException {
+    writeText(text);
+    boolean threw = false;
+    try {
+      new EdgeListImporter(new WUGraph()).importText(file);
+    } catch (IOException e) {
+      threw = true;
+    }
+    check(threw, "importText() accepted " + why + ".");
+  }
+
+  private static Integer v(int id) {
+    return Integer.valueOf(id);
+  }
+
+  public static void main(String[] args) throws IOException {
+    System.out.println("Running EdgeListImporter test.");
+    file = File.createTempFile("EdgeListImporterTest", ".txt");
+    file.deleteOnExit();
+
+    System.out.println("Importing text with comments, tabs and \\r.");
+    writeText("# a comment line\n" +
+              "1 2 10\r\n" +
+              "\n" +
+              "  2\t3   -20   # trailing comment\r\n" +
+              "3 3 5\n" +
+              "-2147483648 2147483647 -7\n" +
+              "4 5 6");                  // no newline at the end
+    WUGraph g = new WUGraph();
+    EdgeListImporter importer = new EdgeListImporter(g);
+    long edges = importer.importText(file);
+    check(edges == 5, "importText() read " + edges + " edges, not 5.");
+    check(g.edgeCount() == 5 && g.vertexCount() == 7,
+          "graph has " + g.vertexCount() + " vertices and " + g.edgeCount() +
+          " edges.");
+    check(g.weight(v(1), v(2)) == 10 && g.weight(v(3), v(2)) == -20 &&
+          g.weight(v(3), v(3)) == 5 && g.weight(v(4), v(5)) == 6,
+          "an edge was read with the wrong weight.");
+    check(g.weight(v(Integer.MIN_VALUE), v(Integer.MAX_VALUE)) == -7,
+          "the extreme ids were not read.");
+
+    System.out.println("Importing text with numbers split across reads.");
+    StringBuilder big = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      big.append(1000000 + i).append(' ').append(1000000 + (i + 1) % 20000)
+         .append(' ').append(-i).append('\n');
+    }
+    writeText(big.toString());
+    final long[] lastReport = new long[2];
+    g = new WUGraph();
+    importer = new EdgeListImporter(g);
+    importer.setListener(new ImportListener() {
+      public void progress(long bytesRead, long edgesRead, double rate) {
+        lastReport[0] = bytesRead;
+        lastReport[1]++;
+      }
+    }, 5000);
+    edges = importer.importText(file);
+    check(edges == 20000 && g.edgeCount() == 20000,
+          "a long file lost edges at buffer boundaries.");
+    boolean weightsRight = true;
+    for (int i = 0; i < 20000; i++) {
+      weightsRight = weightsRight &&
+        g.weight(v(1000000 + i), v(1000000 + (i + 1) % 20000)) == -i;
+    }
+    check(weightsRight, "a long file has an edge with the wrong weight.");
+    check(lastReport[1] == 5 && lastReport[0] == file.length(),
+          "the listener was called " + lastReport[1] + " times, and last " +
+          "saw " + lastReport[0] + " bytes.");
+
+    System.out.println("Importing malformed text.");
+    rejects("1 2\n", "a line with two numbers");
+    rejects("1 2 3 4\n", "a line with four numbers");
+    rejects("1 - 3\n", "a '-' without digits");
+    rejects("1 2-3 4\n", "a misplaced '-'");
+    rejects("1 2147483648 3\n", "a number just out of range");
+    rejects("1 99999999999999999999 3\n", "a number far out of range");
+    rejects("1 2 x\n", "a letter");
+
+    System.out.println("Importing a binary file.");
+    DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+    for (int i = 0; i < 3000; i++) {
+      out.writeInt(i);
+      out.writeInt(i * 2);
+      out.writeInt(-i);
+    }
+    out.close();
+    g = new WUGraph();
+    edges = new EdgeListImporter(g).importBinary(file);
+    check(edges == 3000 && g.edgeCount() == 3000,
+          "importBinary() read " + edges + " edges, not 3000.");
+    check(g.weight(v(2999), v(5998)) == -2999 && g.isEdge(v(0), v(0)),
+          "importBinary() read an edge wrongly.");
+
+    System.out.println("Importing a binary file with a partial edge.");
+    out = new DataOutputStream(new FileOutputStream(file));
+    out.writeInt(1);
+    out.writeInt(2);
+    out.writeInt(3);
+    out.writeInt(4);
+    out.close();
+    g = new WUGraph();
+    boolean threw = false;
+    try {
+      new EdgeListImporter(g).importBinary(file);
+    } catch (IOException e) {
+      threw = true;
+    }
+    check(threw, "importBinary() accepted a partial edge.");
+    check(g.weight(v(1), v(2)) == 3, "the whole edge before it was lost.");
+
+    report("EdgeListImporter");
+  }
+}
@@ -0,0 +1,129 @@
+/* HashStrategyTest.java */
+
+/**
+ * The HashStrategyTest class tests MixingHashStrategy and PairHashStrategy:
+ * that seeds change the codes, that a pair's code ignores the order of its
+ * vertices, and that edges chosen to share one unseeded code are scattered
+ * by a seeded graph.
+ */
+
+import graph.*;
+import hash.*;
+import java.util.HashSet;
+
+public class HashStrategyTest extends ScoredTest {
+
+  /**
+   * inverse() returns the multiplicative inverse of the odd int "a" modulo
+   * 2^32, by Newton's iteration.
+   */
+  private static int inverse(int a) {
+    int x = a;
+    for (int i = 0; i < 5; i++) {
+      x = x * (2 - a * x);
+    }
+    return x;
+  }
+
+  /**
+   * unmix() inverts MixingHashStrategy.mix().
+   */
+  private static int unmix(int h) {
+    h ^= h >>> 16;
+    h *= inverse(0xC2B2AE35);
+    h ^= (h >>> 13) ^ (h >>> 26);
+    h *= inverse(0x85EBCA6B);
+    h ^= h >>> 16;
+    return h;
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running hash strategy test.");
+    boolean inverts = true;
+    for (int i = -1000; i < 1000; i++) {
+      int h = i * 0x9E3779B9;
+      inverts = inverts && unmix(MixingHashStrategy.mix(h)) == h;
+    }
+    check(inverts, "the test's unmix() does not invert mix().");
+
+    System.out.println("Comparing seeds.");
+    MixingHashStrategy unseeded = new MixingHashStrategy();
+    MixingHashStrategy a = MixingHashStrategy.withRandomSeed();
+    MixingHashStrategy b = MixingHashStrategy.withRandomSeed();
+    check(unseeded.seed() == 0, "the unseeded strategy has a seed.");
+    check(a.seed() != b.seed(), "two random seeds are equal.");
+    check(new MixingHashStrategy(7).hash("x") ==
+          new MixingHashStrategy(7).hash("x"),
+          "equal seeds give different codes.");
+    int differ = 0;
+    for (int i = 0; i < 100; i++) {
+      if (a.hash(Integer.valueOf(i)) != b.hash(Integer.valueOf(i))) {
+        differ++;
+      }
+    }
+    check(differ > 90, "two seeds agree on " + (100 - differ) + " of 100 keys.");
+
+    System.out.println("Hashing pairs.");
+    PairHashStrategy pairs = new PairHashStrategy(a);
+    boolean symmetric = true;
+    for (int i = 0; i < 200; i++) {
+      Object u = "u" + i;
+      Object v = Integer.valueOf(i * 31);
+      symmetric = symmetric && pairs.hashPair(u, v) == pairs.hashPair(v, u);
+    }
+    check(symmetric, "hashPair(u, v) differs from hashPair(v, u).");
+    check(pairs.hashPair("s", "s") != pairs.hashPair("s", "t") &&
+          pairs.hashPair("s", new String("s")) == pairs.hashPair("s", "s"),
+          "self-edges are not hashed by equals().");
+    check(pairs.hash("s") == a.hash("s"),
+          "a vertex is not hashed by the vertex strategy.");
+
+    System.out.println("Hashing pairs chosen to collide without a seed.");
+    // For each u, pick v so that mix(u) + mix(v) is the same target; the
+    // edges (u, v) then all share one unseeded VertexPair.hashCode().
+    int n = 2000;
+    Integer[] u = new Integer[n];
+    Integer[] v = new Integer[n];
+    int target = 0x12345678;
+    for (int i = 0; i < n; i++) {
+      u[i] = Integer.valueOf(i + 1);
+      v[i] = Integer.valueOf(unmix(target - MixingHashStrategy.mix(i + 1)));
+    }
+    PairHashStrategy plain = new PairHashStrategy(unseeded);
+    HashSet<Integer> plainCodes = new HashSet<Integer>();
+    HashSet<Integer> seededCodes = new HashSet<Integer>();
+    for (int i = 0; i < n; i++) {
+      plainCodes.add(Integer.valueOf(plain.hashPair(u[i], v[i])));
+      seededCodes.add(Integer.valueOf(pairs.hashPair(u[i], v[i])));
+    }
+    check(plainCodes.size() == 1,
+          "the chosen pairs have " + plainCodes.size() + " unseeded codes.");
+    check(seededCodes.size() > n - 5,
+          "the chosen pairs have only " + seededCodes.size() + " seeded " +
+          "codes.");
+
+    System.out.println("Building seeded graphs from the chosen pairs.");
+    for (int k = 0; k < 2; k++) {
+      WUGraph g = new WUGraph(k == 0, MixingHashStrategy.withRandomSeed());
+      for (int i = 0; i < n; i++) {
+        g.addVertex(u[i]);
+        g.addVertex(v[i]);
+        g.addEdge(u[i], v[i], i);
+      }
+      boolean right = g.edgeCount() == n;
+      for (int i = 0; i < n; i++) {
+        right = right && g.weight(v[i], u[i]) == i;
+      }
+      for (int i = 0; i < n; i += 2) {
+        g.removeEdge(u[i], v[i]);
+      }
+      for (int i = 0; i < n; i++) {
+        right = right && g.isEdge(u[i], v[i]) == (i % 2 == 1);
+      }
+      check(right, (k == 0 ? "an open" : "a chained") + " seeded graph " +
+            "lost or kept the wrong edges.");
+    }
+
+    report("hash strategy");
+  }
+}
@@ -0,0 +1,135 @@
+/* HashTableMetricsTest.java */
+
+/**
+ * The HashTableMetricsTest class tests HashTableChained.metrics() and
+ * chainHistogram() on a table whose keys are hashed to themselves, so that
+ * every chain length and every probe count can be worked out by hand.
+ */
+
+import hash.*;
+
+public class HashTableMetricsTest extends ScoredTest {
+
+  private static final HashStrategy IDENTITY = new HashStrategy() {
+    public int hash(Object key) {
+      return ((Integer) key).intValue();
+    }
+  };
+
+  public static void main(String[] args) {
+    System.out.println("Running HashTableMetrics test.");
+    HashTableChained table = new HashTableChained(16, IDENTITY);
+    int b = table.numBuckets();
+    check(!table.isMetricsEnabled(), "metrics are on by default.");
+
+    System.out.println("Measuring occupancy.");
+    for (int i = 0; i < 5; i++) {
+      table.insert(Integer.valueOf(i * b), null);   // five in bucket 0
+    }
+    for (int i = 1; i <= 3; i++) {
+      table.insert(Integer.valueOf(i), null);       // one each in 1, 2, 3
+    }
+    HashTableMetrics m = table.metrics();
+    check(m.size() == 8 && m.buckets() == b,
+          "size " + m.size() + " and buckets " + m.buckets() + " are wrong.");
+    check(m.loadFactor() == 8.0 / b && table.loadFactor() == 8.0 / b,
+          "loadFactor() is " + m.loadFactor() + ".");
+    int[] histogram = table.chainHistogram();
+    check(histogram.length == 6, "the longest chain is " +
+          (histogram.length - 1) + ", not 5.");
+    check(histogram[0] == b - 4 && histogram[1] == 3 && histogram[2] == 0 &&
+          histogram[5] == 1, "chainHistogram() is wrong.");
+    histogram[0] = -1;
+    check(table.chainHistogram()[0] == b - 4,
+          "chainHistogram() hands out its own array.");
+    check(m.treeBuckets() == 0, "a chain of 5 has a tree.");
+    check(m.finds() == 0 && m.removes() == 0 && m.resizes() == 0,
+          "counters moved while metrics were off.");
+    check(m.averageFindProbes() == 0 && m.averageRemoveProbes() == 0,
+          "averages without finds or removes are not zero.");
+
+    System.out.println("Counting probes.");
+    table.setMetricsEnabled(true);
+    check(table.isMetricsEnabled() == HashTableChained.METRICS,
+          "setMetricsEnabled(true) did not take.");
+    for (int i = 0; i < 5; i++) {
+      table.find(Integer.valueOf(i * b));
+    }
+    m = table.metrics();
+    check(m.finds() == 5 && m.averageFindProbes() == 3.0,
+          "five finds in a chain of 5 gave " + m);
+    table.find(Integer.valueOf(5 * b));          // a miss scans all 5
+    table.find(Integer.valueOf(b - 1));          // a miss in an empty bucket
+    m = table.metrics();
+    check(m.finds() == 7 && m.averageFindProbes() == 20.0 / 7,
+          "misses were counted wrongly: " + m);
+    table.remove(Integer.valueOf(1));
+    table.remove(Integer.valueOf(b + 1));        // a miss in a chain of 0
+    m = table.metrics();
+    check(m.removes() == 2 && m.averageRemoveProbes() == 0.5,
+          "removes were counted wrongly: " + m);
+    check(m.size() == 7 && table.chainHistogram()[1] == 2,
+          "occupancy after a remove is wrong: " + m);
+
+    System.out.println("Counting resizes.");
+    for (int i = 0; i < b; i++) {
+      table.insert(Integer.valueOf(1000 + i), null);
+    }
+    m = table.metrics();
+    check(m.resizes() == 1 && m.buckets() == 2 * b,
+          "growing once counted " + m.resizes() + " resizes.");
+    check(m.resizeNanos() > 0, "a resize took no time.");
+    check(m.toString().indexOf("resizes 1") >= 0,
+          "toString() is missing the resizes: " + m);
+
+    System.out.println("Resetting and disabling.");
+    table.resetMetrics();
+    m = table.metrics();
+    check(m.finds() == 0 && m.removes() == 0 && m.resizes() == 0 &&
+          m.resizeNanos() == 0 && m.size() == 7 + b,
+          "resetMetrics() left counters or lost entries: " + m);
+    table.setMetricsEnabled(false);
+    table.find(Integer.valueOf(0));
+    table.remove(Integer.valueOf(0));
+    check(table.metrics().finds() == 0 && table.metrics().removes() == 0,
+          "counters moved after setMetricsEnabled(false).");
+
+    System.out.println("Counting tree buckets.");
+    table = new HashTableChained(16, IDENTITY);
+    b = table.numBuckets();
+    table.setMetricsEnabled(true);
+    for (int i = 0; i < 12; i++) {
+      table.insert(Integer.valueOf(i * b * 4), null);   // twelve in bucket 0
+    }
+    m = table.metrics();
+    check(m.treeBuckets() == 1 && table.chainHistogram().length == 13,
+          "a chain of 12 is not counted as a tree bucket: " + m);
+    table.find(Integer.valueOf(11 * b * 4));
+    check(table.metrics().averageFindProbes() < 12,
+          "a find in a tree bucket probed the whole chain.");
+
+    System.out.println("Counting tree buckets through resizes.");
+    table = new HashTableChained(IDENTITY);
+    table.setIncrementalResize(true);
+    for (int i = 0; i < 4000; i++) {
+      table.insert(Integer.valueOf(i << 16), null);   // all in bucket 0
+    }
+    check(table.metrics().treeBuckets() == 1,
+          "one colliding bucket grown incrementally counts " +
+          table.metrics().treeBuckets() + " trees.");
+    for (int i = 0; i < 4000; i++) {
+      table.remove(Integer.valueOf(i << 16));
+    }
+    check(table.metrics().treeBuckets() == 0 && table.isEmpty(),
+          "an emptied table counts " + table.metrics().treeBuckets() +
+          " trees.");
+    for (int i = 0; i < 100; i++) {
+      table.insert(Integer.valueOf(i << 16), null);
+    }
+    table.makeEmpty();
+    check(table.metrics().treeBuckets() == 0,
+          "makeEmpty() left trees counted.");
+
+    report("HashTableMetrics");
+  }
+}
@@ -0,0 +1,153 @@
+/* HashTableOpenTest.java */
+
+/**
+ * The HashTableOpenTest class tests HashTableOpen against java.util.HashMap,
+ * with well-spread keys and with keys that all share one hash code, and
+ * checks that a WUGraph built with open addressing matches a chained one.
+ */
+
+import graph.*;
+import hash.*;
+import java.util.HashMap;
+import java.util.Random;
+
+public class HashTableOpenTest extends ScoredTest {
+
+  /**
+   * randomOps() runs a random mix of inserts, finds and removes on "table"
+   * and on a HashMap, and checks that they agree.
+   */
+  private static void randomOps(HashTableOpen table, int keyRange, int ops,
+                                String name) {
+    HashMap<Integer, Integer> model = new HashMap<Integer, Integer>();
+    Random random = new Random(keyRange);
+    boolean agree = true;
+    for (int k = 0; k < ops; k++) {
+      Integer key = Integer.valueOf(random.nextInt(keyRange));
+      Entry found = table.find(key);
+      Integer expected = model.get(key);
+      if ((found == null) != (expected == null) ||
+          (found != null && !found.value().equals(expected))) {
+        agree = false;
+      }
+      if (random.nextInt(3) == 0) {
+        Entry removed = table.remove(key);
+        if ((removed == null) != (expected == null)) {
+          agree = false;
+        }
+        model.remove(key);
+      } else if (expected == null) {
+        Entry inserted = table.insert(key, Integer.valueOf(k));
+        if (inserted.key() != key || !inserted.value().equals(k)) {
+          agree = false;
+        }
+        model.put(key, Integer.valueOf(k));
+      }
+    }
+    check(agree, name + ": find(), insert() or remove() disagreed with " +
+          "HashMap.");
+    check(table.size() == model.size(),
+          name + ": size() is " + table.size() + " but should be " +
+          model.size() + ".");
+    for (int key = 0; key < keyRange; key++) {
+      Entry found = table.find(Integer.valueOf(key));
+      Integer expected = model.get(Integer.valueOf(key));
+      if ((found == null) != (expected == null) ||
+          (found != null && !found.value().equals(expected))) {
+        check(false, name + ": key " + key + " is wrong after the run.");
+        return;
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running HashTableOpen test.");
+    HashTableOpen table = new HashTableOpen();
+    check(table.isEmpty() && table.size() == 0, "new table is not empty.");
+    check(table.find("x") == null && table.remove("x") == null,
+          "empty table found or removed a key.");
+
+    System.out.println("Running random operations on spread keys.");
+    randomOps(new HashTableOpen(), 5000, 60000, "spread keys");
+    randomOps(new HashTableOpen(100000), 5000, 60000, "presized table");
+
+    System.out.println("Running random operations on colliding keys.");
+    randomOps(new HashTableOpen(new HashStrategy() {
+      public int hash(Object key) {
+        return 42;
+      }
+    }), 300, 5000, "colliding keys");
+    randomOps(new HashTableOpen(new HashStrategy() {
+      public int hash(Object key) {
+        return ((Integer) key).intValue() & 0xF0;   // long runs of codes
+      }
+    }), 2000, 20000, "clustered keys");
+
+    System.out.println("Inserting duplicate keys.");
+    table = new HashTableOpen();
+    table.insert("k", "1");
+    table.insert("k", "2");
+    check(table.size() == 2, "duplicate keys should both be stored.");
+    check(table.remove("k") != null && table.find("k") != null,
+          "removing one duplicate removed both.");
+    check(table.remove("k") != null && table.find("k") == null &&
+          table.isEmpty(), "removing both duplicates left one.");
+
+    System.out.println("Emptying and growing a table.");
+    table = new HashTableOpen();
+    for (int i = 0; i < 1000; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    table.makeEmpty();
+    check(table.isEmpty() && table.find(Integer.valueOf(5)) == null,
+          "makeEmpty() left entries behind.");
+    table.ensureCapacity(5000);
+    for (int i = 0; i < 5000; i++) {
+      table.insert(Integer.valueOf(i), Integer.valueOf(-i));
+    }
+    boolean all = true;
+    for (int i = 0; i < 5000; i++) {
+      Entry e = table.find(Integer.valueOf(i));
+      all = all && e != null && e.value().equals(Integer.valueOf(-i));
+    }
+    check(all && table.size() == 5000, "entries lost after ensureCapacity().");
+
+    System.out.println("Comparing open and chained WUGraphs.");
+    WUGraph open = new WUGraph(true);
+    WUGraph chained = new WUGraph(false);
+    Random random = new Random(11);
+    Integer[] v = new Integer[200];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      open.addVertex(v[i]);
+      chained.addVertex(v[i]);
+    }
+    for (int k = 0; k < 3000; k++) {
+      Object a = v[random.nextInt(v.length)];
+      Object b = v[random.nextInt(v.length)];
+      if (k % 5 == 0) {
+        open.removeEdge(a, b);
+        chained.removeEdge(a, b);
+      } else if (k % 97 == 0) {
+        open.removeVertex(a);
+        chained.removeVertex(a);
+      } else {
+        open.addEdge(a, b, k);
+        chained.addEdge(a, b, k);
+      }
+    }
+    check(open.vertexCount() == chained.vertexCount() &&
+          open.edgeCount() == chained.edgeCount(),
+          "open and chained graphs have different sizes.");
+    boolean same = true;
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j++) {
+        same = same && open.weight(v[i], v[j]) == chained.weight(v[i], v[j]) &&
+               open.isEdge(v[i], v[j]) == chained.isEdge(v[i], v[j]);
+      }
+    }
+    check(same, "open and chained graphs have different edges.");
+
+    report("HashTableOpen");
+  }
+}
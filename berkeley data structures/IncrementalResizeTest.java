@@ -0,0 +1,140 @@
+/* IncrementalResizeTest.java */
+
+/**
+ * The IncrementalResizeTest class tests the incremental resizing of
+ * HashTableChained:  that every key can be found and removed while a resize
+ * is under way, that a resize coming due during a shrink is deferred until
+ * the shrink is done, and that makeEmpty() and turning the mode off end a
+ * resize.
+ */
+
+import hash.*;
+import java.util.HashSet;
+
+public class IncrementalResizeTest extends ScoredTest {
+
+  /**
+   * holdsExactly() checks that "table" holds the keys of "keys" and no key
+   * in [0, range) outside it.
+   */
+  private static void holdsExactly(HashTableChained table,
+                                   HashSet<Integer> keys, int range,
+                                   String when) {
+    check(table.size() == keys.size(),
+          when + ": size() is " + table.size() + ", not " + keys.size() + ".");
+    for (int i = 0; i < range; i++) {
+      Entry e = table.find(Integer.valueOf(i));
+      if ((e != null) != keys.contains(Integer.valueOf(i)) ||
+          (e != null && !e.value().equals(Integer.valueOf(-i)))) {
+        check(false, when + ": key " + i + " is wrong.");
+        return;
+      }
+    }
+    check(true, "");
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running incremental resize test.");
+    HashTableChained table = new HashTableChained(16);
+    table.setIncrementalResize(true);
+    check(!table.isResizing(), "a new table is resizing.");
+
+    System.out.println("Growing a table incrementally.");
+    HashSet<Integer> keys = new HashSet<Integer>();
+    boolean sawResize = false;
+    boolean findsDuringResize = true;
+    for (int i = 0; i < 4000; i++) {
+      table.insert(Integer.valueOf(i), Integer.valueOf(-i));
+      keys.add(Integer.valueOf(i));
+      if (table.isResizing()) {
+        sawResize = true;
+        findsDuringResize = findsDuringResize &&
+          table.find(Integer.valueOf(i / 2)) != null &&
+          table.find(Integer.valueOf(0)) != null &&
+          table.find(Integer.valueOf(-1)) == null;
+      }
+    }
+    check(sawResize, "inserting 4000 keys never left a resize under way.");
+    check(findsDuringResize, "find() failed while a resize was under way.");
+    holdsExactly(table, keys, 4000, "after growing");
+
+    System.out.println("Removing keys while a resize is under way.");
+    int i = 4000;
+    while (!table.isResizing()) {
+      table.insert(Integer.valueOf(i), Integer.valueOf(-i));
+      keys.add(Integer.valueOf(i));
+      i++;
+    }
+    for (int k = 0; k < 4000 && table.isResizing(); k += 7) {
+      check(table.remove(Integer.valueOf(k)) != null,
+            "remove(" + k + ") during a resize found nothing.");
+      keys.remove(Integer.valueOf(k));
+    }
+    holdsExactly(table, keys, i, "after removals during a resize");
+
+    System.out.println("Turning incremental mode off mid-resize.");
+    while (!table.isResizing()) {
+      table.insert(Integer.valueOf(i), Integer.valueOf(-i));
+      keys.add(Integer.valueOf(i));
+      i++;
+    }
+    table.setIncrementalResize(false);
+    check(!table.isResizing(), "turning the mode off left a resize going.");
+    holdsExactly(table, keys, i, "after turning the mode off");
+
+    System.out.println("Deferring a grow that comes due during a shrink.");
+    table = new HashTableChained(16);
+    table.setLoadFactors(0.45, 1.0);
+    table.setIncrementalResize(true);
+    for (int k = 0; k < 2048; k++) {
+      table.insert(Integer.valueOf(k), Integer.valueOf(-k));
+    }
+    while (table.isResizing()) {
+      table.find(Integer.valueOf(0));
+      table.insert(Integer.valueOf(-5), null);
+      table.remove(Integer.valueOf(-5));
+    }
+    keys = new HashSet<Integer>();
+    for (int k = 0; k < 2048; k++) {
+      keys.add(Integer.valueOf(k));
+    }
+    int bucketsBefore = table.numBuckets();
+    int k = 0;
+    while (!table.isResizing()) {
+      table.remove(Integer.valueOf(k));
+      keys.remove(Integer.valueOf(k));
+      k++;
+    }
+    check(table.numBuckets() == bucketsBefore / 2,
+          "the shrink went to " + table.numBuckets() + " buckets.");
+    int shrunk = table.numBuckets();
+    boolean overloaded = false;
+    int next = 2048;
+    while (table.numBuckets() == shrunk) {
+      overloaded = overloaded || (table.isResizing() &&
+                                  table.loadFactor() > 1.0);
+      table.insert(Integer.valueOf(next), Integer.valueOf(-next));
+      keys.add(Integer.valueOf(next));
+      next++;
+    }
+    check(overloaded, "the table never passed the maximum load mid-shrink.");
+    check(table.isResizing() && table.numBuckets() == shrunk * 2,
+          "the deferred grow did not start when the shrink was done.");
+    holdsExactly(table, keys, next, "after the deferred grow");
+
+    System.out.println("Emptying a table mid-resize.");
+    while (!table.isResizing()) {
+      table.insert(Integer.valueOf(next), Integer.valueOf(-next));
+      next++;
+    }
+    table.makeEmpty();
+    check(!table.isResizing() && table.isEmpty(),
+          "makeEmpty() left a resize going or entries behind.");
+    table.insert(Integer.valueOf(1), Integer.valueOf(-1));
+    keys = new HashSet<Integer>();
+    keys.add(Integer.valueOf(1));
+    holdsExactly(table, keys, next, "after makeEmpty()");
+
+    report("incremental resize");
+  }
+}
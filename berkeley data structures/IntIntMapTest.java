@@ -0,0 +1,110 @@
+/* IntIntMapTest.java */
+
+/**
+ * The IntIntMapTest class tests IntIntMap against java.util.HashMap, with
+ * random keys, runs of consecutive keys and keys whose low bits are all
+ * equal, so that removals have long probe runs to repair.
+ */
+
+import hash.*;
+import java.util.HashMap;
+import java.util.Random;
+
+public class IntIntMapTest extends ScoredTest {
+
+  private static final int MISSING = -42;
+
+  /**
+   * randomOps() runs random puts, gets and removes of the keys "keys" on
+   * "map" and on a HashMap, and checks that they agree.
+   */
+  private static void randomOps(IntIntMap map, int[] keys, int ops,
+                                String name) {
+    HashMap<Integer, Integer> model = new HashMap<Integer, Integer>();
+    Random random = new Random(ops);
+    boolean agree = true;
+    for (int k = 0; k < ops; k++) {
+      int key = keys[random.nextInt(keys.length)];
+      Integer expected = model.get(Integer.valueOf(key));
+      int got = map.get(key, MISSING);
+      if ((expected == null ? got != MISSING : got != expected.intValue()) ||
+          map.containsKey(key) != (expected != null)) {
+        agree = false;
+      }
+      if (random.nextInt(3) == 0) {
+        if (map.remove(key) != (expected != null)) {
+          agree = false;
+        }
+        model.remove(Integer.valueOf(key));
+      } else {
+        int value = random.nextInt();
+        if (map.put(key, value) != (expected == null)) {
+          agree = false;
+        }
+        model.put(Integer.valueOf(key), Integer.valueOf(value));
+      }
+    }
+    check(agree, name + ": get(), put() or remove() disagreed with HashMap.");
+    check(map.size() == model.size() && map.isEmpty() == model.isEmpty(),
+          name + ": size() is " + map.size() + ", not " + model.size() + ".");
+    for (int i = 0; i < keys.length; i++) {
+      Integer expected = model.get(Integer.valueOf(keys[i]));
+      int got = map.get(keys[i], MISSING);
+      if (expected == null ? got != MISSING : got != expected.intValue()) {
+        check(false, name + ": key " + keys[i] + " is wrong after the run.");
+        return;
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running IntIntMap test.");
+    IntIntMap map = new IntIntMap();
+    check(map.isEmpty() && map.get(0, MISSING) == MISSING &&
+          !map.containsKey(0) && !map.remove(0), "a new map is not empty.");
+    check(map.put(0, 10) && map.put(Integer.MIN_VALUE, 20) &&
+          map.put(-1, 30), "put() of a new key did not return true.");
+    check(map.get(0, MISSING) == 10 &&
+          map.get(Integer.MIN_VALUE, MISSING) == 20 &&
+          map.get(-1, MISSING) == 30 && map.size() == 3,
+          "zero, negative or extreme keys are wrong.");
+    check(!map.put(0, 11) && map.get(0, MISSING) == 11 && map.size() == 3,
+          "put() on a present key did not replace it.");
+    map.put(5, MISSING);
+    check(map.containsKey(5) && map.get(5, 0) == MISSING && map.size() == 4,
+          "a value equal to \"missing\" was not stored.");
+    check(map.remove(5) && !map.containsKey(5) && map.size() == 3,
+          "remove() of a present key failed.");
+
+    System.out.println("Running random operations.");
+    Random random = new Random(17);
+    int[] keys = new int[5000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextInt();
+    }
+    randomOps(new IntIntMap(), keys, 50000, "random keys");
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = 1000000 + i;
+    }
+    randomOps(new IntIntMap(), keys, 50000, "consecutive keys");
+    randomOps(new IntIntMap(20000), keys, 50000, "presized map");
+    keys = new int[600];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = i << 20;
+    }
+    randomOps(new IntIntMap(), keys, 20000, "keys with equal low bits");
+
+    System.out.println("Emptying a map.");
+    map = new IntIntMap();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+    map.makeEmpty();
+    check(map.isEmpty() && !map.containsKey(7), "makeEmpty() left mappings.");
+    map.put(7, 8);
+    check(map.size() == 1 && map.get(7, MISSING) == 8,
+          "a map is not usable after makeEmpty().");
+
+    report("IntIntMap");
+  }
+}
@@ -0,0 +1,103 @@
+/* IntObjectMapTest.java */
+
+/**
+ * The IntObjectMapTest class tests IntObjectMap against java.util.HashMap,
+ * with random keys, runs of consecutive keys and keys whose low bits are all
+ * equal, so that removals have long probe runs to repair.
+ */
+
+import hash.*;
+import java.util.HashMap;
+import java.util.Random;
+
+public class IntObjectMapTest extends ScoredTest {
+
+  /**
+   * randomOps() runs random puts, gets and removes of the keys "keys" on
+   * "map" and on a HashMap, and checks that they agree.
+   */
+  private static void randomOps(IntObjectMap map, int[] keys, int ops,
+                                String name) {
+    HashMap<Integer, Object> model = new HashMap<Integer, Object>();
+    Random random = new Random(ops);
+    boolean agree = true;
+    for (int k = 0; k < ops; k++) {
+      int key = keys[random.nextInt(keys.length)];
+      Object expected = model.get(Integer.valueOf(key));
+      if (map.get(key) != expected ||
+          map.containsKey(key) != (expected != null)) {
+        agree = false;
+      }
+      if (random.nextInt(3) == 0) {
+        if (map.remove(key) != expected) {
+          agree = false;
+        }
+        model.remove(Integer.valueOf(key));
+      } else {
+        Object value = "v" + k;
+        if (map.put(key, value) != expected) {
+          agree = false;
+        }
+        model.put(Integer.valueOf(key), value);
+      }
+    }
+    check(agree, name + ": get(), put() or remove() disagreed with HashMap.");
+    check(map.size() == model.size() && map.isEmpty() == model.isEmpty(),
+          name + ": size() is " + map.size() + ", not " + model.size() + ".");
+    for (int i = 0; i < keys.length; i++) {
+      if (map.get(keys[i]) != model.get(Integer.valueOf(keys[i]))) {
+        check(false, name + ": key " + keys[i] + " is wrong after the run.");
+        return;
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running IntObjectMap test.");
+    IntObjectMap map = new IntObjectMap();
+    check(map.isEmpty() && map.get(0) == null && !map.containsKey(0) &&
+          map.remove(0) == null, "a new map is not empty.");
+    map.put(0, "zero");
+    map.put(Integer.MIN_VALUE, "min");
+    map.put(-1, "minus one");
+    check(map.get(0).equals("zero") && map.get(Integer.MIN_VALUE).equals("min")
+          && map.get(-1).equals("minus one") && map.size() == 3,
+          "zero, negative or extreme keys are wrong.");
+    check(map.put(0, "nil").equals("zero") && map.get(0).equals("nil") &&
+          map.size() == 3, "put() on a present key did not replace it.");
+    map.put(5, null);
+    check(map.containsKey(5) && map.get(5) == null && map.size() == 4,
+          "a null value was not stored.");
+
+    System.out.println("Running random operations.");
+    Random random = new Random(17);
+    int[] keys = new int[5000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextInt();
+    }
+    randomOps(new IntObjectMap(), keys, 50000, "random keys");
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = 1000000 + i;
+    }
+    randomOps(new IntObjectMap(), keys, 50000, "consecutive keys");
+    randomOps(new IntObjectMap(20000), keys, 50000, "presized map");
+    keys = new int[600];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = i << 20;
+    }
+    randomOps(new IntObjectMap(), keys, 20000, "keys with equal low bits");
+
+    System.out.println("Emptying a map.");
+    map = new IntObjectMap();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, "x");
+    }
+    map.makeEmpty();
+    check(map.isEmpty() && !map.containsKey(7), "makeEmpty() left mappings.");
+    map.put(7, "y");
+    check(map.size() == 1 && map.get(7).equals("y"),
+          "a map is not usable after makeEmpty().");
+
+    report("IntObjectMap");
+  }
+}
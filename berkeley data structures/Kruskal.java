@@ -3,7 +3,6 @@
 import queue.*;
 import graph.*;
 import set.*;
-import hash.*;
 
 /**
  * The Kruskal class contains the method minSpanTree(), which implements
@@ -15,14 +14,74 @@ public class Kruskal {
 
    /**
     * minSpanTree() returns a WUGraph that represents the minimum spanning tree
-    * of the WUGraph g.  The original WUGraph g is NOT changed.
+    * of the WUGraph g.  The original WUGraph g is NOT changed.  The work is
+    * done on a CsrGraph snapshot of g (see WUGraph.snapshot()), so the edges
+    * are read from flat arrays and every vertex already has an int id that
+    * can be used directly as its index in the disjoint sets.
+    * 
+    * If g keeps a weight index (see WUGraph.enableWeightIndex()), the edges
+    * are instead taken straight from the index in ascending weight order, so
+    * nothing is copied or sorted; this is the faster choice when the MST of
+    * a slowly changing graph is wanted again and again.
     * 
     * @param g is a WUGraph object.
     * @return minTree, a WUGraph object representing the minimum spanning tree
     * of the passed in WUGraph 'g'. 
+    */
+   public static WUGraph minSpanTree(WUGraph g){
+      if (g.isWeightIndexEnabled())
+      {
+         return minSpanTreeIndexed(g);
+      }
+      return minSpanTree(g.snapshot());
+   }
+
+   /**
+    * minSpanTreeIndexed() is minSpanTree() for a WUGraph whose weight index
+    * is enabled.  The edges arrive from g.forEachEdgeByWeight() already in
+    * ascending order, and each endpoint is looked up by its vertex id in g,
+    * which serves as its index in the disjoint sets.
+    */
+   private static WUGraph minSpanTreeIndexed(final WUGraph g){
+
+      final WUGraph minTree = new WUGraph();
+      final DisjointSets minimumSet = new DisjointSets(g.idCapacity());
+      Object[] gVertices = g.getVertices();
+
+      for (int i = 0; i < gVertices.length; i++)
+      {
+         minTree.addVertex(gVertices[i]);
+      }
+
+      g.forEachEdgeByWeight(true, new EdgeVisitor() {
+         public void visit(Object u, Object v, int weight)
+         {
+            int rootA = minimumSet.find(g.idOf(u));
+            int rootB = minimumSet.find(g.idOf(v));
+
+            if (rootA != rootB)
+            {
+               minimumSet.union(rootA, rootB);
+               minTree.addEdge(u, v, weight);
+            }
+         }
+      });
+
+      return minTree;
+   }
+
+   /**
+    * minSpanTree() returns a WUGraph that represents the minimum spanning tree
+    * of the snapshot g.  The returned WUGraph uses the same application
+    * vertex objects as the graph g was frozen from.
+    * 
+    * @param g is a CsrGraph snapshot.
+    * @return minTree, a WUGraph object representing the minimum spanning tree
+    * of the passed in CsrGraph 'g'. 
     * 
     * (Note): Objects of the KruskalEdge class will represent edges for this 
-    * portion of the project.
+    * portion of the project.  Their two "vertices" are the Integer ids of the
+    * endpoints in 'g', not the application vertices.
     * 
     * ____________________
     * :::MAIN VARIABLES:::
@@ -32,66 +91,42 @@ public class Kruskal {
     * 
     * 'minimumSet': DisjointSets object to keep track of which vertices are 
     * already connected and which ones are not. Each element in DisjointSets's 
-    * 'array' field represents a vertex of the graph.
+    * 'array' field represents a vertex of the graph; the element for a vertex
+    * is its id in 'g'.
     * 
     * 'allEdges': Is a LinkedQueue object from hw8. It will be used to store all 
-    * of the graph's edges (two vertices and a weight) in the form of 
+    * of the graph's edges (two vertex ids and a weight) in the form of 
     * KruskalEdge objects.
     * 
-    * 'vertices': HashTableChained object used to quickly find out a vertex's 
-    * index position in the disjoint set 'minimumSet'. The Hash Table will 
-    * consist of Entry objects. Each Entry object's key will be the vertex 
-    * object. The value of each Entry is the index position (int) for this 
-    * vertex in the disjoint set.
-    * 
-    * 'gVertices': An array that simply holds all the vertices (actual 
-    * application representations) of the graph.
-    * 
     * ________________
     * ::: PROCEDURE:::
     * 
-    * 1) Traverse through 'gVertices' and add each vertex of graph 'g' into the 
-    *    new graph 'minTree'. (There are no edges yet in 'minTree').
-    * 
-    * 2) For each vertex in 'gVertices', insert an Entry object into 'vertices' 
-    *    Hash Table. The key being the vertex object itself. The value is the 
-    *    current integer of the loop counter (which will be the index position
-    *    of the vertex in the disjoint set).
+    * 1) Add each vertex of 'g' into the new graph 'minTree'. (There are no 
+    *    edges yet in 'minTree').
     *
-    * 3) Using g.getNeighbors, we can get all the details about the vertex's 
-    *    edges (which vertex each edge is connected to. The weight between the 
-    *    two vertices.) For each neighboring vertex we find, along with the 
-    *    weight, we create a KruskalEdge object with the following parameters - 
-    *    -(our current vertex, 
-    *    -the neighboring vertex, 
-    *    -the weight of the edge formed between the two.)
-    * 
-    *    This newly constructed edge representation is enqueued into our 
-    *    LinkedQueue 'allEdges'.
-    * 
-    * 4) After the above has been done for all vertices that exist in graph 'g',
-    *    'allEdges' contains a KruskalEdge object for every edge that exists in 
-    *    'g'. 
+    * 2) For each vertex id u, walk the slots neighborStart(u) through
+    *    neighborEnd(u) - 1 of 'g'. Each slot names a neighbor v and the weight
+    *    of the edge (u, v). Every edge is stored under both of its endpoints,
+    *    so only the copy with u <= v is enqueued into 'allEdges' as a
+    *    KruskalEdge.
     * 
-    *    Using quicksort, 'allEdges' is sorted from least to greatest by the 
-    *    weight field, located in each KruskalEdge object. We essentially now 
-    *    have a sorted list of edges from graph 'g'.
+    * 3) Using quicksort, 'allEdges' is sorted from least to greatest by the 
+    *    weight field, located in each KruskalEdge object.
     * 
-    * 5) Traversing through 'allEdges', for each KruskalEdge, determine whether 
+    * 4) Traversing through 'allEdges', for each KruskalEdge, determine whether 
     *    there is already a path connecting the two vertices of the edge 
     *    (Whether the two vertices are already in the same set in the
     *    disjoint set 'minimumSet'). 
     * 
-    * 6) If there isn't a path between the two vertices, use the union operation 
+    * 5) If there isn't a path between the two vertices, use the union operation 
     *    to put them in the same set. Call the addEdge method on 'minTree' with 
-    *    the two vertices and weight of the edge, inserting this new
-    *    "minimum" edge into the graph we will return.
+    *    the two application vertices and weight of the edge, inserting this 
+    *    new "minimum" edge into the graph we will return.
     * 
-    * 7) Return 'minTree', which will represent the minimum spanning tree of 
+    * 6) Return 'minTree', which will represent the minimum spanning tree of 
     *    'g'.
     */
-   
-   public static WUGraph minSpanTree(WUGraph g){
+   public static WUGraph minSpanTree(CsrGraph g){
 
       KruskalEdge currEdge;
       int gVertexCount = g.vertexCount();
@@ -101,51 +136,39 @@ public class Kruskal {
 
       WUGraph minTree = new WUGraph();
       LinkedQueue allEdges = new LinkedQueue();
-      HashTableChained vertices = new HashTableChained();
-      Object[] gVertices = g.getVertices();
-      DisjointSets minimumSet;
+      DisjointSets minimumSet = new DisjointSets(gVertexCount);
 
       // Inserting all vertices of 'g' (with no edges) into 'minTree'.
-      for (int i = 0; i < gVertices.length; i++)
+      for (int u = 0; u < gVertexCount; u++)
       {
-         minTree.addVertex(gVertices[i]);
+         minTree.addVertex(g.vertex(u));
       }
 
-
-      for (int i = 0; i < gVertexCount; i++)
+      // Enqueue one KruskalEdge per edge of 'g'. The copy of the edge stored
+      // under the larger id is skipped.
+      for (int u = 0; u < gVertexCount; u++)
       {
-         Neighbors eachVertexNeighbors = g.getNeighbors(gVertices[i]);
-         
-         // Insert current vertex into hash table with disjoint set index as 
-         // value
-         vertices.insert(gVertices[i], i);
-                                           
-         // Traverse through each vertex's neighborList and insert a new 
-         // KruskalEdge object based on the current vertex, current neighbor, 
-         // and the weight on the edge between the two.
-         for (int j = 0; j < eachVertexNeighbors.neighborList.length; j++)
+         for (int s = g.neighborStart(u); s < g.neighborEnd(u); s++)
          {
-            currEdge = new KruskalEdge(gVertices[i], 
-                  eachVertexNeighbors.neighborList[j], 
-                  eachVertexNeighbors.weightList[j]);
+            int v = g.neighbor(s);
 
-            allEdges.enqueue(currEdge);
+            if (u <= v)
+            {
+               allEdges.enqueue(new KruskalEdge(u, v, g.weightAt(s)));
+            }
          }
       }
 
       // Use quicksort to sort the Edges based on weight.
       ListSorts.quickSort(allEdges); 
 
-      // Create DisjointSet for finding minimum spanning tree.
-      minimumSet = new DisjointSets(allEdges.size());
-
       // Look through each KruskalEdge object in the list of sorted edges.
       for (int k = 1; k < allEdges.size() + 1; k++)
       { 
          currEdge = ((KruskalEdge) allEdges.nth(k));
          weightAB = currEdge.weight;
-         vertexAPosition = (Integer) vertices.find(currEdge.object1).value();
-         vertexBPosition = (Integer) vertices.find(currEdge.object2).value();
+         vertexAPosition = (Integer) currEdge.object1;
+         vertexBPosition = (Integer) currEdge.object2;
 
          // Determine if the two vertices in each KruskalEdge are in the same 
          // set. If they're not, use the union method to put them in the same 
@@ -156,7 +179,8 @@ public class Kruskal {
          {
             minimumSet.union(minimumSet.find(vertexAPosition), 
                   minimumSet.find(vertexBPosition));
-            minTree.addEdge(currEdge.object1, currEdge.object2, weightAB);
+            minTree.addEdge(g.vertex(vertexAPosition), 
+                  g.vertex(vertexBPosition), weightAB);
          }
       }
 
@@ -0,0 +1,126 @@
+/* ListNodeTest.java */
+
+/**
+ * The ListNodeTest class tests the node kinds of the list package:  that a
+ * VertexList is made of VertexNodes and an EdgeList of EdgeNodes, however
+ * the nodes are inserted, that both keep plain DListNodes as sentinels, and
+ * that removing a node drops the references it holds.
+ */
+
+import list.*;
+
+public class ListNodeTest extends ScoredTest {
+
+  /**
+   * kinds() checks that every node of "list" is of class "kind", and that
+   * the node past the back is a plain DListNode sentinel.
+   */
+  private static void kinds(DList list, Class<?> kind, String name) {
+    DListNode node = (DListNode) list.front();
+    for (int i = 0; i < list.length(); i++) {
+      if (node.getClass() != kind) {
+        check(false, name + ": node " + i + " is a " +
+              node.getClass().getName() + ".");
+        return;
+      }
+      node = node.nextUnchecked();
+    }
+    check(node.getClass() == DListNode.class && !node.isValidNode(),
+          name + ": the sentinel is a " + node.getClass().getName() + ".");
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running list node test.");
+
+    System.out.println("Building a VertexList.");
+    VertexList vertices = new VertexList();
+    check(vertices.front().getClass() == DListNode.class,
+          "an empty VertexList has no plain sentinel.");
+    vertices.insertBack("b");
+    vertices.insertFront("a");
+    try {
+      ((DListNode) vertices.back()).insertAfter("d");
+      ((DListNode) vertices.back()).insertBefore("c");
+    } catch (InvalidNodeException e) {
+      System.out.println(e);
+    }
+    kinds(vertices, VertexNode.class, "VertexList");
+    check(vertices.toString().equals("[  a  b  c  d  ]"),
+          "the VertexList is " + vertices + ".");
+
+    VertexNode a = (VertexNode) vertices.front();
+    VertexNode b = (VertexNode) a.nextUnchecked();
+    check(a.adjList() != null && a.adjList().isEmpty() &&
+          a.adjList() != b.adjList(),
+          "VertexNodes do not each own an empty EdgeList.");
+    a.setVertexId(4);
+    DList bucket = new DList();
+    bucket.insertBack(a);
+    a.setDegreeNode((DListNode) bucket.front());
+    check(a.vertexId() == 4 && a.degreeNode() == bucket.front(),
+          "setVertexId() or setDegreeNode() did not take.");
+
+    System.out.println("Building an EdgeList.");
+    EdgeList edges = a.adjList();
+    edges.insertBack("ab");
+    edges.insertFront("aa");
+    try {
+      ((DListNode) edges.front()).insertAfter("ac");
+    } catch (InvalidNodeException e) {
+      System.out.println(e);
+    }
+    kinds(edges, EdgeNode.class, "EdgeList");
+    EdgeNode aa = (EdgeNode) edges.front();
+    EdgeNode ab = (EdgeNode) edges.back();
+    b.adjList().insertBack("ba");
+    EdgeNode ba = (EdgeNode) b.adjList().front();
+    aa.setPartner(aa);
+    aa.setVertexOne(a);
+    aa.setVertexTwo(a);
+    ab.setPartner(ba);
+    ab.setVertexOne(a);
+    ab.setVertexTwo(b);
+    ba.setPartner(ab);
+    ba.setVertexOne(b);
+    ba.setVertexTwo(a);
+    check(aa.partner() == aa && aa.vertexTwo() == a &&
+          ab.partner().partner() == ab && ab.vertexTwo() == b &&
+          ba.vertexOne().adjList() == b.adjList(),
+          "an EdgeNode's partner or vertices are wrong.");
+
+    System.out.println("Splitting off part of each list.");
+    try {
+      DList tail = vertices.splitAfter(b);
+      check(tail instanceof VertexList && tail.length() == 2,
+            "splitAfter() on a VertexList did not make a VertexList.");
+      kinds(tail, VertexNode.class, "split VertexList");
+      DList edgeTail = edges.splitAfter(aa);
+      check(edgeTail instanceof EdgeList && edgeTail.length() == 2,
+            "splitAfter() on an EdgeList did not make an EdgeList.");
+      kinds(edgeTail, EdgeNode.class, "split EdgeList");
+      edges.splice(edgeTail);
+      kinds(edges, EdgeNode.class, "spliced EdgeList");
+    } catch (InvalidNodeException e) {
+      System.out.println(e);
+    }
+
+    System.out.println("Removing nodes.");
+    try {
+      ab.remove();
+      check(!ab.isValidNode() && ab.partner() == null &&
+            ab.vertexOne() == null && ab.vertexTwo() == null,
+            "a removed EdgeNode kept its references.");
+      check(edges.length() == 2, "the EdgeList is " + edges + ".");
+      a.remove();
+      check(!a.isValidNode() && a.adjList() == null &&
+            a.degreeNode() == null,
+            "a removed VertexNode kept its references.");
+      check(vertices.length() == 1 && vertices.front() == b,
+            "the VertexList is " + vertices + ".");
+    } catch (InvalidNodeException e) {
+      System.out.println(e);
+    }
+
+    report("list node");
+  }
+}
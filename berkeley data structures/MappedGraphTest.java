@@ -0,0 +1,133 @@
+/* MappedGraphTest.java */
+
+/**
+ * The MappedGraphTest class tests MappedGraph.write() and MappedGraph.open()
+ * by writing a snapshot to a temporary file, mapping it back, in one window
+ * and in many small ones, and comparing the two.
+ */
+
+import graph.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class MappedGraphTest extends ScoredTest {
+
+  /**
+   * sameGraph() checks that the mapped graph "m" holds the snapshot "c".
+   */
+  private static void sameGraph(CsrGraph c, MappedGraph m) {
+    check(m.vertexCount() == c.vertexCount(),
+          "vertexCount() is " + m.vertexCount() + " but should be " +
+          c.vertexCount() + ".");
+    check(m.edgeCount() == c.edgeCount(),
+          "edgeCount() is " + m.edgeCount() + " but should be " +
+          c.edgeCount() + ".");
+    for (int u = 0; u < c.vertexCount(); u++) {
+      check(m.vertex(u).equals(c.vertex(u).toString()),
+            "vertex(" + u + ") is \"" + m.vertex(u) + "\".");
+      check(m.idOf(c.vertex(u).toString()) == u,
+            "idOf(\"" + c.vertex(u) + "\") is " +
+            m.idOf(c.vertex(u).toString()) + " but should be " + u + ".");
+      check(m.degree(u) == c.degree(u), "degree(" + u + ") is wrong.");
+      for (int v = 0; v < c.vertexCount(); v++) {
+        check(m.isEdge(u, v) == c.isEdge(u, v) &&
+              m.weight(u, v) == c.weight(u, v),
+              "edge (" + u + ", " + v + ") is wrong.");
+      }
+      for (int s = m.neighborStart(u); s + 1 < m.neighborEnd(u); s++) {
+        check(m.neighbor(s) < m.neighbor(s + 1),
+              "the neighbors of " + u + " are not sorted.");
+      }
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    System.out.println("Running MappedGraph test.");
+    File file = File.createTempFile("MappedGraphTest", ".wug");
+    file.deleteOnExit();
+
+    System.out.println("Writing and mapping an empty graph.");
+    WUGraph g = new WUGraph();
+    MappedGraph.write(g.snapshot(), file);
+    MappedGraph m = MappedGraph.open(file);
+    check(m.vertexCount() == 0 && m.edgeCount() == 0,
+          "mapped empty graph is not empty.");
+    check(m.idOf("x") == -1, "idOf() on empty mapped graph should be -1.");
+
+    System.out.println("Writing and mapping a graph of 60 vertices.");
+    String[] v = new String[60];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = "vertex " + (i * 17 % 60) + (i % 2 == 0 ? " \u00e9" : "");
+      g.addVertex(v[i]);
+    }
+    for (int i = 0; i < v.length; i++) {
+      for (int j = v.length - 1; j >= i; j -= 2 + i % 5) {
+        g.addEdge(v[i], v[j], i * 1000 - j);
+      }
+    }
+    CsrGraph c = g.snapshot();
+    MappedGraph.write(c, file);
+    m = MappedGraph.open(file);
+    sameGraph(c, m);
+    check(m.idOf("no such vertex") == -1,
+          "idOf() on a missing label should be -1.");
+    check(m.vertex(0) != null, "vertex(0) is null.");
+
+    System.out.println("Mapping the same file in small windows.");
+    int[] windows = {8, 64, 4096};
+    for (int w = 0; w < windows.length; w++) {
+      sameGraph(c, MappedGraph.open(file, windows[w]));
+    }
+    boolean threw = false;
+    try {
+      MappedGraph.open(file, 48);
+    } catch (IllegalArgumentException e) {
+      threw = true;
+    }
+    check(threw, "open() accepted a window size that is not a power of two.");
+
+    System.out.println("Opening files that are not graphs.");
+    FileOutputStream out = new FileOutputStream(file);
+    out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+                          16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28,
+                          29, 30, 31, 32, 33});
+    out.close();
+    threw = false;
+    try {
+      MappedGraph.open(file);
+    } catch (IOException e) {
+      threw = true;
+    }
+    check(threw, "open() accepted a file that is not a graph.");
+
+    MappedGraph.write(c, file);
+    long length = file.length();
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    raf.setLength(length - 3);
+    raf.close();
+    threw = false;
+    try {
+      MappedGraph.open(file);
+    } catch (IOException e) {
+      threw = true;
+    }
+    check(threw, "open() accepted a truncated graph file.");
+
+    MappedGraph.write(c, file);
+    raf = new RandomAccessFile(file, "rw");
+    raf.seek(40);
+    raf.writeLong(raf.length() * 2);    // the neighbors past the end
+    raf.close();
+    threw = false;
+    try {
+      MappedGraph.open(file);
+    } catch (IOException e) {
+      threw = true;
+    }
+    check(threw, "open() accepted a graph file with a bad section offset.");
+
+    report("MappedGraph");
+  }
+}
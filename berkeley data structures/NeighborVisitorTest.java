@@ -0,0 +1,82 @@
+/* NeighborVisitorTest.java */
+
+/**
+ * The NeighborVisitorTest class tests WUGraph.forEachNeighbor(), by vertex
+ * and by id, against getNeighbors().
+ */
+
+import graph.*;
+
+public class NeighborVisitorTest extends ScoredTest {
+
+  /**
+   * A Recorder remembers the neighbors and weights it is handed, in order.
+   */
+  private static class Recorder implements NeighborVisitor {
+    Object[] neighbors = new Object[64];
+    int[] weights = new int[64];
+    int count;
+
+    public void visit(Object neighbor, int weight) {
+      neighbors[count] = neighbor;
+      weights[count] = weight;
+      count++;
+    }
+  }
+
+  /**
+   * sameAsNeighbors() checks that "r" recorded exactly what getNeighbors()
+   * returns for "vertex", in the same order.
+   */
+  private static void sameAsNeighbors(WUGraph g, Object vertex, Recorder r,
+                                      int returned) {
+    Neighbors n = g.getNeighbors(vertex);
+    int degree = (n == null) ? 0 : n.neighborList.length;
+    check(returned == degree && r.count == degree,
+          "forEachNeighbor(" + vertex + ") visited " + r.count +
+          " and returned " + returned + " but the degree is " + degree + ".");
+    for (int i = 0; i < Math.min(degree, r.count); i++) {
+      check(r.neighbors[i] == n.neighborList[i] &&
+            r.weights[i] == n.weightList[i],
+            "forEachNeighbor(" + vertex + ") visit " + i + " differs from " +
+            "getNeighbors().");
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running neighbor visitor test.");
+    WUGraph g = new WUGraph();
+    Integer[] v = new Integer[20];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      g.addVertex(v[i]);
+    }
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j += 1 + i % 5) {
+        g.addEdge(v[i], v[j], i - j);
+      }
+    }
+    g.removeEdge(v[3], v[4]);
+
+    for (int i = 0; i < v.length; i++) {
+      Recorder r = new Recorder();
+      sameAsNeighbors(g, v[i], r, g.forEachNeighbor(v[i], r));
+      r = new Recorder();
+      sameAsNeighbors(g, v[i], r, g.forEachNeighbor(g.idOf(v[i]), r));
+    }
+
+    System.out.println("Walking a non-vertex and an unused id.");
+    Recorder r = new Recorder();
+    check(g.forEachNeighbor("missing", r) == 0 && r.count == 0,
+          "forEachNeighbor() on a non-vertex visited something.");
+    check(g.forEachNeighbor(g.idCapacity(), r) == 0 && r.count == 0,
+          "forEachNeighbor() on an unused id visited something.");
+
+    System.out.println("Walking an isolated vertex.");
+    g.addVertex("alone");
+    check(g.forEachNeighbor("alone", r) == 0 && r.count == 0,
+          "forEachNeighbor() on a vertex of degree 0 visited something.");
+
+    report("neighbor visitor");
+  }
+}
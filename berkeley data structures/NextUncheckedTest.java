@@ -0,0 +1,120 @@
+/* NextUncheckedTest.java */
+
+/**
+ * The NextUncheckedTest class tests DListNode's nextUnchecked() and
+ * prevUnchecked():  that they visit the same nodes as next() and prev(),
+ * that a walk stops on the sentinel, and that they return null on a removed
+ * node, in DLists and in the VertexLists and EdgeLists of a WUGraph.
+ */
+
+import graph.*;
+import list.*;
+import java.util.Random;
+
+public class NextUncheckedTest extends ScoredTest {
+
+  /**
+   * walks() checks that walking "list" with nextUnchecked() and with next()
+   * visits the same nodes, and likewise backward with prevUnchecked() and
+   * prev(), and that both unchecked walks end on the same sentinel.
+   */
+  private static void walks(DList list, String name)
+    throws InvalidNodeException {
+    boolean same = true;
+    int count = 0;
+    DListNode unchecked = (DListNode) list.front();
+    ListNode checked = list.front();
+    while (checked.isValidNode()) {
+      same = same && unchecked == checked;
+      unchecked = unchecked.nextUnchecked();
+      checked = checked.next();
+      count++;
+    }
+    DListNode sentinel = unchecked;
+    check(same && count == list.length() && !sentinel.isValidNode(),
+          name + ": a forward walk went astray.");
+
+    same = true;
+    unchecked = (DListNode) list.back();
+    checked = list.back();
+    while (checked.isValidNode()) {
+      same = same && unchecked == checked;
+      unchecked = unchecked.prevUnchecked();
+      checked = checked.prev();
+    }
+    check(same && unchecked == sentinel &&
+          sentinel.nextUnchecked() == list.front() &&
+          sentinel.prevUnchecked() == list.back(),
+          name + ": a backward walk went astray.");
+  }
+
+  public static void main(String[] args) throws InvalidNodeException {
+    System.out.println("Running nextUnchecked test.");
+    DList list = new DList();
+    walks(list, "empty DList");
+    check(((DListNode) list.front()).nextUnchecked() == list.front(),
+          "the sentinel of an empty DList is not its own successor.");
+
+    System.out.println("Walking a DList as it changes.");
+    Random random = new Random(24);
+    for (int i = 0; i < 500; i++) {
+      list.insertBack(Integer.valueOf(i));
+    }
+    walks(list, "DList of 500");
+    int removed = 0;
+    DListNode node = (DListNode) list.front();
+    while (node.isValidNode()) {
+      DListNode next = node.nextUnchecked();
+      if (random.nextInt(3) == 0) {
+        node.remove();
+        removed++;
+        if (node.nextUnchecked() != null || node.prevUnchecked() != null) {
+          check(false, "a removed node still has a neighbor.");
+          break;
+        }
+      }
+      node = next;
+    }
+    check(list.length() == 500 - removed,
+          "removing while walking unchecked lost count.");
+    walks(list, "DList after removals");
+    ((DListNode) list.back()).insertAfter("last");
+    ((DListNode) list.front()).insertBefore("first");
+    walks(list, "DList after inserts");
+
+    System.out.println("Walking a WUGraph's lists.");
+    WUGraph g = new WUGraph();
+    Integer[] v = new Integer[60];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      g.addVertex(v[i]);
+    }
+    for (int k = 0; k < 600; k++) {
+      g.addEdge(v[random.nextInt(v.length)], v[random.nextInt(v.length)], k);
+    }
+    for (int i = 0; i < v.length; i += 7) {
+      g.removeVertex(v[i]);
+    }
+    Object[] vertices = g.getVertices();
+    boolean right = vertices.length == g.vertexCount();
+    int degrees = 0;
+    for (int i = 0; i < vertices.length; i++) {
+      Neighbors neighbors = g.getNeighbors(vertices[i]);
+      int degree = g.degree(vertices[i]);
+      degrees += degree;
+      right = right && (degree == 0 ? neighbors == null
+                        : neighbors.neighborList.length == degree);
+      for (int j = 0; right && j < degree; j++) {
+        right = g.isEdge(vertices[i], neighbors.neighborList[j]) &&
+                g.weight(vertices[i], neighbors.neighborList[j]) ==
+                neighbors.weightList[j];
+      }
+    }
+    check(right, "getVertices() or getNeighbors() disagree with isEdge().");
+    check(degrees >= g.edgeCount() && degrees <= 2 * g.edgeCount(),
+          "the degrees add up to " + degrees + " for " + g.edgeCount() +
+          " edges.");
+
+    report("nextUnchecked");
+  }
+}
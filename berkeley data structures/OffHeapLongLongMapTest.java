@@ -0,0 +1,160 @@
+/* OffHeapLongLongMapTest.java */
+
+/**
+ * The OffHeapLongLongMapTest class tests OffHeapLongLongMap against
+ * java.util.HashMap, grows a map across several pages, and checks that,
+ * once the garbage collector has run, the direct memory in use after
+ * growing is that of the new table alone.
+ */
+
+import hash.*;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+public class OffHeapLongLongMapTest extends ScoredTest {
+
+  /**
+   * directBytes() returns the number of bytes of direct memory the JVM has
+   * handed out, or -1 if it can't tell.
+   */
+  private static long directBytes() {
+    List<BufferPoolMXBean> pools =
+      ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+    for (BufferPoolMXBean pool : pools) {
+      if (pool.getName().equals("direct")) {
+        return pool.getMemoryUsed();
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * settledBytes() returns directBytes() once it is at most "bound", asking
+   * the garbage collector a few times to free dropped buffers first, or
+   * the last value it saw if it never gets there.
+   */
+  private static long settledBytes(long bound) {
+    long used = directBytes();
+    for (int i = 0; i < 20 && used > bound; i++) {
+      System.gc();
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        System.out.println(e);
+      }
+      used = directBytes();
+    }
+    return used;
+  }
+
+  /**
+   * randomOps() runs random puts, gets and removes of keys from "keys" on
+   * "map" and on a HashMap, and checks that they agree.
+   */
+  private static void randomOps(OffHeapLongLongMap map, long[] keys, int ops,
+                                String name) {
+    HashMap<Long, Long> model = new HashMap<Long, Long>();
+    Random random = new Random(ops);
+    boolean agree = true;
+    for (int k = 0; k < ops; k++) {
+      long key = keys[random.nextInt(keys.length)];
+      Long expected = model.get(Long.valueOf(key));
+      if (map.containsKey(key) != (expected != null) ||
+          map.get(key, -42) !=
+          (expected == null ? -42 : expected.longValue())) {
+        agree = false;
+      }
+      if (random.nextInt(3) == 0) {
+        if (map.remove(key) != (expected != null)) {
+          agree = false;
+        }
+        model.remove(Long.valueOf(key));
+      } else {
+        long value = random.nextLong();
+        if (map.put(key, value) != (expected == null)) {
+          agree = false;
+        }
+        model.put(Long.valueOf(key), Long.valueOf(value));
+      }
+    }
+    check(agree, name + ": get(), put() or remove() disagreed with HashMap.");
+    check(map.size() == model.size(),
+          name + ": size() is " + map.size() + ", not " + model.size() + ".");
+    for (int i = 0; i < keys.length; i++) {
+      Long expected = model.get(Long.valueOf(keys[i]));
+      if (map.get(keys[i], -42) !=
+          (expected == null ? -42 : expected.longValue())) {
+        check(false, name + ": key " + keys[i] + " is wrong after the run.");
+        return;
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running OffHeapLongLongMap test.");
+    OffHeapLongLongMap map = new OffHeapLongLongMap();
+    check(map.isEmpty() && !map.containsKey(0) && map.get(0, 7) == 7 &&
+          !map.remove(0), "a new map is not empty.");
+    map.put(0, 1);
+    map.put(Long.MIN_VALUE, 2);
+    map.put(-1, 3);
+    check(map.get(0, 0) == 1 && map.get(Long.MIN_VALUE, 0) == 2 &&
+          map.get(-1, 0) == 3 && map.size() == 3,
+          "zero, negative or extreme keys are wrong.");
+    check(!map.put(0, 9) && map.get(0, 0) == 9 && map.size() == 3,
+          "put() on a present key did not replace it.");
+
+    System.out.println("Running random operations.");
+    Random random = new Random(19);
+    long[] keys = new long[5000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextLong();
+    }
+    randomOps(new OffHeapLongLongMap(), keys, 50000, "random keys");
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = 10000000000L + i;
+    }
+    randomOps(new OffHeapLongLongMap(), keys, 50000, "consecutive keys");
+
+    System.out.println("Growing a map across several pages.");
+    long before = directBytes();
+    map = new OffHeapLongLongMap();
+    int n = 2000000;
+    for (int i = 0; i < n; i++) {
+      map.put(i * 7919L, i);
+    }
+    boolean right = map.size() == n;
+    for (int i = 0; i < n; i++) {
+      right = right && map.get(i * 7919L, -1) == i;
+    }
+    check(right, "a map of 2,000,000 mappings lost some.");
+    long used = settledBytes(before + map.offHeapBytes() + (1 << 20)) -
+                before;
+    check(before < 0 || used <= map.offHeapBytes() + (1 << 20),
+          "after growing, " + used + " bytes of direct memory are in use " +
+          "for a table of " + map.offHeapBytes() + " bytes.");
+
+    System.out.println("Presizing and emptying.");
+    map = new OffHeapLongLongMap(1000);
+    long bytes = map.offHeapBytes();
+    map.ensureCapacity(100);
+    check(map.offHeapBytes() == bytes,
+          "ensureCapacity() with a smaller size changed the table.");
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, -i);
+    }
+    check(map.offHeapBytes() == bytes, "a presized map grew.");
+    map.makeEmpty();
+    check(map.isEmpty() && !map.containsKey(5) &&
+          map.offHeapBytes() == bytes,
+          "makeEmpty() left mappings or changed the table.");
+    map.put(5, 6);
+    check(map.get(5, 0) == 6 && map.size() == 1,
+          "a map is not usable after makeEmpty().");
+
+    report("OffHeapLongLongMap");
+  }
+}
@@ -0,0 +1,150 @@
+/* ResizePolicyTest.java */
+
+/**
+ * The ResizePolicyTest class tests the automatic growing and shrinking of
+ * HashTableChained:  that insert() keeps the load under the maximum, that
+ * remove() halves the table down to its starting size, that setLoadFactors()
+ * moves both thresholds and rejects bad ones, and that a WUGraph's edge
+ * table grows with its edges.
+ */
+
+import graph.*;
+import hash.*;
+
+public class ResizePolicyTest extends ScoredTest {
+
+  /**
+   * rejects() checks that setLoadFactors(min, max) throws
+   * IllegalArgumentException.
+   */
+  private static void rejects(double min, double max) {
+    boolean threw = false;
+    try {
+      new HashTableChained().setLoadFactors(min, max);
+    } catch (IllegalArgumentException e) {
+      threw = true;
+    }
+    check(threw, "setLoadFactors(" + min + ", " + max + ") was accepted.");
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running resize policy test.");
+    HashTableChained table = new HashTableChained(16);
+    int startBuckets = table.numBuckets();
+    check(Integer.bitCount(startBuckets) == 1 && startBuckets >= 16,
+          "a table for 16 entries has " + startBuckets + " buckets.");
+
+    System.out.println("Growing with the default load factors.");
+    boolean underMax = true;
+    boolean powersOfTwo = true;
+    for (int i = 0; i < 10000; i++) {
+      table.insert(Integer.valueOf(i), null);
+      underMax = underMax && table.loadFactor() <= 0.85;
+      powersOfTwo = powersOfTwo && Integer.bitCount(table.numBuckets()) == 1;
+    }
+    check(underMax, "insert() let the load pass 0.85.");
+    check(powersOfTwo, "the number of buckets left the powers of two.");
+    check(table.loadFactor() > 0.85 / 2,
+          "the table grew too far: " + table.numBuckets() + " buckets.");
+
+    System.out.println("Shrinking with the default load factors.");
+    boolean overMin = true;
+    for (int i = 0; i < 10000; i++) {
+      table.remove(Integer.valueOf(i));
+      overMin = overMin && (table.loadFactor() >= 0.2 ||
+                            table.numBuckets() == startBuckets);
+    }
+    check(overMin, "remove() let the load drop below 0.2 without shrinking.");
+    check(table.isEmpty() && table.numBuckets() == startBuckets,
+          "an emptied table has " + table.numBuckets() + " buckets, not " +
+          startBuckets + ".");
+
+    System.out.println("Changing the load factors.");
+    table = new HashTableChained(16);
+    table.setLoadFactors(0.5, 4.0);
+    for (int i = 0; i < 4000; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    check(table.loadFactor() <= 4.0 && table.loadFactor() > 2.0,
+          "with a maximum of 4, the load is " + table.loadFactor() + ".");
+    int grown = table.numBuckets();
+    for (int i = 0; table.numBuckets() == grown; i++) {
+      table.remove(Integer.valueOf(i));
+      if (table.numBuckets() == grown) {
+        check(table.loadFactor() >= 0.5,
+              "the load dropped to " + table.loadFactor() + " without a " +
+              "shrink.");
+      }
+    }
+    check(table.numBuckets() == grown / 2 && table.loadFactor() < 1.0 + 1e-9,
+          "the shrink went to " + table.numBuckets() + " buckets.");
+
+    System.out.println("Turning shrinking off.");
+    table = new HashTableChained(16);
+    table.setLoadFactors(0.0, 0.85);
+    for (int i = 0; i < 2000; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    grown = table.numBuckets();
+    for (int i = 0; i < 2000; i++) {
+      table.remove(Integer.valueOf(i));
+    }
+    check(table.numBuckets() == grown,
+          "with a minimum of 0 the table shrank to " + table.numBuckets() +
+          " buckets.");
+
+    System.out.println("Rejecting bad load factors.");
+    rejects(0.5, 1.0);
+    rejects(0.6, 1.0);
+    rejects(-0.1, 1.0);
+    rejects(0.0, 0.0);
+    rejects(0.0, -1.0);
+    rejects(Double.NaN, 1.0);
+    rejects(0.1, Double.NaN);
+
+    System.out.println("Presizing with ensureCapacity().");
+    table = new HashTableChained(16);
+    table.ensureCapacity(5000);
+    int presized = table.numBuckets();
+    check(presized * 0.85 >= 5000,
+          "ensureCapacity(5000) made only " + presized + " buckets.");
+    for (int i = 0; i < 5000; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    check(table.numBuckets() == presized,
+          "a presized table grew from " + presized + " to " +
+          table.numBuckets() + " buckets.");
+    table.ensureCapacity(10);
+    check(table.numBuckets() == presized,
+          "ensureCapacity() with a smaller size shrank the table.");
+
+    System.out.println("Growing a WUGraph's edge table.");
+    WUGraph g = new WUGraph();
+    Integer[] v = new Integer[100];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      g.addVertex(v[i]);
+    }
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j++) {
+        g.addEdge(v[i], v[j], i + j);
+      }
+    }
+    boolean right = g.edgeCount() == 5050;
+    for (int i = 0; i < v.length; i++) {
+      for (int j = 0; j < v.length; j++) {
+        right = right && g.weight(v[i], v[j]) == i + j;
+      }
+    }
+    check(right, "a complete graph of 100 vertices lost edges.");
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j++) {
+        g.removeEdge(v[i], v[j]);
+      }
+    }
+    check(g.edgeCount() == 0 && !g.isEdge(v[3], v[4]),
+          "removing every edge left some.");
+
+    report("resize policy");
+  }
+}
@@ -0,0 +1,34 @@
+/* ScoredTest.java */
+
+/**
+ * ScoredTest keeps the score of a test program.  A test class extends it,
+ * calls check() once for every behaviour it tests, and calls report() at
+ * the end of main() to print how many checks passed.
+ */
+
+public abstract class ScoredTest {
+
+  private static int checks = 0;
+  private static int failures = 0;
+
+  /**
+   * check() counts one check, and prints "message" if "ok" is false.
+   */
+  protected static void check(boolean ok, String message) {
+    checks++;
+    if (!ok) {
+      System.out.println(message);
+      failures++;
+    }
+  }
+
+  /**
+   * report() prints the score of every check so far, as the score of the
+   * "name" test.
+   */
+  protected static void report(String name) {
+    System.out.println();
+    System.out.println("Your " + name + " test score is " +
+                       (checks - failures) + " out of " + checks + ".");
+  }
+}
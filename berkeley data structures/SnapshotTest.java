@@ -0,0 +1,93 @@
+/* SnapshotTest.java */
+
+/**
+ * The SnapshotTest class tests WUGraph.version() and WUGraph.snapshot(),
+ * and runs Kruskal on a snapshot while its graph goes on changing.
+ */
+
+import graph.*;
+
+public class SnapshotTest extends ScoredTest {
+
+  /**
+   * totalWeight() returns the sum of the weights of the edges of "t", whose
+   * vertices are "v".
+   */
+  private static long totalWeight(WUGraph t, Object[] v) {
+    long total = 0;
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j++) {
+        total = total + t.weight(v[i], v[j]);
+      }
+    }
+    return total;
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running snapshot test.");
+    WUGraph g = new WUGraph();
+    Integer[] v = new Integer[40];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+    }
+
+    System.out.println("Checking which changes move version().");
+    long version = g.version();
+    g.addVertex(v[0]);
+    check(g.version() != version, "addVertex() did not change version().");
+    version = g.version();
+    g.addVertex(v[0]);
+    check(g.version() == version, "adding a vertex again changed version().");
+    g.addVertex(v[1]);
+    version = g.version();
+    g.addEdge(v[0], v[1], 3);
+    check(g.version() != version, "addEdge() did not change version().");
+    version = g.version();
+    g.addEdge(v[1], v[0], 4);
+    check(g.version() != version, "a new weight did not change version().");
+    version = g.version();
+    g.removeEdge(v[0], v[5]);
+    check(g.version() == version, "removing a non-edge changed version().");
+    g.removeEdge(v[0], v[1]);
+    check(g.version() != version, "removeEdge() did not change version().");
+    version = g.version();
+    g.removeVertex(v[1]);
+    check(g.version() != version, "removeVertex() did not change version().");
+
+    System.out.println("Checking that snapshots are shared until a change.");
+    CsrGraph first = g.snapshot();
+    check(first.version() == g.version(), "snapshot has the wrong version().");
+    check(g.snapshot() == first, "an unchanged graph built a new snapshot.");
+    g.addVertex(v[1]);
+    CsrGraph second = g.snapshot();
+    check(second != first, "a changed graph returned its old snapshot.");
+    check(first.vertexCount() == 1 && second.vertexCount() == 2,
+          "a snapshot changed with its graph.");
+
+    System.out.println("Running Kruskal on a snapshot while the graph " +
+                       "changes.");
+    for (int i = 2; i < v.length; i++) {
+      g.addVertex(v[i]);
+    }
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i + 1; j < v.length; j += 1 + (i * j) % 6) {
+        g.addEdge(v[i], v[j], (i * 37 + j * 11) % 50);
+      }
+    }
+    long expected = totalWeight(Kruskal.minSpanTree(g), v);
+    CsrGraph snapshot = g.snapshot();
+    for (int i = 0; i < v.length; i += 3) {
+      g.removeVertex(v[i]);
+    }
+    WUGraph tree = Kruskal.minSpanTree(snapshot);
+    check(tree.vertexCount() == v.length,
+          "the tree of the snapshot lost vertices removed from the graph.");
+    check(tree.edgeCount() == v.length - 1,
+          "the tree of the snapshot has " + tree.edgeCount() + " edges.");
+    check(totalWeight(tree, v) == expected,
+          "the tree of the snapshot weighs " + totalWeight(tree, v) +
+          " but should weigh " + expected + ".");
+
+    report("snapshot");
+  }
+}
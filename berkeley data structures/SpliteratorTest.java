@@ -0,0 +1,139 @@
+/* SpliteratorTest.java */
+
+/**
+ * The SpliteratorTest class tests the iterators, spliterators and streams
+ * of DList, UList and LinkedQueue:  that they report their exact size, that
+ * splitting them loses and reorders nothing, that parallel streams give the
+ * same answers as sequential ones, and that iterating a LinkedQueue leaves
+ * it as it was.
+ */
+
+import list.*;
+import queue.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+public class SpliteratorTest extends ScoredTest {
+
+  /**
+   * drain() appends the items "split" has left to "out".
+   */
+  private static void drain(Spliterator<Object> split, ArrayList<Object> out) {
+    while (split.tryAdvance(item -> out.add(item))) {
+    }
+  }
+
+  /**
+   * splitAll() splits "split" until its pieces stop splitting, and appends
+   * the items of all the pieces to "out", in order.
+   */
+  private static void splitAll(Spliterator<Object> split,
+                               ArrayList<Object> out) {
+    Spliterator<Object> prefix = split.trySplit();
+    if (prefix != null) {
+      splitAll(prefix, out);
+      splitAll(split, out);
+    } else {
+      drain(split, out);
+    }
+  }
+
+  /**
+   * iterables() checks the iterator and spliterator of "items", which should
+   * hold the Integers 0 through n - 1 in order.
+   */
+  private static void iterables(Iterable<Object> items, int n, String name) {
+    boolean right = true;
+    int i = 0;
+    for (Object item : items) {
+      right = right && item.equals(Integer.valueOf(i));
+      i++;
+    }
+    check(right && i == n, name + ": the iterator went wrong.");
+    Iterator<Object> iterator = items.iterator();
+    for (int k = 0; k < n; k++) {
+      iterator.next();
+    }
+    try {
+      iterator.next();
+      check(false, name + ": next() past the end did not throw.");
+    } catch (NoSuchElementException e) {
+      check(!iterator.hasNext(), name + ": hasNext() past the end.");
+    }
+
+    Spliterator<Object> split = items.spliterator();
+    check(split.hasCharacteristics(Spliterator.ORDERED) &&
+          split.hasCharacteristics(Spliterator.SIZED) &&
+          split.estimateSize() == n && split.getExactSizeIfKnown() == n,
+          name + ": the spliterator is not ordered and sized to " + n + ".");
+    ArrayList<Object> out = new ArrayList<Object>();
+    splitAll(split, out);
+    right = out.size() == n;
+    for (i = 0; right && i < n; i++) {
+      right = out.get(i).equals(Integer.valueOf(i));
+    }
+    check(right, name + ": splitting lost or reordered items.");
+
+    split = items.spliterator();
+    Spliterator<Object> prefix = split.trySplit();
+    if (n > 1) {
+      check(prefix != null && prefix.estimateSize() > 0 &&
+            prefix.estimateSize() + split.estimateSize() == n,
+            name + ": a split's sizes do not add up to " + n + ".");
+    }
+  }
+
+  public static void main(String[] args) throws QueueEmptyException {
+    System.out.println("Running spliterator test.");
+    int[] sizes = {0, 1, 2, 1023, 1024, 100000};
+    for (int s = 0; s < sizes.length; s++) {
+      int n = sizes[s];
+      System.out.println("Walking lists of length " + n + ".");
+      DList dlist = new DList();
+      UList ulist = new UList();
+      LinkedQueue queue = new LinkedQueue();
+      for (int i = 0; i < n; i++) {
+        dlist.insertBack(Integer.valueOf(i));
+        ulist.insertBack(Integer.valueOf(i));
+        queue.enqueue(Integer.valueOf(i));
+      }
+      iterables(dlist, n, "DList of " + n);
+      iterables(ulist, n, "UList of " + n);
+      iterables(queue, n, "LinkedQueue of " + n);
+      check(queue.size() == n &&
+            (n == 0 || queue.front().equals(Integer.valueOf(0))),
+            "iterating a LinkedQueue of " + n + " changed it.");
+
+      long sum = (long) n * (n - 1) / 2;
+      check(dlist.parallelStream().mapToLong(x -> (Integer) x).sum() == sum &&
+            ulist.parallelStream().mapToLong(x -> (Integer) x).sum() == sum &&
+            queue.parallelStream().mapToLong(x -> (Integer) x).sum() == sum,
+            "a parallel sum of " + n + " items is wrong.");
+      check(dlist.parallelStream().collect(Collectors.toList())
+            .equals(dlist.stream().collect(Collectors.toList())) &&
+            ulist.parallelStream().collect(Collectors.toList())
+            .equals(queue.stream().collect(Collectors.toList())),
+            "a parallel stream of " + n + " items is out of order.");
+    }
+
+    System.out.println("Walking a list after edits.");
+    DList dlist = new DList();
+    for (int i = 0; i < 10; i++) {
+      dlist.insertFront(Integer.valueOf(9 - i));
+    }
+    try {
+      ((DListNode) dlist.front()).remove();
+      ((DListNode) dlist.back()).remove();
+    } catch (InvalidNodeException e) {
+      System.out.println(e);
+    }
+    check(dlist.spliterator().getExactSizeIfKnown() == 8 &&
+          dlist.stream().map(x -> x.toString()).collect(Collectors.joining())
+          .equals("12345678"), "a stream after removals is wrong.");
+
+    report("spliterator");
+  }
+}
@@ -0,0 +1,233 @@
+/* UListTest.java */
+
+/**
+ * The UListTest class tests UList against java.util.ArrayList, with random
+ * inserts and removes at random positions, so that chunks split and merge
+ * all through the run, and checks that every handle taken along the way
+ * still holds its item and is the one the list returns for that item.
+ */
+
+import list.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+
+public class UListTest extends ScoredTest {
+
+  private static Random random = new Random(22);
+
+  /**
+   * nodeAt() walks "list" from the end nearer "index" to the handle of item
+   * "index".
+   */
+  private static UListNode nodeAt(UList list, int index)
+    throws InvalidNodeException {
+    UListNode node;
+    if (index < list.length() / 2) {
+      node = (UListNode) list.front();
+      for (int i = 0; i < index; i++) {
+        node = (UListNode) node.next();
+      }
+    } else {
+      node = (UListNode) list.back();
+      for (int i = list.length() - 1; i > index; i--) {
+        node = (UListNode) node.prev();
+      }
+    }
+    return node;
+  }
+
+  /**
+   * agree() checks that "list" holds the items of "model" in order, both
+   * walking forward with next() and backward with prev(), and with
+   * iterator(); that every handle in "handles" is the one the walk reaches
+   * for its item; and that no handle of a removed item is valid.
+   */
+  private static void agree(UList list, ArrayList<Integer> model,
+                            HashMap<Integer, UListNode> handles,
+                            ArrayList<UListNode> removed, String when)
+    throws InvalidNodeException {
+    check(list.length() == model.size(),
+          when + ": length() is " + list.length() + ", not " +
+          model.size() + ".");
+    boolean right = true;
+    UListNode node = (UListNode) list.front();
+    for (int i = 0; i < model.size(); i++) {
+      right = right && node.isValidNode() && node.item() == model.get(i);
+      UListNode kept = handles.get(model.get(i));
+      right = right && (kept == null || kept == node);
+      node = (UListNode) node.next();
+    }
+    check(right && !node.isValidNode(),
+          when + ": a forward walk disagrees with the model.");
+    right = true;
+    node = (UListNode) list.back();
+    for (int i = model.size() - 1; i >= 0; i--) {
+      right = right && node.isValidNode() && node.item() == model.get(i);
+      node = (UListNode) node.prev();
+    }
+    check(right && !node.isValidNode(),
+          when + ": a backward walk disagrees with the model.");
+    right = true;
+    Iterator<Object> items = list.iterator();
+    for (int i = 0; i < model.size(); i++) {
+      right = right && items.hasNext() && items.next() == model.get(i);
+    }
+    check(right && !items.hasNext(),
+          when + ": iterator() disagrees with the model.");
+    right = true;
+    for (Integer item : handles.keySet()) {
+      UListNode kept = handles.get(item);
+      right = right && kept.isValidNode() && kept.item() == item;
+    }
+    for (int i = 0; i < removed.size(); i++) {
+      right = right && !removed.get(i).isValidNode();
+    }
+    check(right, when + ": a handle moved off its item or outlived it.");
+  }
+
+  /**
+   * randomOps() runs "ops" random inserts and removes on "list" and
+   * "model", through a handle each time, keeping a handle on every fourth
+   * item reached and checking them all with agree() every "every" ops.
+   * Inserts win with probability "grow".
+   */
+  private static void randomOps(UList list, ArrayList<Integer> model,
+                                int ops, double grow, int every, String name)
+    throws InvalidNodeException {
+    HashMap<Integer, UListNode> handles = new HashMap<Integer, UListNode>();
+    ArrayList<UListNode> removed = new ArrayList<UListNode>();
+    int next = 1000000;
+    for (int k = 0; k < ops; k++) {
+      Integer item = Integer.valueOf(next++);
+      if (model.isEmpty()) {
+        list.insertBack(item);
+        model.add(item);
+      } else {
+        int index = random.nextInt(model.size());
+        UListNode node = nodeAt(list, index);
+        if (random.nextInt(4) == 0) {
+          handles.put((Integer) node.item(), node);
+        }
+        if (random.nextDouble() < grow) {
+          if (random.nextBoolean()) {
+            node.insertBefore(item);
+            model.add(index, item);
+          } else {
+            node.insertAfter(item);
+            model.add(index + 1, item);
+          }
+        } else {
+          handles.remove(model.remove(index));
+          node.remove();
+          removed.add(node);
+        }
+      }
+      if (k % every == every - 1) {
+        agree(list, model, handles, removed, name + ", op " + (k + 1));
+      }
+    }
+    agree(list, model, handles, removed, name + ", at the end");
+  }
+
+  public static void main(String[] args) throws InvalidNodeException {
+    System.out.println("Running UList test.");
+    UList list = new UList();
+    check(list.isEmpty() && !list.front().isValidNode() &&
+          !list.back().isValidNode() && !list.iterator().hasNext() &&
+          list.toString().equals("[  ]"), "a new UList is not empty.");
+
+    System.out.println("Filling and emptying from both ends.");
+    ArrayList<Integer> model = new ArrayList<Integer>();
+    for (int i = 0; i < 100; i++) {
+      Integer item = Integer.valueOf(i);
+      if (i % 2 == 0) {
+        list.insertFront(item);
+        model.add(0, item);
+      } else {
+        list.insertBack(item);
+        model.add(item);
+      }
+    }
+    UListNode front = (UListNode) list.front();
+    UListNode back = (UListNode) list.back();
+    check(front == list.front() && back == list.back(),
+          "front() or back() made a second handle for an item.");
+    HashMap<Integer, UListNode> handles = new HashMap<Integer, UListNode>();
+    handles.put((Integer) front.item(), front);
+    handles.put((Integer) back.item(), back);
+    agree(list, model, handles, new ArrayList<UListNode>(), "after filling");
+    for (int i = 0; i < 100; i++) {
+      if (i % 2 == 0) {
+        list.front().remove();
+        model.remove(0);
+      } else {
+        list.back().remove();
+        model.remove(model.size() - 1);
+      }
+    }
+    check(list.isEmpty() && !front.isValidNode() && !back.isValidNode() &&
+          !list.front().isValidNode(), "emptying left items or handles.");
+    list.insertBack("again");
+    check(list.length() == 1 &&
+          ((UListNode) list.front()).item().equals("again"),
+          "an emptied UList is not usable.");
+
+    System.out.println("Splitting one chunk repeatedly.");
+    list = new UList();
+    model = new ArrayList<Integer>();
+    list.insertBack(Integer.valueOf(0));
+    model.add(Integer.valueOf(0));
+    UListNode first = (UListNode) list.front();
+    for (int i = 1; i <= 200; i++) {
+      Integer item = Integer.valueOf(i);
+      first.insertAfter(item);
+      model.add(1, item);
+    }
+    handles = new HashMap<Integer, UListNode>();
+    handles.put(Integer.valueOf(0), first);
+    agree(list, model, handles, new ArrayList<UListNode>(),
+          "after inserting after one handle");
+
+    System.out.println("Running random operations.");
+    randomOps(new UList(), new ArrayList<Integer>(), 4000, 0.7, 200,
+              "growing");
+    list = new UList();
+    model = new ArrayList<Integer>();
+    for (int i = 0; i < 2000; i++) {
+      Integer item = Integer.valueOf(i);
+      list.insertBack(item);
+      model.add(item);
+    }
+    randomOps(list, model, 4000, 0.3, 200, "shrinking");
+    randomOps(new UList(), new ArrayList<Integer>(), 20000, 0.5, 500,
+              "balanced");
+
+    System.out.println("Using invalid nodes.");
+    list = new UList();
+    int thrown = 0;
+    try {
+      ((UListNode) list.front()).item();
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    list.insertBack("x");
+    UListNode x = (UListNode) list.front();
+    x.remove();
+    try {
+      x.next();
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    try {
+      x.insertAfter("y");
+    } catch (InvalidNodeException e) {
+      thrown++;
+    }
+    check(thrown == 3 && list.isEmpty(),
+          "an invalid node did not throw, or changed the list.");
+
+    report("UList");
+  }
+}
@@ -0,0 +1,74 @@
+/* VertexIdTest.java */
+
+/**
+ * The VertexIdTest class tests the dense vertex ids of WUGraph:  idOf(),
+ * vertexOf(), idCapacity() and the id-based degree(), isEdge() and weight().
+ */
+
+import graph.*;
+
+public class VertexIdTest extends ScoredTest {
+
+  public static void main(String[] args) {
+    System.out.println("Running vertex id test.");
+    WUGraph g = new WUGraph();
+    check(g.idCapacity() == 0, "idCapacity() of empty graph should be 0.");
+    check(g.idOf("a") == -1, "idOf() a non-vertex should be -1.");
+    check(g.vertexOf(0) == null, "vertexOf(0) on empty graph should be null.");
+    check(g.vertexOf(-1) == null, "vertexOf(-1) should be null.");
+
+    System.out.println("Adding 100 vertices.");
+    String[] v = new String[100];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = "v" + i;
+      g.addVertex(v[i]);
+    }
+    g.addVertex(v[0]);
+    check(g.idCapacity() == v.length,
+          "idCapacity() is " + g.idCapacity() + " but should be 100.");
+    boolean[] seen = new boolean[v.length];
+    for (int i = 0; i < v.length; i++) {
+      int id = g.idOf(v[i]);
+      check(id >= 0 && id < g.idCapacity() && !seen[id],
+            "idOf(" + v[i] + ") is " + id + ", not a fresh id in range.");
+      if (id >= 0 && id < seen.length) {
+        seen[id] = true;
+      }
+      check(g.vertexOf(id) == v[i], "vertexOf(idOf(" + v[i] + ")) is wrong.");
+    }
+
+    System.out.println("Adding edges and querying them by id.");
+    for (int i = 0; i + 1 < v.length; i++) {
+      g.addEdge(v[i], v[i + 1], i);
+    }
+    g.addEdge(v[5], v[5], 55);
+    for (int i = 0; i + 1 < v.length; i++) {
+      int a = g.idOf(v[i]);
+      int b = g.idOf(v[i + 1]);
+      check(g.isEdge(a, b) && g.isEdge(b, a),
+            "isEdge() by id misses edge " + i + ".");
+      check(g.weight(b, a) == i, "weight() by id of edge " + i + " is wrong.");
+      check(g.degree(a) == g.degree(v[i]),
+            "degree(" + a + ") disagrees with degree(" + v[i] + ").");
+    }
+    check(g.degree(g.idOf(v[5])) == 3, "self-edge should add one to degree.");
+    check(!g.isEdge(g.idOf(v[0]), g.idOf(v[2])),
+          "isEdge() by id finds an edge that is not there.");
+    check(!g.isEdge(0, 1000) && g.weight(-1, 0) == 0 && g.degree(1000) == 0,
+          "queries on ids out of range should find nothing.");
+
+    System.out.println("Removing vertices and reusing their ids.");
+    int freed = g.idOf(v[10]);
+    g.removeVertex(v[10]);
+    check(g.vertexOf(freed) == null, "a removed vertex keeps its id.");
+    check(!g.isEdge(freed, g.idOf(v[11])), "edge to a removed vertex remains.");
+    g.addVertex("new");
+    check(g.idOf("new") == freed, "a freed id should be reused.");
+    check(g.idCapacity() == v.length, "reusing an id should not grow ids.");
+    check(g.degree(freed) == 0, "the reused id has the old vertex's edges.");
+    check(g.idOf(v[11]) >= 0 && g.vertexOf(g.idOf(v[11])) == v[11],
+          "removing a vertex disturbed its neighbor's id.");
+
+    report("vertex id");
+  }
+}
@@ -0,0 +1,169 @@
+/* WeightIndexTest.java */
+
+/**
+ * The WeightIndexTest class tests the weight-ordered edge index of WUGraph
+ * (enableWeightIndex(), forEachEdgeByWeight() and
+ * forEachEdgeInWeightRange()) and Kruskal.minSpanTree() on a graph that
+ * keeps one.
+ */
+
+import graph.*;
+import java.util.Random;
+
+public class WeightIndexTest extends ScoredTest {
+
+  /**
+   * An OrderChecker counts the edges it is handed, checks their weights
+   * against the graph and checks that they come in order.
+   */
+  private static class OrderChecker implements EdgeVisitor {
+    WUGraph g;
+    boolean ascending;
+    int count;
+    int last;
+    boolean inOrder = true;
+    boolean weightsRight = true;
+
+    OrderChecker(WUGraph g, boolean ascending) {
+      this.g = g;
+      this.ascending = ascending;
+      last = ascending ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+    }
+
+    public void visit(Object u, Object v, int weight) {
+      if (ascending ? weight < last : weight > last) {
+        inOrder = false;
+      }
+      if (!g.isEdge(u, v) || g.weight(u, v) != weight) {
+        weightsRight = false;
+      }
+      last = weight;
+      count++;
+    }
+  }
+
+  /**
+   * walkBothWays() checks the ascending and descending walks of "g".
+   */
+  private static void walkBothWays(WUGraph g, String when) {
+    for (int k = 0; k < 2; k++) {
+      OrderChecker c = new OrderChecker(g, k == 0);
+      g.forEachEdgeByWeight(k == 0, c);
+      check(c.count == g.edgeCount(),
+            when + ": walk visited " + c.count + " of " + g.edgeCount() +
+            " edges.");
+      check(c.inOrder, when + ": walk is out of weight order.");
+      check(c.weightsRight, when + ": walk handed out a wrong edge.");
+    }
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of the edges of "t".
+   */
+  private static long totalWeight(WUGraph t, Object[] v) {
+    long total = 0;
+    for (int i = 0; i < v.length; i++) {
+      for (int j = i; j < v.length; j++) {
+        total = total + t.weight(v[i], v[j]);
+      }
+    }
+    return total;
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running weight index test.");
+    WUGraph g = new WUGraph();
+    boolean threw = false;
+    try {
+      g.forEachEdgeByWeight(true, new OrderChecker(g, true));
+    } catch (IllegalStateException e) {
+      threw = true;
+    }
+    check(threw, "a walk without the index should throw.");
+
+    Integer[] v = new Integer[80];
+    for (int i = 0; i < v.length; i++) {
+      v[i] = Integer.valueOf(i);
+      g.addVertex(v[i]);
+    }
+    Random random = new Random(9);
+    for (int k = 0; k < 600; k++) {
+      g.addEdge(v[random.nextInt(v.length)], v[random.nextInt(v.length)],
+                random.nextInt(200) - 100);
+    }
+
+    System.out.println("Indexing an existing graph.");
+    g.enableWeightIndex();
+    check(g.isWeightIndexEnabled(), "isWeightIndexEnabled() is false.");
+    walkBothWays(g, "after enableWeightIndex()");
+
+    System.out.println("Changing weights and removing edges and vertices.");
+    for (int k = 0; k < 400; k++) {
+      Object a = v[random.nextInt(v.length)];
+      Object b = v[random.nextInt(v.length)];
+      switch (k % 4) {
+      case 0:
+        g.removeEdge(a, b);
+        break;
+      case 1:
+        g.addEdge(a, b, random.nextInt(200) - 100);
+        break;
+      default:
+        if (g.isEdge(a, b)) {
+          g.addEdge(b, a, random.nextInt(200) - 100);
+        }
+      }
+    }
+    g.removeVertex(v[7]);
+    g.addVertex(v[7]);
+    g.addEdge(v[7], v[7], 0);
+    walkBothWays(g, "after changes");
+
+    System.out.println("Walking weight ranges.");
+    for (int low = -120; low <= 120; low += 17) {
+      final int lo = low;
+      final int hi = low + 30;
+      final int[] count = new int[1];
+      final boolean[] ok = {true};
+      g.forEachEdgeInWeightRange(lo, hi, new EdgeVisitor() {
+        int last = Integer.MIN_VALUE;
+        public void visit(Object u, Object w, int weight) {
+          if (weight < lo || weight > hi || weight < last) {
+            ok[0] = false;
+          }
+          last = weight;
+          count[0]++;
+        }
+      });
+      int expected = 0;
+      for (int i = 0; i < v.length; i++) {
+        for (int j = i; j < v.length; j++) {
+          if (g.isEdge(v[i], v[j]) && g.weight(v[i], v[j]) >= lo &&
+              g.weight(v[i], v[j]) <= hi) {
+            expected++;
+          }
+        }
+      }
+      check(ok[0] && count[0] == expected,
+            "range [" + lo + ", " + hi + "] visited " + count[0] +
+            " edges, not " + expected + ", or out of order.");
+    }
+
+    System.out.println("Comparing Kruskal with and without the index.");
+    for (int i = 0; i + 1 < v.length; i++) {
+      g.addEdge(v[i], v[i + 1], 150 + i);    // keep the graph connected
+    }
+    WUGraph indexed = Kruskal.minSpanTree(g);
+    long indexedWeight = totalWeight(indexed, v);
+    g.disableWeightIndex();
+    check(!g.isWeightIndexEnabled(), "disableWeightIndex() left it on.");
+    WUGraph plain = Kruskal.minSpanTree(g);
+    check(indexed.edgeCount() == v.length - 1,
+          "the indexed tree has " + indexed.edgeCount() + " edges.");
+    check(indexedWeight == totalWeight(plain, v),
+          "the indexed tree weighs " + indexedWeight + " but the other " +
+          "weighs " + totalWeight(plain, v) + ".");
+
+    report("weight index");
+  }
+}
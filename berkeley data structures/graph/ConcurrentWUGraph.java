@@ -0,0 +1,793 @@
+/* ConcurrentWUGraph.java */
+
+package graph;
+import hash.*;
+import list.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The ConcurrentWUGraph class represents a weighted, undirected graph that
+ * can be used by many threads at once.  Self-edges are permitted.  It
+ * offers the core graph methods of WUGraph (the vertex and edge methods,
+ * getNeighbors(), version() and snapshot()), and they behave exactly like
+ * the methods of the same name there.  The vertex id, visitor, bulk-load
+ * and index methods of WUGraph are not offered; a reader that wants to walk
+ * the graph by id takes a snapshot() and walks that.
+ *
+ * The graph is split into stripes.  Every vertex belongs to the stripe chosen
+ * by its hashCode(), and each stripe has its own read/write lock, its own
+ * DList of vertices and its own vertices and edges hash tables.  The
+ * adjacency list of a vertex lives in the vertex's stripe, and the edge (u, v)
+ * is kept in the edges table of the lower-numbered of the two stripes of u
+ * and v.  So:
+ *
+ *   - Queries take read locks, so any number of readers run at once.
+ *   - addVertex() write-locks one stripe.  addEdge() and removeEdge() write-
+ *     lock the stripes of their two endpoints, always lowest stripe first,
+ *     so writers touching vertices in different stripes run in parallel and
+ *     can never deadlock.
+ *   - removeVertex() write-locks the stripe of the vertex and the stripes of
+ *     all its neighbors, again lowest first.
+ *   - getVertices() and snapshot() read-lock every stripe so that they see
+ *     the whole graph at one moment in time.
+ *
+ * The stripe tables are plain HashTableChained tables guarded by the stripe
+ * lock.  They are not hash.ConcurrentHashTableChained, whose segment locks
+ * would only repeat the stripe lock that every operation already holds.
+ */
+
+public class ConcurrentWUGraph {
+
+   private static final int DEFAULT_STRIPES = 64;
+
+   private final Stripe[] stripes;
+   private final int stripeMask;
+   private final AtomicInteger numVertices = new AtomicInteger();
+   private final AtomicInteger numEdges = new AtomicInteger();
+   private final AtomicLong version = new AtomicLong();
+   private volatile CsrGraph lastSnapshot;
+   private final Object snapshotLock = new Object();  // held while building
+                                                       // a snapshot
+
+   /**
+    * A Stripe holds the part of the graph belonging to one lock: the
+    * vertices that hash to it (in a DList and a hash table, exactly as in
+    * WUGraph) and the edges whose lower-numbered stripe it is.
+    */
+   private static final class Stripe {
+      final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+      final HashTableChained vertices = new HashTableChained();
+      final HashTableChained edges = new HashTableChained();
+      final DList vertexList = new VertexList();
+   }
+
+   /**
+    * ConcurrentWUGraph() constructs a graph having no vertices or edges, with
+    * a default number of stripes.
+    *
+    * Running time:  O(1).
+    */
+   public ConcurrentWUGraph()
+   {
+      this(DEFAULT_STRIPES);
+   }
+
+   /**
+    * ConcurrentWUGraph() constructs a graph having no vertices or edges.  The
+    * number of stripes is "concurrencyLevel" rounded up to a power of two;
+    * roughly that many writers can work on the graph at once.
+    *
+    * @param concurrencyLevel the expected number of concurrent writers.
+    *
+    * Running time:  O(concurrencyLevel).
+    */
+   public ConcurrentWUGraph(int concurrencyLevel)
+   {
+      int numStripes = 1;
+
+      while (numStripes < concurrencyLevel)
+      {
+         numStripes = numStripes * 2;
+      }
+
+      stripes = new Stripe[numStripes];
+      stripeMask = numStripes - 1;
+
+      for (int i = 0; i < numStripes; i++)
+      {
+         stripes[i] = new Stripe();
+      }
+   }
+
+   /**
+    * vertexCount() returns the number of vertices in the graph.
+    *
+    * Running time:  O(1).
+    */
+   public int vertexCount()
+   {
+      return numVertices.get();
+   }
+
+   /**
+    * edgeCount() returns the number of edges in the graph.
+    *
+    * Running time:  O(1).
+    */
+   public int edgeCount()
+   {
+      return numEdges.get();
+   }
+
+   /**
+    * getVertices() returns an array containing all the objects that serve
+    * as vertices of the graph.  Every stripe is read-locked, lowest first,
+    * while the array is filled in, so the result is the set of vertices at
+    * one moment in time.
+    *
+    * Running time:  O(|V|).
+    */
+   public Object[] getVertices()
+   {
+      lockAllForRead();
+
+      try
+      {
+         Object[] allVertices = new Object[numVertices.get()];
+         int i = 0;
+
+         for (int s = 0; s < stripes.length; s++)
+         {
+            DListNode currVertexNode = (DListNode) stripes[s].vertexList.front();
+
+            while (currVertexNode.isValidNode())
+            {
+               allVertices[i] = ((Entry) currVertexNode.item()).key();
+               i++;
+               currVertexNode = currVertexNode.nextUnchecked();
+            }
+         }
+         return allVertices;
+      }
+      finally
+      {
+         unlockAllForRead();
+      }
+   }
+
+   /**
+    * addVertex() adds a vertex (with no incident edges) to the graph.  If
+    * this object is already a vertex of the graph, the graph is unchanged.
+    * Only the vertex's stripe is locked.
+    *
+    * Running time:  O(1).
+    */
+   public void addVertex(Object vertex)
+   {
+      Stripe stripe = stripes[stripeOf(vertex)];
+      stripe.lock.writeLock().lock();
+
+      try
+      {
+         if (stripe.vertices.find(vertex) != null)
+         {
+            return;
+         }
+
+         Entry vertexHolder = new Entry();
+         vertexHolder.setKey(vertex);
+         stripe.vertexList.insertBack(vertexHolder);
+         stripe.vertices.insert(vertex, stripe.vertexList.back());
+         numVertices.incrementAndGet();
+         version.incrementAndGet();
+      }
+      finally
+      {
+         stripe.lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * removeVertex() removes a vertex, and all edges incident on it, from the
+    * graph.  The neighbors' stripes are not known until the vertex has been
+    * looked at, so the method first notes them under a read lock, then
+    * write-locks the vertex's stripe and all of the noted stripes in
+    * ascending order.  If an edge to a new stripe was added in between, the
+    * locks are dropped and the method tries again.  If the parameter
+    * "vertex" does not represent a vertex of the graph, the graph is
+    * unchanged.
+    *
+    * Running time:  O(d + number of stripes), where d is the degree of
+    *    "vertex".
+    */
+   public void removeVertex(Object vertex)
+   {
+      int home = stripeOf(vertex);
+      boolean[] needed = new boolean[stripes.length];
+
+      while (true)
+      {
+         stripes[home].lock.readLock().lock();
+         try
+         {
+            Entry targetVertex = stripes[home].vertices.find(vertex);
+
+            if (targetVertex == null)
+            {
+               return;
+            }
+            markNeighborStripes((VertexNode) targetVertex.value(), needed);
+         }
+         finally
+         {
+            stripes[home].lock.readLock().unlock();
+         }
+         needed[home] = true;
+
+         boolean[] locked = needed.clone();
+         lockForWrite(locked);
+         try
+         {
+            Entry targetVertex = stripes[home].vertices.find(vertex);
+
+            if (targetVertex == null)
+            {
+               return;
+            }
+
+            VertexNode targetVertexNode = (VertexNode) targetVertex.value();
+
+            if (markNeighborStripes(targetVertexNode, needed))
+            {
+               continue;   // a new stripe appeared; lock it and try again
+            }
+            unlinkVertex(home, targetVertexNode);
+            return;
+         }
+         finally
+         {
+            unlockForWrite(locked);
+         }
+      }
+   }
+
+   /**
+    * isVertex() returns true if the parameter "vertex" represents a vertex of
+    * the graph.
+    *
+    * Running time:  O(1).
+    */
+   public boolean isVertex(Object vertex)
+   {
+      Stripe stripe = stripes[stripeOf(vertex)];
+      stripe.lock.readLock().lock();
+
+      try
+      {
+         return stripe.vertices.find(vertex) != null;
+      }
+      finally
+      {
+         stripe.lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * degree() returns the degree of a vertex.  Self-edges add only one to the
+    * degree of a vertex.  If the parameter "vertex" doesn't represent a vertex
+    * of the graph, zero is returned.
+    *
+    * Running time:  O(1).
+    */
+   public int degree(Object vertex)
+   {
+      Stripe stripe = stripes[stripeOf(vertex)];
+      stripe.lock.readLock().lock();
+
+      try
+      {
+         Entry foundVertex = stripe.vertices.find(vertex);
+
+         if (foundVertex == null)
+         {
+            return 0;
+         }
+         return ((VertexNode) foundVertex.value()).adjList().length();
+      }
+      finally
+      {
+         stripe.lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * getNeighbors() returns a new Neighbors object referencing two arrays,
+    * exactly as WUGraph.getNeighbors() does.  Only the stripe of "vertex" is
+    * read-locked: the adjacency list of a vertex is only ever changed while
+    * that stripe is write-locked.  If the vertex has degree zero, or if the
+    * parameter "vertex" does not represent a vertex of the graph, null is
+    * returned.
+    *
+    * Running time:  O(d), where d is the degree of "vertex".
+    */
+   public Neighbors getNeighbors(Object vertex)
+   {
+      Stripe stripe = stripes[stripeOf(vertex)];
+      stripe.lock.readLock().lock();
+
+      try
+      {
+         Entry foundVertex = stripe.vertices.find(vertex);
+
+         if (foundVertex == null)
+         {
+            return null;
+         }
+
+         DList adjList = ((VertexNode) foundVertex.value()).adjList();
+         int degree = adjList.length();
+
+         if (degree == 0)
+         {
+            return null;
+         }
+
+         Neighbors neighborDetails = new Neighbors();
+         neighborDetails.neighborList = new Object[degree];
+         neighborDetails.weightList = new int[degree];
+         DListNode currAdjListNode = (DListNode) adjList.front();
+
+         for (int i = 0; i < degree; i++)
+         {
+            neighborDetails.neighborList[i] = ((Entry) ((EdgeNode)
+                  currAdjListNode).vertexTwo().item()).key();
+            neighborDetails.weightList[i] =
+                  ((Entry) currAdjListNode.item()).weight();
+            currAdjListNode = currAdjListNode.nextUnchecked();
+         }
+         return neighborDetails;
+      }
+      finally
+      {
+         stripe.lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * addEdge() adds an edge (u, v) to the graph, or updates its weight if it
+    * is already there.  If either of the parameters u and v does not
+    * represent a vertex of the graph, the graph is unchanged.  The stripes of
+    * u and v are write-locked, lowest first.
+    *
+    * Running time:  O(1).
+    */
+   public void addEdge(Object u, Object v, int weight)
+   {
+      int uStripe = stripeOf(u);
+      int vStripe = stripeOf(v);
+      lockPair(uStripe, vStripe);
+
+      try
+      {
+         VertexPair edge = new VertexPair(u, v);
+         HashTableChained edges = stripes[Math.min(uStripe, vStripe)].edges;
+         Entry edgeEntry = edges.find(edge);
+
+         if (edgeEntry != null)
+         {
+            ((Entry) ((DListNode) edgeEntry.value()).item()).setWeight(weight);
+            ((Entry) ((EdgeNode)
+                  edgeEntry.value()).partner().item()).setWeight(weight);
+            version.incrementAndGet();
+            return;
+         }
+
+         Entry uHolder = stripes[uStripe].vertices.find(u);
+         Entry vHolder = stripes[vStripe].vertices.find(v);
+
+         if (uHolder == null || vHolder == null)
+         {
+            return;
+         }
+
+         VertexNode uVertex = (VertexNode) uHolder.value();
+         VertexNode vVertex = (VertexNode) vHolder.value();
+
+         edgeEntry = new Entry();
+         edgeEntry.setKey(edge);
+         edgeEntry.setWeight(weight);
+         uVertex.adjList().insertBack(edgeEntry);
+         EdgeNode uEdgeNode = (EdgeNode) uVertex.adjList().back();
+         edgeEntry.setValue(edges.insert(edge, uEdgeNode));
+         numEdges.incrementAndGet();
+         version.incrementAndGet();
+
+         if (uVertex == vVertex)
+         {
+            uEdgeNode.setPartner(uEdgeNode);
+            uEdgeNode.setVertexOne(uVertex);
+            uEdgeNode.setVertexTwo(uVertex);
+            return;
+         }
+
+         edgeEntry = new Entry();
+         edgeEntry.setKey(edge);
+         edgeEntry.setWeight(weight);
+         vVertex.adjList().insertBack(edgeEntry);
+         EdgeNode vEdgeNode = (EdgeNode) vVertex.adjList().back();
+
+         uEdgeNode.setPartner(vEdgeNode);
+         vEdgeNode.setPartner(uEdgeNode);
+         uEdgeNode.setVertexOne(uVertex);
+         uEdgeNode.setVertexTwo(vVertex);
+         vEdgeNode.setVertexOne(vVertex);
+         vEdgeNode.setVertexTwo(uVertex);
+      }
+      finally
+      {
+         unlockPair(uStripe, vStripe);
+      }
+   }
+
+   /**
+    * removeEdge() removes an edge (u, v) from the graph.  If (u, v) is not
+    * an edge of the graph, the graph is unchanged.  The stripes of u and v
+    * are write-locked, lowest first.
+    *
+    * Running time:  O(1).
+    */
+   public void removeEdge(Object u, Object v)
+   {
+      int uStripe = stripeOf(u);
+      int vStripe = stripeOf(v);
+      lockPair(uStripe, vStripe);
+
+      try
+      {
+         VertexPair edge = new VertexPair(u, v);
+         HashTableChained edges = stripes[Math.min(uStripe, vStripe)].edges;
+         Entry edgeEntry = edges.find(edge);
+
+         if (edgeEntry != null)
+         {
+            EdgeNode edgeNode = (EdgeNode) edgeEntry.value();
+
+            if (edgeNode.partner() != edgeNode)
+            {
+               edgeNode.partner().remove();
+            }
+            edgeNode.remove();
+            edges.remove(edge);
+            numEdges.decrementAndGet();
+            version.incrementAndGet();
+         }
+      }
+      catch (InvalidNodeException e)
+      {
+         e.printStackTrace();
+      }
+      finally
+      {
+         unlockPair(uStripe, vStripe);
+      }
+   }
+
+   /**
+    * isEdge() returns true if (u, v) is an edge of the graph.  Only the
+    * stripe holding the edge is read-locked.
+    *
+    * Running time:  O(1).
+    */
+   public boolean isEdge(Object u, Object v)
+   {
+      Stripe stripe = stripes[Math.min(stripeOf(u), stripeOf(v))];
+      stripe.lock.readLock().lock();
+
+      try
+      {
+         return stripe.edges.find(new VertexPair(u, v)) != null;
+      }
+      finally
+      {
+         stripe.lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * weight() returns the weight of (u, v), or zero if (u, v) is not an
+    * edge.  Only the stripe holding the edge is read-locked; the weight is
+    * only ever changed while both endpoint stripes are write-locked.
+    *
+    * Running time:  O(1).
+    */
+   public int weight(Object u, Object v)
+   {
+      Stripe stripe = stripes[Math.min(stripeOf(u), stripeOf(v))];
+      stripe.lock.readLock().lock();
+
+      try
+      {
+         Entry edgeEntry = stripe.edges.find(new VertexPair(u, v));
+
+         if (edgeEntry == null)
+         {
+            return 0;
+         }
+         return ((Entry) ((DListNode) edgeEntry.value()).item()).weight();
+      }
+      finally
+      {
+         stripe.lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * version() returns a number that changes every time a vertex or edge is
+    * added or removed, or the weight of an edge is set.
+    *
+    * Running time:  O(1).
+    */
+   public long version()
+   {
+      return version.get();
+   }
+
+   /**
+    * snapshot() returns an immutable, point-in-time view of the graph as a
+    * CsrGraph.  Every stripe is read-locked, lowest first, while the graph
+    * is copied, so writers wait only for the copy, never for the readers of
+    * the snapshot, and the copy never contains half of an update.  The last
+    * snapshot is remembered and returned again, without copying, for as long
+    * as version() does not change.
+    *
+    * Vertices are numbered stripe by stripe, and each vertex node's number
+    * is written into its vertexId field (which ConcurrentWUGraph uses for
+    * nothing else), so that the vertexTwo reference of every adjacency node
+    * can be turned into the number of the neighbor without a side table.
+    * Since the read locks do not keep two snapshot() calls from writing
+    * those fields at once, snapshots are built one at a time.
+    *
+    * @return a CsrGraph holding the vertices and edges of this graph.
+    *
+    * Running time:  O(1) if the graph is unchanged since the last snapshot;
+    *    otherwise O(|V| + |E| + number of stripes).
+    */
+   public CsrGraph snapshot()
+   {
+      CsrGraph snapshot = lastSnapshot;
+
+      if (snapshot != null && snapshot.version() == version.get())
+      {
+         return snapshot;
+      }
+
+      synchronized (snapshotLock)
+      {
+         snapshot = lastSnapshot;
+
+         if (snapshot != null && snapshot.version() == version.get())
+         {
+            return snapshot;
+         }
+
+         lockAllForRead();
+
+         try
+         {
+            snapshot = copyGraph();
+            lastSnapshot = snapshot;
+            return snapshot;
+         }
+         finally
+         {
+            unlockAllForRead();
+         }
+      }
+   }
+
+   /**
+    * copyGraph() builds a CsrGraph of the graph for snapshot().  The caller
+    * must hold snapshotLock and a read lock on every stripe.
+    */
+   private CsrGraph copyGraph()
+   {
+      int numVertices = this.numVertices.get();
+      Object[] vertexOf = new Object[numVertices];
+      int[] offsets = new int[numVertices + 1];
+      VertexNode[] vertexNodes = new VertexNode[numVertices];
+      int i = 0;
+
+      // First pass: number the vertices and count the slots each one needs.
+      for (int s = 0; s < stripes.length; s++)
+      {
+         DListNode currVertexNode = (DListNode) stripes[s].vertexList.front();
+
+         while (currVertexNode.isValidNode())
+         {
+            vertexOf[i] = ((Entry) currVertexNode.item()).key();
+            vertexNodes[i] = (VertexNode) currVertexNode;
+            vertexNodes[i].setVertexId(i);
+            offsets[i + 1] = offsets[i] + vertexNodes[i].adjList().length();
+            i++;
+            currVertexNode = currVertexNode.nextUnchecked();
+         }
+      }
+
+      int[] neighbors = new int[offsets[numVertices]];
+      int[] weights = new int[offsets[numVertices]];
+
+      // Second pass: copy each adjacency list into its run of slots.
+      for (i = 0; i < numVertices; i++)
+      {
+         DListNode currAdjListNode =
+               (DListNode) vertexNodes[i].adjList().front();
+
+         for (int slot = offsets[i]; slot < offsets[i + 1]; slot++)
+         {
+            neighbors[slot] =
+                  ((EdgeNode) currAdjListNode).vertexTwo().vertexId();
+            weights[slot] = ((Entry) currAdjListNode.item()).weight();
+            currAdjListNode = currAdjListNode.nextUnchecked();
+         }
+      }
+
+      return new CsrGraph(vertexOf, offsets, neighbors, weights,
+            numEdges.get(), version.get());
+   }
+
+   /**
+    * stripeOf() returns the stripe that the application vertex "vertex"
+    * belongs to.  The high bits of the hash code are folded into the low
+    * ones so that hash codes differing only in their high bits spread out.
+    */
+   private int stripeOf(Object vertex)
+   {
+      int code = vertex.hashCode();
+      return (code ^ (code >>> 16)) & stripeMask;
+   }
+
+   /**
+    * markNeighborStripes() sets needed[s] for the stripe s of every neighbor
+    * of the vertex node "vertexNode", and returns true if any of them was
+    * not already set.  The caller must hold a lock on the vertex's stripe.
+    */
+   private boolean markNeighborStripes(VertexNode vertexNode,
+         boolean[] needed)
+   {
+      boolean added = false;
+      DListNode currAdjListNode = (DListNode) vertexNode.adjList().front();
+
+      while (currAdjListNode.isValidNode())
+      {
+         int s = stripeOf(((Entry) ((EdgeNode)
+               currAdjListNode).vertexTwo().item()).key());
+
+         if (!needed[s])
+         {
+            needed[s] = true;
+            added = true;
+         }
+         currAdjListNode = currAdjListNode.nextUnchecked();
+      }
+      return added;
+   }
+
+   /**
+    * unlinkVertex() removes the vertex node "vertexNode" of stripe "home",
+    * and every edge incident on it, from the graph.  The caller must hold the
+    * write locks of "home" and of every neighbor's stripe.
+    */
+   private void unlinkVertex(int home, VertexNode vertexNode)
+   {
+      try
+      {
+         DListNode currNeighbor = (DListNode) vertexNode.adjList().front();
+
+         while (currNeighbor.isValidNode())
+         {
+            EdgeNode edgeNode = (EdgeNode) currNeighbor;
+            Object neighbor = ((Entry) edgeNode.vertexTwo().item()).key();
+            int edgeStripe = Math.min(home, stripeOf(neighbor));
+            stripes[edgeStripe].edges.remove(((Entry) currNeighbor.item()).key());
+            numEdges.decrementAndGet();
+
+            if (edgeNode != edgeNode.partner())
+            {
+               edgeNode.partner().remove();
+            }
+
+            DListNode deleteCurrNode = currNeighbor;
+            currNeighbor = currNeighbor.nextUnchecked();
+            deleteCurrNode.remove();
+         }
+
+         stripes[home].vertices.remove(((Entry) vertexNode.item()).key());
+         vertexNode.remove();
+         numVertices.decrementAndGet();
+         version.incrementAndGet();
+      }
+      catch (InvalidNodeException e)
+      {
+         System.out.println(e);
+      }
+   }
+
+   /**
+    * lockPair() write-locks stripes "s1" and "s2" (once, if they are the
+    * same), lowest first.
+    */
+   private void lockPair(int s1, int s2)
+   {
+      stripes[Math.min(s1, s2)].lock.writeLock().lock();
+      if (s1 != s2)
+      {
+         stripes[Math.max(s1, s2)].lock.writeLock().lock();
+      }
+   }
+
+   /**
+    * unlockPair() releases the locks taken by lockPair(s1, s2).
+    */
+   private void unlockPair(int s1, int s2)
+   {
+      if (s1 != s2)
+      {
+         stripes[Math.max(s1, s2)].lock.writeLock().unlock();
+      }
+      stripes[Math.min(s1, s2)].lock.writeLock().unlock();
+   }
+
+   /**
+    * lockForWrite() write-locks every stripe s with needed[s] set, lowest
+    * first.
+    */
+   private void lockForWrite(boolean[] needed)
+   {
+      for (int s = 0; s < stripes.length; s++)
+      {
+         if (needed[s])
+         {
+            stripes[s].lock.writeLock().lock();
+         }
+      }
+   }
+
+   /**
+    * unlockForWrite() releases the locks taken by lockForWrite(needed).
+    */
+   private void unlockForWrite(boolean[] needed)
+   {
+      for (int s = stripes.length - 1; s >= 0; s--)
+      {
+         if (needed[s])
+         {
+            stripes[s].lock.writeLock().unlock();
+         }
+      }
+   }
+
+   /**
+    * lockAllForRead() read-locks every stripe, lowest first.
+    */
+   private void lockAllForRead()
+   {
+      for (int s = 0; s < stripes.length; s++)
+      {
+         stripes[s].lock.readLock().lock();
+      }
+   }
+
+   /**
+    * unlockAllForRead() releases the locks taken by lockAllForRead().
+    */
+   private void unlockAllForRead()
+   {
+      for (int s = stripes.length - 1; s >= 0; s--)
+      {
+         stripes[s].lock.readLock().unlock();
+      }
+   }
+
+}
@@ -0,0 +1,305 @@
+/* CsrGraph.java */
+
+package graph;
+import hash.MixingHashStrategy;
+import java.util.Arrays;
+
+/**
+ * The CsrGraph class is an immutable snapshot of a WUGraph stored in
+ * compressed-sparse-row form.  Every vertex is given an int id between 0 and
+ * vertexCount() - 1.  The neighbors of vertex "id" occupy the slots
+ * neighborStart(id) through neighborEnd(id) - 1 of one shared neighbor array,
+ * and the weight of each of those edges is kept in the same slot of a shared
+ * weight array.  Walking the neighbors of a vertex therefore reads two
+ * contiguous runs of ints instead of chasing DListNode and Entry references.
+ *
+ * A CsrGraph is built by WUGraph.freeze() or by the snapshot() method of
+ * WUGraph or ConcurrentWUGraph.  Once built, it never changes, so any number
+ * of threads can read it while the graph it was taken from keeps accepting
+ * writes.  As in WUGraph, a self-edge appears only once in the
+ * neighbors of its vertex, and every other edge appears once in the
+ * neighbors of each of its two vertices.
+ */
+
+public class CsrGraph {
+
+   private final Object[] vertexOf;  // id --> application vertex
+   private final int[] offsets;      // id --> first slot; length |V| + 1
+   private final int[] neighbors;    // slot --> id of the neighbor
+   private final int[] weights;      // slot --> weight of the edge
+   private final int numEdges;
+   private final long version;       // WUGraph.version() when taken
+   private volatile int[] idSlots;   // open-addressed table of ids, hashed
+                                     // by vertex; null until idOf() is
+                                     // first called
+
+   /**
+    * CsrGraph() constructs a snapshot from arrays that have already been
+    * filled in by WUGraph or ConcurrentWUGraph.  The arrays are not copied; the caller
+    * must not change them afterward.
+    *
+    * @param vertexOf the application vertex of each id.
+    * @param offsets the first slot of each id, followed by the total number
+    *    of slots.
+    * @param neighbors the neighbor id stored in each slot.
+    * @param weights the edge weight stored in each slot.
+    * @param numEdges the number of edges (pairs are not counted twice).
+    * @param version the version of the graph the snapshot was taken from.
+    *
+    * Running time:  O(1).
+    */
+   CsrGraph(Object[] vertexOf, int[] offsets, int[] neighbors, int[] weights,
+         int numEdges, long version)
+   {
+      this.vertexOf = vertexOf;
+      this.offsets = offsets;
+      this.neighbors = neighbors;
+      this.weights = weights;
+      this.numEdges = numEdges;
+      this.version = version;
+   }
+
+   /**
+    * version() returns the version() of the graph at the moment this
+    * snapshot was taken.
+    *
+    * Running time:  O(1).
+    */
+   public long version()
+   {
+      return version;
+   }
+
+   /**
+    * vertexCount() returns the number of vertices in the snapshot.
+    *
+    * Running time:  O(1).
+    */
+   public int vertexCount()
+   {
+      return vertexOf.length;
+   }
+
+   /**
+    * edgeCount() returns the number of edges in the snapshot (pairs are not
+    * counted twice).
+    *
+    * Running time:  O(1).
+    */
+   public int edgeCount()
+   {
+      return numEdges;
+   }
+
+   /**
+    * vertex() returns the application vertex that was given the id "id".
+    *
+    * @param id a vertex id between 0 and vertexCount() - 1.
+    * @return the object provided by the application in addVertex().
+    *
+    * Running time:  O(1).
+    */
+   public Object vertex(int id)
+   {
+      return vertexOf[id];
+   }
+
+   /**
+    * idOf() returns the id of the application vertex "vertex", or -1 if it
+    * was not a vertex of the graph when the snapshot was taken.
+    *
+    * The table that finds ids by vertex is only built the first time
+    * idOf() is called, so a snapshot that is only walked by id never pays
+    * for it.  It is a single int[] of ids, probed linearly and compared
+    * through vertexOf, so no Entry or boxed Integer is made per vertex.
+    *
+    * @param vertex the Object vertex from the application.
+    * @return the id of the vertex, or -1.
+    *
+    * Running time:  O(1), plus O(|V|) the first time it is called.
+    */
+   public int idOf(Object vertex)
+   {
+      int[] slots = idSlots;
+
+      if (slots == null)
+      {
+         slots = buildIdSlots();
+      }
+
+      int mask = slots.length - 1;
+      int slot = MixingHashStrategy.mix(vertex.hashCode()) & mask;
+
+      while (slots[slot] >= 0)
+      {
+         if (vertexOf[slots[slot]].equals(vertex))
+         {
+            return slots[slot];
+         }
+         slot = (slot + 1) & mask;
+      }
+      return -1;
+   }
+
+   /**
+    * buildIdSlots() builds idSlots, if no other thread has yet, and returns
+    * it.  The table has a power of two number of slots, at least twice the
+    * number of vertices, each holding an id or -1 for an empty slot.
+    */
+   private synchronized int[] buildIdSlots()
+   {
+      if (idSlots != null)
+      {
+         return idSlots;
+      }
+
+      int numSlots = 2;
+
+      while (numSlots < 2 * vertexOf.length)
+      {
+         numSlots = numSlots * 2;
+      }
+
+      int[] slots = new int[numSlots];
+      int mask = numSlots - 1;
+
+      Arrays.fill(slots, -1);
+      for (int id = 0; id < vertexOf.length; id++)
+      {
+         int slot = MixingHashStrategy.mix(vertexOf[id].hashCode()) & mask;
+
+         while (slots[slot] >= 0)
+         {
+            slot = (slot + 1) & mask;
+         }
+         slots[slot] = id;
+      }
+
+      idSlots = slots;
+      return slots;
+   }
+
+   /**
+    * getVertices() returns a new array holding every application vertex,
+    * indexed by id.
+    *
+    * Running time:  O(|V|).
+    */
+   public Object[] getVertices()
+   {
+      Object[] allVertices = new Object[vertexOf.length];
+      System.arraycopy(vertexOf, 0, allVertices, 0, vertexOf.length);
+      return allVertices;
+   }
+
+   /**
+    * degree() returns the degree of the vertex with id "id".  Self-edges add
+    * only one to the degree of a vertex.
+    *
+    * Running time:  O(1).
+    */
+   public int degree(int id)
+   {
+      return offsets[id + 1] - offsets[id];
+   }
+
+   /**
+    * neighborStart() returns the first slot holding a neighbor of the vertex
+    * with id "id".
+    *
+    * Running time:  O(1).
+    */
+   public int neighborStart(int id)
+   {
+      return offsets[id];
+   }
+
+   /**
+    * neighborEnd() returns one past the last slot holding a neighbor of the
+    * vertex with id "id".  A typical walk over the neighbors of "id" is
+    *
+    *    for (int s = g.neighborStart(id); s < g.neighborEnd(id); s++)
+    *    {
+    *       ... g.neighbor(s) ... g.weightAt(s) ...
+    *    }
+    *
+    * Running time:  O(1).
+    */
+   public int neighborEnd(int id)
+   {
+      return offsets[id + 1];
+   }
+
+   /**
+    * neighbor() returns the id of the neighbor stored in slot "slot".
+    *
+    * Running time:  O(1).
+    */
+   public int neighbor(int slot)
+   {
+      return neighbors[slot];
+   }
+
+   /**
+    * weightAt() returns the weight of the edge stored in slot "slot".
+    *
+    * Running time:  O(1).
+    */
+   public int weightAt(int slot)
+   {
+      return weights[slot];
+   }
+
+   /**
+    * isEdge() returns true if the vertices with ids "u" and "v" are connected
+    * by an edge.  The neighbors of whichever vertex has the smaller degree
+    * are scanned.
+    *
+    * Running time:  O(min(d(u), d(v))).
+    */
+   public boolean isEdge(int u, int v)
+   {
+      return findSlot(u, v) >= 0;
+   }
+
+   /**
+    * weight() returns the weight of the edge between the vertices with ids
+    * "u" and "v", or zero if there is no such edge.
+    *
+    * Running time:  O(min(d(u), d(v))).
+    */
+   public int weight(int u, int v)
+   {
+      int slot = findSlot(u, v);
+
+      if (slot < 0)
+      {
+         return 0;
+      }
+      return weights[slot];
+   }
+
+   /**
+    * findSlot() returns the slot holding the edge (u, v) in the neighbors of
+    * whichever endpoint has the smaller degree, or -1 if there is no edge.
+    */
+   private int findSlot(int u, int v)
+   {
+      if (degree(v) < degree(u))
+      {
+         int swap = u;
+         u = v;
+         v = swap;
+      }
+
+      for (int s = offsets[u]; s < offsets[u + 1]; s++)
+      {
+         if (neighbors[s] == v)
+         {
+            return s;
+         }
+      }
+      return -1;
+   }
+
+}
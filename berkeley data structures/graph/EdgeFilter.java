@@ -0,0 +1,126 @@
+/* EdgeFilter.java */
+
+package graph;
+import hash.MixingHashStrategy;
+
+/**
+ * An EdgeFilter is a counting Bloom filter over the edges of a WUGraph.  It
+ * answers "might (u, v) be an edge?" from its counters alone:  a "no" is
+ * always right, and a "yes" is wrong only rarely, about 1% of the time while
+ * the filter holds no more edges than it was sized for.  So a lookup of an
+ * absent edge can usually be answered without making a VertexPair or
+ * probing the edges hash table.
+ *
+ * Each edge adds one to HASHES counters, picked by double hashing from a
+ * hash of the pair that is symmetric in u and v, so (u, v) and (v, u) touch
+ * the same counters.  Removing the edge takes the ones away again.  A
+ * counter that reaches 255 sticks there and is never decremented, which
+ * only leaves the filter a little less sharp.
+ */
+
+class EdgeFilter {
+
+   private static final int HASHES = 7;
+   private static final int COUNTERS_PER_EDGE = 10;
+
+   private final byte[] counters;
+   private final int mask;        // number of counters - 1
+   private final int capacity;    // edges the filter was sized for
+   private int size;
+
+   /**
+    * EdgeFilter() constructs an empty filter sized for "expectedEdges" edges.
+    */
+   EdgeFilter(int expectedEdges)
+   {
+      long needed = (long) Math.max(expectedEdges, 1) * COUNTERS_PER_EDGE;
+      int numCounters = 64;
+
+      while (numCounters < needed && numCounters < (1 << 30))
+      {
+         numCounters = numCounters * 2;
+      }
+      counters = new byte[numCounters];
+      mask = numCounters - 1;
+      capacity = Math.max(expectedEdges, 1);
+   }
+
+   /**
+    * isOverloaded() returns true if the filter holds twice the edges it was
+    * sized for, so that its false positive rate has climbed well past 1%.
+    */
+   boolean isOverloaded()
+   {
+      return size > 2 * capacity;
+   }
+
+   /**
+    * add() counts the edge (u, v) into the filter.
+    */
+   void add(Object u, Object v)
+   {
+      int h1 = MixingHashStrategy.mix(u.hashCode());
+      int h2 = MixingHashStrategy.mix(v.hashCode());
+      int index = h1 + h2;
+      int step = MixingHashStrategy.mix(h1 ^ h2) | 1;
+
+      for (int i = 0; i < HASHES; i++)
+      {
+         int slot = index & mask;
+
+         if (counters[slot] != (byte) 255)
+         {
+            counters[slot]++;
+         }
+         index = index + step;
+      }
+      size++;
+   }
+
+   /**
+    * remove() takes the edge (u, v), which must have been added, back out of
+    * the filter.
+    */
+   void remove(Object u, Object v)
+   {
+      int h1 = MixingHashStrategy.mix(u.hashCode());
+      int h2 = MixingHashStrategy.mix(v.hashCode());
+      int index = h1 + h2;
+      int step = MixingHashStrategy.mix(h1 ^ h2) | 1;
+
+      for (int i = 0; i < HASHES; i++)
+      {
+         int slot = index & mask;
+
+         if (counters[slot] != (byte) 255)
+         {
+            counters[slot]--;
+         }
+         index = index + step;
+      }
+      size--;
+   }
+
+   /**
+    * mightContain() returns false if (u, v) is certainly not in the filter,
+    * and true if it may be.
+    */
+   boolean mightContain(Object u, Object v)
+   {
+      int h1 = MixingHashStrategy.mix(u.hashCode());
+      int h2 = MixingHashStrategy.mix(v.hashCode());
+      int index = h1 + h2;
+      int step = MixingHashStrategy.mix(h1 ^ h2) | 1;
+
+      for (int i = 0; i < HASHES; i++)
+      {
+         if (counters[index & mask] == 0)
+         {
+            return false;
+         }
+         index = index + step;
+      }
+      return true;
+   }
+
+}
@@ -0,0 +1,377 @@
+/* EdgeListImporter.java */
+
+package graph;
+import hash.IntObjectMap;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The EdgeListImporter class streams edge-list files into a WUGraph.  Every
+ * edge (u, v, w) read adds the vertices u and v, if they are not already in
+ * the graph, and then the edge (u, v) with weight w.  Vertices are the
+ * Integer objects of the ids in the file.
+ *
+ * Two formats are read:
+ *
+ *   text    one edge per line, written "u v w" in decimal and separated by
+ *           spaces or tabs.  Blank lines are skipped, and '#' starts a
+ *           comment that runs to the end of the line.
+ *   binary  one edge per 12 bytes:  u, v and w as big-endian ints.
+ *
+ * The file is read through a FileChannel into one reusable ByteBuffer, and
+ * numbers are parsed straight out of the buffer's bytes, so no String or
+ * other per-line object is created.  The Integer vertex of each id is kept
+ * in an IntObjectMap the first time the id is seen, so later edges on the
+ * same vertex reuse it without boxing the id again or probing the graph's
+ * vertices table.  If a listener is set, it is told the
+ * bytes read, the edges read, and the edges read per second every so many
+ * edges and once more at the end of each file.
+ */
+
+public class EdgeListImporter {
+
+   private static final int BUFFER_BYTES = 1 << 16;
+   private static final int BINARY_EDGE_BYTES = 12;
+
+   private final WUGraph graph;
+   private final IntObjectMap added = new IntObjectMap();  // id --> vertex
+                                                           // added this file
+   private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+   private ImportListener listener;
+   private long reportEvery = 1 << 20;
+
+   // State of the file being read.
+   private long startNanos;
+   private long bytesRead;
+   private long edgesRead;
+
+   // State of the text parser, kept between buffers so that a number or
+   // line may be split across two reads.
+   private final int[] fields = new int[3];
+   private int numFields;
+   private long lineNumber;
+   private boolean inNumber;
+   private boolean negative;
+   private int numDigits;
+   private long number;
+   private boolean inComment;
+
+   /**
+    * EdgeListImporter() constructs an importer that adds edges to "graph".
+    *
+    * @param graph the WUGraph to load edges into.
+    */
+   public EdgeListImporter(WUGraph graph)
+   {
+      this.graph = graph;
+   }
+
+   /**
+    * setListener() sets the ImportListener to tell about progress, or null
+    * for none.  The listener is called after every "reportEvery" edges and
+    * once at the end of each file.
+    *
+    * @param listener the ImportListener, or null.
+    * @param reportEvery the number of edges between reports; at least 1.
+    */
+   public void setListener(ImportListener listener, long reportEvery)
+   {
+      this.listener = listener;
+      this.reportEvery = Math.max(1, reportEvery);
+   }
+
+   /**
+    * importText() reads every edge in the text edge-list file "file" into
+    * the graph.
+    *
+    * @param file the text file to read.
+    * @return the number of edges read.
+    * @exception IOException if the file cannot be read, or a line is not
+    *    three integers.  Edges before the bad line stay in the graph.
+    */
+   public long importText(File file) throws IOException
+   {
+      FileInputStream in = new FileInputStream(file);
+
+      try
+      {
+         FileChannel channel = in.getChannel();
+         start();
+         numFields = 0;
+         lineNumber = 1;
+         inNumber = false;
+         inComment = false;
+
+         buffer.clear();
+         while (channel.read(buffer) >= 0)
+         {
+            buffer.flip();
+            bytesRead = bytesRead + buffer.remaining();
+
+            byte[] bytes = buffer.array();
+            int end = buffer.limit();
+
+            for (int i = 0; i < end; i++)
+            {
+               parseByte(bytes[i]);
+            }
+            buffer.clear();
+         }
+
+         endNumber();
+         endLine();
+         finish();
+         return edgesRead;
+      }
+      finally
+      {
+         in.close();
+      }
+   }
+
+   /**
+    * importBinary() reads every edge in the binary edge-list file "file"
+    * into the graph.  The file's size gives the number of edges, so the
+    * graph's edges table is grown once to fit them before reading.
+    *
+    * @param file the binary file to read.
+    * @return the number of edges read.
+    * @exception IOException if the file cannot be read, or its length is not
+    *    a multiple of 12 bytes.  Whole edges before the end stay in the graph.
+    */
+   public long importBinary(File file) throws IOException
+   {
+      FileInputStream in = new FileInputStream(file);
+
+      try
+      {
+         FileChannel channel = in.getChannel();
+         long expectedEdges = channel.size() / BINARY_EDGE_BYTES;
+         graph.ensureCapacity(graph.vertexCount(),
+               (int) Math.min(Integer.MAX_VALUE,
+                     graph.edgeCount() + expectedEdges));
+         start();
+
+         buffer.clear();
+         while (channel.read(buffer) >= 0)
+         {
+            buffer.flip();
+            bytesRead = bytesRead + buffer.remaining();
+
+            while (buffer.remaining() >= BINARY_EDGE_BYTES)
+            {
+               int u = buffer.getInt();
+               int v = buffer.getInt();
+               int w = buffer.getInt();
+               addEdge(u, v, w);
+            }
+            buffer.compact();
+         }
+
+         if (buffer.position() != 0)
+         {
+            throw new IOException(file + ": " + buffer.position()
+                  + " bytes left over after the last whole edge");
+         }
+         finish();
+         return edgesRead;
+      }
+      finally
+      {
+         in.close();
+      }
+   }
+
+   /**
+    * parseByte() feeds one byte of a text file to the parser.
+    */
+   private void parseByte(byte b) throws IOException
+   {
+      if (inComment)
+      {
+         if (b == '\n')
+         {
+            inComment = false;
+            endLine();
+         }
+         return;
+      }
+
+      if (b >= '0' && b <= '9')
+      {
+         if (!inNumber)
+         {
+            startNumber(false);
+         }
+         number = number * 10 + (b - '0');
+         numDigits++;
+
+         if (number > (long) Integer.MAX_VALUE + 1)
+         {
+            throw error("number out of range");
+         }
+      }
+      else if (b == '-')
+      {
+         if (inNumber)
+         {
+            throw error("misplaced '-'");
+         }
+         startNumber(true);
+      }
+      else if (b == ' ' || b == '\t' || b == '\r')
+      {
+         endNumber();
+      }
+      else if (b == '\n')
+      {
+         endNumber();
+         endLine();
+      }
+      else if (b == '#')
+      {
+         endNumber();
+         inComment = true;
+      }
+      else
+      {
+         throw error("unexpected character '" + (char) (b & 0xFF) + "'");
+      }
+   }
+
+   /**
+    * startNumber() begins a new number on the current line.
+    */
+   private void startNumber(boolean isNegative) throws IOException
+   {
+      if (numFields == fields.length)
+      {
+         throw error("more than three numbers");
+      }
+      inNumber = true;
+      negative = isNegative;
+      numDigits = 0;
+      number = 0;
+   }
+
+   /**
+    * endNumber() stores the number just parsed, if there is one, as the next
+    * field of the current line.
+    */
+   private void endNumber() throws IOException
+   {
+      if (!inNumber)
+      {
+         return;
+      }
+      if (numDigits == 0)
+      {
+         throw error("'-' without digits");
+      }
+
+      long value = negative ? -number : number;
+
+      if (value > Integer.MAX_VALUE)
+      {
+         throw error("number out of range");
+      }
+      fields[numFields] = (int) value;
+      numFields++;
+      inNumber = false;
+   }
+
+   /**
+    * endLine() adds the edge on the line just finished.  A line with no
+    * numbers is skipped.
+    */
+   private void endLine() throws IOException
+   {
+      if (numFields == fields.length)
+      {
+         addEdge(fields[0], fields[1], fields[2]);
+      }
+      else if (numFields != 0)
+      {
+         throw error("expected \"u v w\"");
+      }
+      numFields = 0;
+      lineNumber++;
+   }
+
+   /**
+    * error() returns an IOException naming the current line.
+    */
+   private IOException error(String message)
+   {
+      return new IOException("line " + lineNumber + ": " + message);
+   }
+
+   /**
+    * addEdge() adds the vertices u and v, if need be, and the edge (u, v)
+    * with weight w, then reports progress if it is time to.
+    */
+   private void addEdge(int u, int v, int w)
+   {
+      graph.addEdge(vertex(u), vertex(v), w);
+      edgesRead++;
+
+      if (listener != null && edgesRead % reportEvery == 0)
+      {
+         report();
+      }
+   }
+
+   /**
+    * vertex() returns the Integer vertex of the id "id", adding it to the
+    * graph the first time the id is seen in the current file.  (The graph
+    * must not lose vertices while a file is being read.)
+    */
+   private Object vertex(int id)
+   {
+      Object vertex = added.get(id);
+
+      if (vertex == null)
+      {
+         vertex = Integer.valueOf(id);
+         graph.addVertex(vertex);
+         added.put(id, vertex);
+      }
+      return vertex;
+   }
+
+   /**
+    * start() resets the counters for a new file.
+    */
+   private void start()
+   {
+      added.makeEmpty();
+      startNanos = System.nanoTime();
+      bytesRead = 0;
+      edgesRead = 0;
+   }
+
+   /**
+    * finish() makes the final report for a file.
+    */
+   private void finish()
+   {
+      if (listener != null)
+      {
+         report();
+      }
+   }
+
+   /**
+    * report() tells the listener how far the current file has got.
+    */
+   private void report()
+   {
+      double seconds = (System.nanoTime() - startNanos) / 1e9;
+      double rate = seconds > 0 ? edgesRead / seconds : 0;
+      listener.progress(bytesRead, edgesRead, rate);
+   }
+
+}
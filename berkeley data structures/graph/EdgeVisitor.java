@@ -0,0 +1,26 @@
+/* EdgeVisitor.java */
+
+package graph;
+
+/**
+ *  An EdgeVisitor is handed edges of a WUGraph, one at a time, by
+ *  WUGraph.forEachEdgeByWeight() and WUGraph.forEachEdgeInWeightRange().
+ *
+ *  A visitor must not add or remove vertices or edges of the graph it is
+ *  walking, or change any edge's weight.
+ **/
+
+public interface EdgeVisitor {
+
+  /**
+   *  visit() is called once for each edge walked.
+   *
+   *  @param u one application vertex of the edge.
+   *  @param v the other application vertex of the edge.  (For a self-edge,
+   *    u and v are the same vertex.)
+   *  @param weight the weight of the edge.
+   **/
+
+  public void visit(Object u, Object v, int weight);
+
+}
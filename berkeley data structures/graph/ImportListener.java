@@ -0,0 +1,24 @@
+/* ImportListener.java */
+
+package graph;
+
+/**
+ *  An ImportListener is told how an EdgeListImporter is getting on.  It is
+ *  called every so many edges while a file is read, and once more when the
+ *  file is finished.
+ **/
+
+public interface ImportListener {
+
+  /**
+   *  progress() reports how much of the current file has been read.
+   *
+   *  @param bytesRead the number of bytes of the file read so far.
+   *  @param edgesRead the number of edges read so far.
+   *  @param edgesPerSecond the average number of edges read per second since
+   *    the file was opened.
+   **/
+
+  public void progress(long bytesRead, long edgesRead, double edgesPerSecond);
+
+}
@@ -0,0 +1,593 @@
+/* MappedGraph.java */
+
+package graph;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The MappedGraph class is a read-only graph that lives in a file.  write()
+ * lays a CsrGraph out on disk, and open() maps that file into memory with
+ * FileChannel.map(), so queries read the file's pages directly: nothing is
+ * deserialized into DLists or hash tables, opening takes the same time for
+ * any size of graph, and every process that opens the same file shares one
+ * copy of it in the operating system's page cache.
+ *
+ * Vertices are numbered 0...vertexCount() - 1 exactly as in the CsrGraph the
+ * file was written from.  Application vertex objects cannot in general be
+ * written to a file, so each vertex is stored as the UTF-8 bytes of its
+ * toString(), and vertex() hands that label back as a String.  Labels should
+ * be unique; if two are the same, idOf() finds one of them arbitrarily.
+ *
+ * File layout (big-endian):
+ *
+ *   header        6 ints:  MAGIC, FORMAT, |V|, |E|, slots, 0; then 7 longs:
+ *                 label bytes and the byte position of each section below
+ *   offsets       |V| + 1 ints; the neighbors of id are in slots
+ *                 offsets[id]...offsets[id + 1] - 1
+ *   neighbors     one int per slot, sorted by id within each vertex
+ *   weights       one int per slot
+ *   labelOffsets  |V| + 1 longs; the label of id is in label bytes
+ *                 labelOffsets[id]...labelOffsets[id + 1] - 1
+ *   labelOrder    |V| ints; the ids sorted by label, for idOf()
+ *   labels        the label bytes
+ *
+ * Every section begins at a multiple of 8 bytes.  One FileChannel.map() can
+ * address at most Integer.MAX_VALUE bytes, so open() maps the file as a row
+ * of MAPPING_BYTES windows; as the windows are a multiple of 8 bytes too, no
+ * int or long straddles two of them, and a graph file may be as large as the
+ * file system allows.  Slots are numbered with ints, as in CsrGraph.
+ */
+
+public class MappedGraph {
+
+   private static final int MAGIC = 0x57554731;    // "WUG1"
+   private static final int FORMAT = 2;
+   private static final int HEADER_BYTES = 80;
+   private static final int MAPPING_BYTES = 1 << 30;
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   private final ByteBuffer[] windows;    // the file, MAPPING_BYTES apiece
+   private final int windowShift;         // log2 of the window size
+   private final long windowMask;
+   private final int numVertices;
+   private final int numEdges;
+   private final long offsetsStart;       // byte positions of each section
+   private final long neighborsStart;
+   private final long weightsStart;
+   private final long labelOffsetsStart;
+   private final long labelOrderStart;
+   private final long labelsStart;
+
+   /**
+    * MappedGraph() wraps the mapped windows of a graph file of "fileBytes"
+    * bytes and works out where each section begins.  Use open() rather than
+    * calling this directly.
+    */
+   private MappedGraph(ByteBuffer[] windows, int windowBytes, long fileBytes)
+         throws IOException
+   {
+      this.windows = windows;
+      windowShift = Integer.numberOfTrailingZeros(windowBytes);
+      windowMask = windowBytes - 1;
+
+      if (fileBytes < HEADER_BYTES || getInt(0) != MAGIC)
+      {
+         throw new IOException("not a graph file");
+      }
+      if (getInt(4) != FORMAT)
+      {
+         throw new IOException("unsupported graph file format "
+               + getInt(4));
+      }
+
+      numVertices = getInt(8);
+      numEdges = getInt(12);
+      int numSlots = getInt(16);
+      long labelBytes = getLong(24);
+
+      offsetsStart = getLong(32);
+      neighborsStart = getLong(40);
+      weightsStart = getLong(48);
+      labelOffsetsStart = getLong(56);
+      labelOrderStart = getLong(64);
+      labelsStart = getLong(72);
+
+      if (numVertices < 0 || numSlots < 0 || labelBytes < 0
+            || !fits(HEADER_BYTES, offsetsStart, 0)
+            || !fits(offsetsStart, neighborsStart, 4L * (numVertices + 1))
+            || !fits(neighborsStart, weightsStart, 4L * numSlots)
+            || !fits(weightsStart, labelOffsetsStart, 4L * numSlots)
+            || !fits(labelOffsetsStart, labelOrderStart,
+                     8L * (numVertices + 1))
+            || !fits(labelOrderStart, labelsStart, 4L * numVertices))
+      {
+         throw new IOException("corrupt graph file header");
+      }
+      if (labelsStart + labelBytes != fileBytes)
+      {
+         throw new IOException("truncated graph file");
+      }
+   }
+
+   /**
+    * fits() returns true if a section of "bytes" bytes that begins at
+    * "start" ends by "next", and "next" is a multiple of 8.
+    */
+   private static boolean fits(long start, long next, long bytes)
+   {
+      return next % 8 == 0 && start + bytes <= next;
+   }
+
+   /**
+    * open() maps the graph file "file" read-only and returns a MappedGraph
+    * that reads it in place.  The file must have been made by write() and
+    * must not be changed while it is open.
+    *
+    * @param file the graph file.
+    * @return a MappedGraph reading "file".
+    * @exception IOException if the file cannot be mapped or is not a graph
+    *    file.
+    *
+    * Running time:  O(1) per MAPPING_BYTES of file.
+    */
+   public static MappedGraph open(File file) throws IOException
+   {
+      return open(file, MAPPING_BYTES);
+   }
+
+   /**
+    * open() maps the graph file "file" read-only as a row of windows of
+    * "windowBytes" bytes each, and returns a MappedGraph that reads it in
+    * place.  Smaller windows use less contiguous address space; the open()
+    * above uses 1 GB.
+    *
+    * @param file the graph file.
+    * @param windowBytes the size of each mapping; a power of two, at least
+    *    8 and at most 2^30.
+    * @return a MappedGraph reading "file".
+    * @exception IOException if the file cannot be mapped or is not a graph
+    *    file.
+    *
+    * Running time:  O(1) per window.
+    */
+   public static MappedGraph open(File file, int windowBytes)
+         throws IOException
+   {
+      if (windowBytes < 8 || windowBytes > MAPPING_BYTES
+            || Integer.bitCount(windowBytes) != 1)
+      {
+         throw new IllegalArgumentException("bad window size "
+               + windowBytes);
+      }
+
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+      try
+      {
+         FileChannel channel = raf.getChannel();
+         long fileBytes = channel.size();
+         ByteBuffer[] windows =
+               new ByteBuffer[(int) ((fileBytes + windowBytes - 1)
+                                     / windowBytes)];
+
+         for (int w = 0; w < windows.length; w++)
+         {
+            long start = (long) w * windowBytes;
+            windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                  Math.min(windowBytes, fileBytes - start));
+         }
+         return new MappedGraph(windows, windowBytes, fileBytes);
+      }
+      finally
+      {
+         raf.close();    // the mappings stay valid after the file is closed
+      }
+   }
+
+   /**
+    * write() writes the snapshot "g" to "file" in the format open() reads,
+    * replacing anything already in the file.  Each vertex's neighbors are
+    * written in increasing id order so that isEdge() and weight() can use
+    * binary search, and the ids are written a second time sorted by label so
+    * that idOf() can too.  The file is written front to back through a
+    * buffered stream, so its size is not bounded by any one mapping.
+    *
+    * @param g the graph to write, usually WUGraph.snapshot().
+    * @param file the file to write.
+    * @exception IOException if the file cannot be written.
+    *
+    * Running time:  O(|V| log |V| + |E| log d), where d is the largest
+    *    degree.
+    */
+   public static void write(CsrGraph g, File file) throws IOException
+   {
+      int numVertices = g.vertexCount();
+      int numSlots = 0;
+
+      if (numVertices > 0)
+      {
+         numSlots = g.neighborEnd(numVertices - 1);
+      }
+
+      final byte[][] labels = new byte[numVertices][];
+      long labelBytes = 0;
+      for (int id = 0; id < numVertices; id++)
+      {
+         labels[id] = String.valueOf(g.vertex(id)).getBytes(UTF8);
+         labelBytes = labelBytes + labels[id].length;
+      }
+
+      long offsetsStart = HEADER_BYTES;
+      long neighborsStart = align(offsetsStart + 4L * (numVertices + 1));
+      long weightsStart = align(neighborsStart + 4L * numSlots);
+      long labelOffsetsStart = align(weightsStart + 4L * numSlots);
+      long labelOrderStart =
+            align(labelOffsetsStart + 8L * (numVertices + 1));
+      long labelsStart = align(labelOrderStart + 4L * numVertices);
+
+      Integer[] labelOrder = new Integer[numVertices];
+      for (int id = 0; id < numVertices; id++)
+      {
+         labelOrder[id] = id;
+      }
+      Arrays.sort(labelOrder, new Comparator<Integer>() {
+         public int compare(Integer a, Integer b)
+         {
+            return compareBytes(labels[a], labels[b]);
+         }
+      });
+
+      DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+
+      try
+      {
+         out.writeInt(MAGIC);
+         out.writeInt(FORMAT);
+         out.writeInt(numVertices);
+         out.writeInt(g.edgeCount());
+         out.writeInt(numSlots);
+         out.writeInt(0);
+         out.writeLong(labelBytes);
+         out.writeLong(offsetsStart);
+         out.writeLong(neighborsStart);
+         out.writeLong(weightsStart);
+         out.writeLong(labelOffsetsStart);
+         out.writeLong(labelOrderStart);
+         out.writeLong(labelsStart);
+
+         for (int id = 0; id < numVertices; id++)
+         {
+            out.writeInt(g.neighborStart(id));
+         }
+         out.writeInt(numSlots);
+         pad(out, offsetsStart + 4L * (numVertices + 1), neighborsStart);
+
+         // Sort each vertex's slots by neighbor id.  Packing the neighbor
+         // into the high half of a long keeps its weight alongside it.
+         long[] packed = new long[numSlots];
+         for (int s = 0; s < numSlots; s++)
+         {
+            packed[s] = ((long) g.neighbor(s) << 32)
+                  | (g.weightAt(s) & 0xFFFFFFFFL);
+         }
+         for (int id = 0; id < numVertices; id++)
+         {
+            Arrays.sort(packed, g.neighborStart(id), g.neighborEnd(id));
+         }
+         for (int s = 0; s < numSlots; s++)
+         {
+            out.writeInt((int) (packed[s] >>> 32));
+         }
+         pad(out, neighborsStart + 4L * numSlots, weightsStart);
+         for (int s = 0; s < numSlots; s++)
+         {
+            out.writeInt((int) packed[s]);
+         }
+         pad(out, weightsStart + 4L * numSlots, labelOffsetsStart);
+
+         long labelOffset = 0;
+         for (int id = 0; id < numVertices; id++)
+         {
+            out.writeLong(labelOffset);
+            labelOffset = labelOffset + labels[id].length;
+         }
+         out.writeLong(labelOffset);
+
+         for (int i = 0; i < numVertices; i++)
+         {
+            out.writeInt(labelOrder[i]);
+         }
+         pad(out, labelOrderStart + 4L * numVertices, labelsStart);
+         for (int id = 0; id < numVertices; id++)
+         {
+            out.write(labels[id]);
+         }
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+
+   /**
+    * align() rounds "position" up to a multiple of 8.
+    */
+   private static long align(long position)
+   {
+      return (position + 7) & ~7L;
+   }
+
+   /**
+    * pad() writes zero bytes to "out" to take it from "position" to "next".
+    */
+   private static void pad(DataOutputStream out, long position, long next)
+         throws IOException
+   {
+      for (long p = position; p < next; p++)
+      {
+         out.writeByte(0);
+      }
+   }
+
+   /**
+    * getInt(), getLong() and getByte() read the int, long or byte at byte
+    * position "position" of the file, from whichever window holds it.
+    */
+   private int getInt(long position)
+   {
+      return windows[(int) (position >>> windowShift)]
+            .getInt((int) (position & windowMask));
+   }
+
+   private long getLong(long position)
+   {
+      return windows[(int) (position >>> windowShift)]
+            .getLong((int) (position & windowMask));
+   }
+
+   private byte getByte(long position)
+   {
+      return windows[(int) (position >>> windowShift)]
+            .get((int) (position & windowMask));
+   }
+
+   /**
+    * vertexCount() returns the number of vertices in the graph.
+    *
+    * Running time:  O(1).
+    */
+   public int vertexCount()
+   {
+      return numVertices;
+   }
+
+   /**
+    * edgeCount() returns the number of edges in the graph (pairs are not
+    * counted twice).
+    *
+    * Running time:  O(1).
+    */
+   public int edgeCount()
+   {
+      return numEdges;
+   }
+
+   /**
+    * vertex() returns the label (the toString() of the application vertex)
+    * stored for the vertex with id "id".
+    *
+    * Running time:  O(length of the label).
+    */
+   public String vertex(int id)
+   {
+      long start = labelsStart + getLong(labelOffsetsStart + 8L * id);
+      long end = labelsStart + getLong(labelOffsetsStart + 8L * (id + 1));
+      byte[] label = new byte[(int) (end - start)];
+
+      for (int i = 0; i < label.length; i++)
+      {
+         label[i] = getByte(start + i);
+      }
+      return new String(label, UTF8);
+   }
+
+   /**
+    * idOf() returns the id of the vertex whose label is "label", or -1 if
+    * there is none.  The ids sorted by label are binary searched, comparing
+    * bytes in place in the mapped file.
+    *
+    * Running time:  O(log |V|) label comparisons.
+    */
+   public int idOf(String label)
+   {
+      byte[] key = label.getBytes(UTF8);
+      int low = 0;
+      int high = numVertices - 1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         int id = getInt(labelOrderStart + 4L * mid);
+         int cmp = compareLabel(id, key);
+
+         if (cmp < 0)
+         {
+            low = mid + 1;
+         }
+         else if (cmp > 0)
+         {
+            high = mid - 1;
+         }
+         else
+         {
+            return id;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * degree() returns the degree of the vertex with id "id".  Self-edges add
+    * only one to the degree of a vertex.
+    *
+    * Running time:  O(1).
+    */
+   public int degree(int id)
+   {
+      return neighborEnd(id) - neighborStart(id);
+   }
+
+   /**
+    * neighborStart() returns the first slot holding a neighbor of the vertex
+    * with id "id".
+    *
+    * Running time:  O(1).
+    */
+   public int neighborStart(int id)
+   {
+      return getInt(offsetsStart + 4L * id);
+   }
+
+   /**
+    * neighborEnd() returns one past the last slot holding a neighbor of the
+    * vertex with id "id".
+    *
+    * Running time:  O(1).
+    */
+   public int neighborEnd(int id)
+   {
+      return getInt(offsetsStart + 4L * (id + 1));
+   }
+
+   /**
+    * neighbor() returns the id of the neighbor stored in slot "slot".
+    *
+    * Running time:  O(1).
+    */
+   public int neighbor(int slot)
+   {
+      return getInt(neighborsStart + 4L * slot);
+   }
+
+   /**
+    * weightAt() returns the weight of the edge stored in slot "slot".
+    *
+    * Running time:  O(1).
+    */
+   public int weightAt(int slot)
+   {
+      return getInt(weightsStart + 4L * slot);
+   }
+
+   /**
+    * isEdge() returns true if the vertices with ids "u" and "v" are connected
+    * by an edge.
+    *
+    * Running time:  O(log d), where d is the degree of "u".
+    */
+   public boolean isEdge(int u, int v)
+   {
+      return findSlot(u, v) >= 0;
+   }
+
+   /**
+    * weight() returns the weight of the edge between the vertices with ids
+    * "u" and "v", or zero if there is no such edge.
+    *
+    * Running time:  O(log d), where d is the degree of "u".
+    */
+   public int weight(int u, int v)
+   {
+      int slot = findSlot(u, v);
+
+      if (slot < 0)
+      {
+         return 0;
+      }
+      return weightAt(slot);
+   }
+
+   /**
+    * findSlot() binary searches the sorted neighbors of "u" for "v" and
+    * returns its slot, or -1 if "v" is not a neighbor.
+    */
+   private int findSlot(int u, int v)
+   {
+      int low = neighborStart(u);
+      int high = neighborEnd(u) - 1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         int neighbor = neighbor(mid);
+
+         if (neighbor < v)
+         {
+            low = mid + 1;
+         }
+         else if (neighbor > v)
+         {
+            high = mid - 1;
+         }
+         else
+         {
+            return mid;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * compareLabel() compares the stored label of "id" with "key", byte by
+    * byte as unsigned values, the same order write() sorted the labels in.
+    */
+   private int compareLabel(int id, byte[] key)
+   {
+      long start = getLong(labelOffsetsStart + 8L * id);
+      int length = (int) (getLong(labelOffsetsStart + 8L * (id + 1)) - start);
+      int common = Math.min(length, key.length);
+
+      for (int i = 0; i < common; i++)
+      {
+         int diff = (getByte(labelsStart + start + i) & 0xFF)
+               - (key[i] & 0xFF);
+
+         if (diff != 0)
+         {
+            return diff;
+         }
+      }
+      return length - key.length;
+   }
+
+   /**
+    * compareBytes() compares two byte arrays lexicographically as unsigned
+    * values.
+    */
+   private static int compareBytes(byte[] a, byte[] b)
+   {
+      int common = Math.min(a.length, b.length);
+
+      for (int i = 0; i < common; i++)
+      {
+         int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+
+         if (diff != 0)
+         {
+            return diff;
+         }
+      }
+      return a.length - b.length;
+   }
+
+}
@@ -0,0 +1,28 @@
+/* NeighborVisitor.java */
+
+package graph;
+
+/**
+ *  A NeighborVisitor is handed each neighbor of a vertex, one at a time, by
+ *  WUGraph.forEachNeighbor().  Unlike WUGraph.getNeighbors(), no arrays are
+ *  created, so a single visitor object can be reused for any number of
+ *  walks.
+ *
+ *  A visitor must not add or remove vertices or edges of the graph it is
+ *  walking.
+ **/
+
+public interface NeighborVisitor {
+
+  /**
+   *  visit() is called once for each edge incident on the vertex being
+   *  walked.
+   *
+   *  @param neighbor the application vertex at the other end of the edge.
+   *    (For a self-edge, this is the walked vertex itself.)
+   *  @param weight the weight of the edge.
+   **/
+
+  public void visit(Object neighbor, int weight);
+
+}
@@ -0,0 +1,67 @@
+/* PairHashStrategy.java */
+
+package graph;
+import hash.HashStrategy;
+import hash.MixingHashStrategy;
+
+/**
+ * A PairHashStrategy is the HashStrategy of a graph's edges table.  It hashes
+ * an edge by hashing each of its two vertices with the strategy of the
+ * graph's vertices table, adding the two codes so that the order of the
+ * vertices does not matter, and mixing the sum.  If the vertex strategy is
+ * seeded, so is every edge's code:  pairs picked to share a code under one
+ * seed (which is easy, since MixingHashStrategy.mix() can be inverted) are
+ * scattered under another.  VertexPair.hashCode() has no seed, so a table
+ * hashing edges by it can be flooded however its own strategy is seeded.
+ */
+
+public class PairHashStrategy implements HashStrategy {
+
+   private final HashStrategy vertexStrategy;
+
+   /**
+    * PairHashStrategy() constructs a strategy that hashes each vertex of a
+    * pair with "vertexStrategy".
+    *
+    * @param vertexStrategy the HashStrategy of the graph's vertices.
+    */
+   public PairHashStrategy(HashStrategy vertexStrategy)
+   {
+      this.vertexStrategy = vertexStrategy;
+   }
+
+   /**
+    * hash() returns hashPair() of the two vertices of "key" if it is a
+    * VertexPair, and the vertex strategy's code for "key" otherwise.
+    */
+   public int hash(Object key)
+   {
+      if (key instanceof VertexPair)
+      {
+         VertexPair pair = (VertexPair) key;
+         return hashPair(pair.object1, pair.object2);
+      }
+      return vertexStrategy.hash(key);
+   }
+
+   /**
+    * hashPair() returns the code of the edge (u, v), which is the code of
+    * the edge (v, u).  As in VertexPair.hashCode(), a self-edge adds one to
+    * the vertex's code instead of adding the code to itself.
+    *
+    * @param u one vertex of the edge.
+    * @param v the other vertex of the edge.
+    * @return the code of the edge.
+    */
+   public int hashPair(Object u, Object v)
+   {
+      int h1 = vertexStrategy.hash(u);
+
+      if (u.equals(v))
+      {
+         return MixingHashStrategy.mix(h1 + 1);
+      }
+      return MixingHashStrategy.mix(h1 + vertexStrategy.hash(v));
+   }
+
+}
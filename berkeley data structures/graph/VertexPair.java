@@ -1,6 +1,7 @@
 /* VertexPair.java */
 
 package graph;
+import hash.MixingHashStrategy;
 
 /**
  * The VertexPair represents a pair of objects that act as vertices in a
@@ -14,6 +15,8 @@ package graph;
 class VertexPair {
   protected Object object1;
   protected Object object2;
+  WeightIndex.Node indexNode;  // this edge's node in its graph's WeightIndex,
+                               // or null if the edge is not indexed
 
   protected VertexPair(Object o1, Object o2) {
     object1 = o1;
@@ -21,18 +24,25 @@ class VertexPair {
   }
 
   /**
-   * hashCode() returns a hashCode equal to the sum of the hashCodes of each
-   * of the two objects of the pair, so that the order of the objects will
-   * not affect the hashCode.  Self-edges are treated differently:  we don't
-   * add an object's hashCode to itself, since the result would always be even.
+   * hashCode() returns a hashCode equal to the sum of the mixed hashCodes of
+   * each of the two objects of the pair, so that the order of the objects
+   * will not affect the hashCode.  Each hashCode is mixed (see
+   * MixingHashStrategy.mix()) before adding, since a plain sum gives every
+   * pair with the same total the same code:  (1, 4), (2, 3) and (0, 5) would
+   * all collide.  Self-edges are treated differently:  we don't add an
+   * object's hashCode to itself, since the result would always be even.
    * We add one to the hashCode so that a self-edge will not collide with the
    * object itself if vertices and edges are stored in the same hash table.
+   *
+   * This code has no seed.  The edges tables of a graph don't use it; they
+   * hash each object with the graph's own strategy (see PairHashStrategy).
    */
   public int hashCode() {
     if (object1.equals(object2)) {
-      return object1.hashCode() + 1;
+      return MixingHashStrategy.mix(object1.hashCode()) + 1;
     } else {
-      return object1.hashCode() + object2.hashCode();
+      return MixingHashStrategy.mix(object1.hashCode()) +
+             MixingHashStrategy.mix(object2.hashCode());
     }
   }
 
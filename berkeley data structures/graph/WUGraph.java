@@ -11,25 +11,88 @@ import list.*;
 
 public class WUGraph {
    
-   private HashTableChained vertices;
-   private HashTableChained edges;
+   private Graph vertices;       // a HashTableChained or a HashTableOpen
+   private Graph edges;
    private DList vertexList;
 
+   private VertexNode[] idTable; // vertex id --> node in vertexList
+   private int nextId;           // one more than the largest id ever given
+   private int[] freeIds;        // ids released by removeVertex()
+   private int numFreeIds;
+
+   private long version;          // bumped by every change to the graph
+   private CsrGraph lastSnapshot; // returned by snapshot() until version moves
+
+   private WeightIndex weightIndex;  // edges in weight order, or null if off
+   private EdgeFilter edgeFilter;    // counting Bloom filter of the edges, or
+                                     // null if off
+
+   private DList[] degreeBuckets; // degree --> DList of vertex nodes with that
+                                  // degree, or null if the index is off
+   private int maxDegree;         // largest degree with a nonempty bucket
+
    /**
     * WUGraph() constructs a graph having no vertices or edges. The WUGraph
     * constructor calls constructors for its three fields: Vertices (a hash
     * table that stores the references to the application vertices), 
     * Edges (a hash table that stores the references to the application edges),
     * and vertexList (a DList that stores the internal vertex representation
-    * as well as the adjacency lists for each vertex).
+    * as well as the adjacency lists for each vertex).  It also creates the
+    * arrays used to hand out dense vertex ids: idTable (indexed by id) and
+    * freeIds (a stack of ids waiting to be reused).
     *
     * Running time:  O(1).
     */
    public WUGraph()
    {
-      vertices = new HashTableChained();
-      edges = new HashTableChained();
-      vertexList = new DList();
+      this(false);
+   }
+
+   /**
+    * WUGraph() constructs a graph having no vertices or edges, whose vertices
+    * and edges hash tables are HashTableOpen tables if "openAddressing" is
+    * true, and HashTableChained tables otherwise.  Open addressing keeps
+    * each table in flat arrays, with no DListNode or bucket DList per entry,
+    * so it takes less memory and a find() follows fewer references.
+    *
+    * @param openAddressing true to use HashTableOpen for both tables.
+    *
+    * Running time:  O(1).
+    */
+   public WUGraph(boolean openAddressing)
+   {
+      this(openAddressing, new MixingHashStrategy());
+   }
+
+   /**
+    * WUGraph() constructs a graph having no vertices or edges, like
+    * WUGraph(boolean), whose hash tables hash their keys with "strategy".
+    * A graph whose vertices come from outside, and might be chosen to pile
+    * into one bucket, should be given MixingHashStrategy.withRandomSeed().
+    *
+    * The edges table hashes each vertex of an edge with "strategy" too (see
+    * PairHashStrategy), so a seed protects the edges as well.
+    *
+    * @param openAddressing true to use HashTableOpen for both tables.
+    * @param strategy the HashStrategy of the vertices.
+    *
+    * Running time:  O(1).
+    */
+   public WUGraph(boolean openAddressing, HashStrategy strategy)
+   {
+      if (openAddressing)
+      {
+         vertices = new HashTableOpen(strategy);
+         edges = new HashTableOpen(new PairHashStrategy(strategy));
+      }
+      else
+      {
+         vertices = new HashTableChained(strategy);
+         edges = new HashTableChained(new PairHashStrategy(strategy));
+      }
+      vertexList = new VertexList();
+      idTable = new VertexNode[8];
+      freeIds = new int[8];
    }
 
    /**
@@ -94,14 +157,7 @@ public class WUGraph {
          // the key. The entry key is where the actual vertex object is located.
          allVertices[i] = ((Entry) currVertexNode.item()).key();
 
-         try
-         {
-            currVertexNode = (DListNode)currVertexNode.next();
-         }
-         catch (InvalidNodeException e)
-         {
-            System.out.println(e);
-         }
+         currVertexNode = currVertexNode.nextUnchecked();
       }
 
       return allVertices;
@@ -116,7 +172,9 @@ public class WUGraph {
     * creates having the vertex as the key and the DListNode in vertexList 
     * that was created before as the value. If the load factor of the Vertices
     * hash table exceeds 0.85, the hash table is resized to have double the 
-    * buckets. If this object is already a vertex of the graph, the graph is 
+    * buckets. The vertex is also given a dense int id (see idOf()); an id
+    * released by removeVertex() is reused before a new one is handed out.
+    * If this object is already a vertex of the graph, the graph is 
     * unchanged.
     *
     * @param an Object vertex from the application.
@@ -129,6 +187,135 @@ public class WUGraph {
          return;
       }
       
+      insertVertex(vertex);
+   }
+
+   /**
+    * addVertices() adds every object in "newVertices" to the graph as a
+    * vertex, exactly as if addVertex() were called on each in turn.  Before
+    * anything is added, the vertices hash table and the id table are grown
+    * once to fit all of them, so they do not double repeatedly during the
+    * load.
+    *
+    * @param newVertices the Object vertices from the application.
+    *
+    * Running time:  O(n), where n is the length of "newVertices".
+    */
+   public void addVertices(Object[] newVertices)
+   {
+      addVertices(newVertices, false);
+   }
+
+   /**
+    * addVertices() adds every object in "newVertices" to the graph as a
+    * vertex.  If "distinct" is true, the caller promises that no object in
+    * "newVertices" is already a vertex of the graph and that no two of them
+    * are equals(); the vertices hash table is then not probed for
+    * duplicates at all.  If the promise is broken, the graph is corrupted.
+    * If "distinct" is false, this behaves like addVertices(Object[]).
+    *
+    * @param newVertices the Object vertices from the application.
+    * @param distinct true if the vertices are known to be new and distinct.
+    *
+    * Running time:  O(n), where n is the length of "newVertices".
+    */
+   public void addVertices(Object[] newVertices, boolean distinct)
+   {
+      ensureCapacity(vertexCount() + newVertices.length, edgeCount());
+
+      for (int i = 0; i < newVertices.length; i++)
+      {
+         if (distinct || vertices.find(newVertices[i]) == null)
+         {
+            insertVertex(newVertices[i]);
+         }
+      }
+   }
+
+   /**
+    * ensureCapacity() grows the vertices and edges hash tables, and the id
+    * table, once so that the graph can hold "expectedVertices" vertices and
+    * "expectedEdges" edges in all without any of them having to be resized
+    * again.  Loaders that know roughly how big a graph will be call this
+    * before adding anything.
+    *
+    * @param expectedVertices the number of vertices the graph should hold.
+    * @param expectedEdges the number of edges the graph should hold.
+    *
+    * Running time:  O(|V| + |E|) if a table has to grow; otherwise O(1).
+    */
+   public void ensureCapacity(int expectedVertices, int expectedEdges)
+   {
+      ensureTableCapacity(vertices, expectedVertices);
+      ensureTableCapacity(edges, expectedEdges);
+      ensureIdCapacity(expectedVertices);
+   }
+
+   /**
+    * setIncrementalResize() turns incremental resizing on or off for the
+    * vertices and edges hash tables (see
+    * HashTableChained.setIncrementalResize()).  With it on, no addVertex()
+    * or addEdge() call stalls to rehash a whole table; the work is spread
+    * over the calls that follow a resize.  A graph built with open
+    * addressing is unaffected.
+    *
+    * @param on true to resize incrementally.
+    *
+    * Running time:  O(1), or O(|V| + |E|) to finish a resize under way when
+    *    turning the mode off.
+    */
+   public void setIncrementalResize(boolean on)
+   {
+      if (vertices instanceof HashTableChained)
+      {
+         ((HashTableChained) vertices).setIncrementalResize(on);
+         ((HashTableChained) edges).setIncrementalResize(on);
+      }
+   }
+
+   /**
+    * setLoadFactors() sets the load factors at which the vertices and edges
+    * hash tables grow and shrink (see HashTableChained.setLoadFactors()).
+    * A graph built with open addressing is unaffected.
+    *
+    * @param min the load below which a table shrinks; 0 for never.
+    * @param max the load above which a table grows.
+    * @exception IllegalArgumentException if max is not positive, or min is
+    *    negative or not less than max / 2.
+    *
+    * Running time:  O(1).
+    */
+   public void setLoadFactors(double min, double max)
+   {
+      if (vertices instanceof HashTableChained)
+      {
+         ((HashTableChained) vertices).setLoadFactors(min, max);
+         ((HashTableChained) edges).setLoadFactors(min, max);
+      }
+   }
+
+   /**
+    * ensureTableCapacity() calls ensureCapacity() on "table", whichever kind
+    * of hash table it is.
+    */
+   private static void ensureTableCapacity(Graph table, int expectedEntries)
+   {
+      if (table instanceof HashTableOpen)
+      {
+         ((HashTableOpen) table).ensureCapacity(expectedEntries);
+      }
+      else
+      {
+         ((HashTableChained) table).ensureCapacity(expectedEntries);
+      }
+   }
+
+   /**
+    * insertVertex() adds "vertex", which must not already be a vertex of the
+    * graph, to vertexList and the vertices hash table, and gives it an id.
+    */
+   private void insertVertex(Object vertex)
+   {
       Entry vertexHolder = new Entry();
       vertexHolder.setKey(vertex);
       vertexList.insertBack(vertexHolder); 
@@ -136,9 +323,13 @@ public class WUGraph {
       // Value of 'Entry' inserted into the hash table is the DListNode we 
       // just added into vertexList
       vertices.insert(vertex, vertexList.back()); 
+      assignId((VertexNode) vertexList.back());
+      version++;
 
-      // Will only resize the table if loadFactor exceeds 0.85
-      vertices.resizeTable();
+      if (degreeBuckets != null)
+      {
+         addToDegreeBucket((VertexNode) vertexList.back());
+      }
    }
 
    /**
@@ -151,8 +342,8 @@ public class WUGraph {
     * Then the edge itself of the current node is removed. The proper edge 
     * references are removed from the Edge hash table as well.
     * Finally, the vertex is removed from vertexList and the vertices hash 
-    * table. If the parameter "vertex" does not represent a vertex of the graph, 
-    * the graph is unchanged.
+    * table, and its id is released for reuse. If the parameter "vertex" does
+    * not represent a vertex of the graph, the graph is unchanged.
     * 
     * @param the Object vertex from the application.
     *
@@ -165,7 +356,7 @@ public class WUGraph {
          try
          {
             Entry targetVertex = vertices.find(vertex); 
-            DListNode targetVertexNode = (DListNode) targetVertex.value(); 
+            VertexNode targetVertexNode = (VertexNode) targetVertex.value(); 
             DList targetAdjList = targetVertexNode.adjList(); 
 
             if (!targetAdjList.isEmpty())
@@ -173,6 +364,7 @@ public class WUGraph {
                // Used to access each individual node in adjList
                DListNode currNeighbor = (DListNode) targetAdjList.front(); 
                DListNode deleteCurrNode;
+               EdgeNode partner;
                
                // Traverse through the adjList of the vertex that is to be 
                // removed. Remove all edges that exist in other vertices by 
@@ -180,16 +372,32 @@ public class WUGraph {
                // reference.
                while (currNeighbor.isValidNode())
                {
+                  if (weightIndex != null)
+                  {
+                     weightIndex.remove((VertexPair) 
+                           ((Entry) currNeighbor.item()).key());
+                  }
+
+                  if (edgeFilter != null)
+                  {
+                     VertexPair pair =
+                           (VertexPair) ((Entry) currNeighbor.item()).key();
+                     edgeFilter.remove(pair.object1, pair.object2);
+                  }
+
                   // Checking to make sure the current node does not store an
                   // Entry object with a self-edge
-                  if (currNeighbor != currNeighbor.partner())
+                  partner = ((EdgeNode) currNeighbor).partner();
+
+                  if (currNeighbor != partner)
                   {
-                     if (((Entry) currNeighbor.partner().item()).value() != null)
+                     if (((Entry) partner.item()).value() != null)
                      {
-                        edges.remove(((Entry)currNeighbor.partner().item()).key());
+                        edges.remove(((Entry) partner.item()).key());
                      }
 
-                     currNeighbor.partner().remove();
+                     partner.remove();
+                     updateDegree(((EdgeNode) currNeighbor).vertexTwo());
                   }
                   
                   if (((Entry) currNeighbor.item()).value() != null)
@@ -199,7 +407,7 @@ public class WUGraph {
                   
                   deleteCurrNode = currNeighbor;
 
-                  currNeighbor = (DListNode) currNeighbor.next();
+                  currNeighbor = currNeighbor.nextUnchecked();
                   deleteCurrNode.remove();
                }
             }
@@ -208,6 +416,13 @@ public class WUGraph {
             // with, remove the vertex from the Vertices hash table and 
             // vertexList.
             vertices.remove(vertex);
+            version++;
+            releaseId(targetVertexNode);
+
+            if (degreeBuckets != null)
+            {
+               removeFromDegreeBucket(targetVertexNode);
+            }
             targetVertexNode.remove();
          }
          catch(InvalidNodeException e)
@@ -254,7 +469,7 @@ public class WUGraph {
       if (vertices.find(vertex) != null)
       {
          Entry foundVertex = ((Entry) vertices.find(vertex));
-         DList vertexNeighbors = ((DListNode) foundVertex.value()).adjList();
+         DList vertexNeighbors = ((VertexNode) foundVertex.value()).adjList();
          
          if (vertexNeighbors != null) 
          {
@@ -295,51 +510,118 @@ public class WUGraph {
     */
    public Neighbors getNeighbors(Object vertex) {
       
-      if (degree(vertex) != 0 && this.isVertex(vertex))
+      Entry foundVertex = vertices.find(vertex);
+
+      if (foundVertex == null)
       {
+         return null;
+      }
+
+      // currVertexNode is the DListNode in the DList of vertices that 
+      // contains the reference to the application vertex inputed
+      VertexNode currVertexNode = (VertexNode) foundVertex.value(); 
+      int degree = currVertexNode.adjList().length();
+
+      if (degree == 0)
+      {
+         return null;
+      }
+
+      Neighbors neighborDetails = new Neighbors();
+      neighborDetails.neighborList = new Object[degree];
+      neighborDetails.weightList = new int[degree];
          
-         Neighbors neighborDetails = new Neighbors();
-         // currVertexNode is the DListNode in the DList of vertices that 
-         // contains the reference to the application vertex inputed
-         DListNode currVertexNode = (DListNode) 
-               ((Entry) vertices.find(vertex)).value(); 
-         neighborDetails.neighborList = new 
-               Object[currVertexNode.adjList().length()];
-         neighborDetails.weightList = new 
-               int[currVertexNode.adjList().length()];
-         
-         if (!currVertexNode.adjList().isEmpty())
-         {  
-            try
-            {
-               // currAdjListNode is the first node in the adjacency list of 
-               // the specified vertex
-               DListNode currAdjListNode = 
-                     (DListNode) currVertexNode.adjList().front();
-               
-               // Traverses through the adjacency list and adds the neighbor
-               // vertex (application) reference and corresponding edge weight
-               // to the Neighbors object fields.
-               for (int i = 0; i < currVertexNode.adjList().length(); i++)
-               {
-                  neighborDetails.neighborList[i] = 
-                        ((Entry) currAdjListNode.vertexTwo().item()).key();
-                  neighborDetails.weightList[i] = 
-                        ((Entry) currAdjListNode.item()).weight();
+      // currAdjListNode is the first node in the adjacency list of 
+      // the specified vertex
+      DListNode currAdjListNode = 
+            (DListNode) currVertexNode.adjList().front();
+            
+      // Traverses through the adjacency list and adds the neighbor
+      // vertex (application) reference and corresponding edge weight
+      // to the Neighbors object fields.
+      for (int i = 0; i < degree; i++)
+      {
+         neighborDetails.neighborList[i] = 
+               ((Entry) ((EdgeNode) currAdjListNode).vertexTwo().item()).key();
+         neighborDetails.weightList[i] = 
+               ((Entry) currAdjListNode.item()).weight();
 
-                  // Move onto the next neighbor in the adjList.
-                  currAdjListNode = (DListNode) currAdjListNode.next();
-               }
+         // Move onto the next neighbor in the adjList.
+         currAdjListNode = currAdjListNode.nextUnchecked();
+      }
+      return neighborDetails;
+   }
 
-            }
-            catch (InvalidNodeException e)
-            {
-               System.out.println(e);
-            }
-         }
-         return neighborDetails;
+   /**
+    * forEachNeighbor() hands every neighbor of "vertex", and the weight of
+    * the edge to it, to visitor.visit().  The neighbors are visited in the
+    * same order getNeighbors() lists them.  The method finds the vertex with
+    * one probe of the vertices hash table and then walks its adjacency list
+    * directly; no Neighbors object or array is created, so walking a graph
+    * with a reused visitor produces no garbage.  If "vertex" does not
+    * represent a vertex of the graph, the visitor is not called.
+    *
+    * The visitor must not change the graph while it is being walked.
+    *
+    * @param the Object vertex from the application.
+    * @param visitor the NeighborVisitor to call for each neighbor.
+    * @return the number of neighbors visited (the degree of "vertex").
+    *
+    * Running time:  O(d), where d is the degree of "vertex".
+    */
+   public int forEachNeighbor(Object vertex, NeighborVisitor visitor)
+   {
+      Entry foundVertex = vertices.find(vertex);
+
+      if (foundVertex == null)
+      {
+         return 0;
+      }
+      return visitNeighbors((VertexNode) foundVertex.value(), visitor);
+   }
+
+   /**
+    * forEachNeighbor() hands every neighbor of the vertex whose id is "id",
+    * and the weight of the edge to it, to visitor.visit().  It behaves like
+    * forEachNeighbor(Object, NeighborVisitor) but finds the vertex without
+    * probing any hash table.  If no vertex has the id, the visitor is not
+    * called.
+    *
+    * @param id a vertex id.
+    * @param visitor the NeighborVisitor to call for each neighbor.
+    * @return the number of neighbors visited.
+    *
+    * Running time:  O(d), where d is the degree of the vertex.
+    */
+   public int forEachNeighbor(int id, NeighborVisitor visitor)
+   {
+      VertexNode vertexNode = vertexNode(id);
+
+      if (vertexNode == null)
+      {
+         return 0;
+      }
+      return visitNeighbors(vertexNode, visitor);
+   }
+
+   /**
+    * visitNeighbors() walks the adjacency list of the vertex node
+    * "vertexNode", calling visitor.visit() for each edge, and returns the
+    * number of edges walked.
+    */
+   private int visitNeighbors(VertexNode vertexNode, NeighborVisitor visitor)
+   {
+      DList adjList = vertexNode.adjList();
+      DListNode currAdjListNode = (DListNode) adjList.front();
+
+      while (currAdjListNode.isValidNode())
+      {
+         visitor.visit(
+               ((Entry) ((EdgeNode) currAdjListNode).vertexTwo().item()).key(),
+               ((Entry) currAdjListNode.item()).weight());
+         currAdjListNode = currAdjListNode.nextUnchecked();
       }
-      return null; 
+      return adjList.length();
    }
 
    /**
@@ -364,6 +646,13 @@ public class WUGraph {
     */
    public void addEdge(Object u, Object v, int weight)
    {
+      // an edge the filter rules out is new; skip the edges table probe
+      if (edgeFilter != null && !edgeFilter.mightContain(u, v))
+      {
+         linkEdge(new VertexPair(u, v), weight);
+         return;
+      }
+
       VertexPair edge = new VertexPair(u, v);
       Entry edgeEntry = edges.find(edge);
 
@@ -371,72 +660,152 @@ public class WUGraph {
       // weight; goes to partner node, updates the partner edge's weight
       if (edgeEntry != null)
       {
-         ((Entry) ((DListNode) edgeEntry.value()).item()).setWeight(weight);
-         ((Entry) ((DListNode) 
+         Entry uEdge = (Entry) ((DListNode) edgeEntry.value()).item();
+
+         // an indexed edge whose weight changes is moved to its new place
+         if (weightIndex != null && uEdge.weight() != weight)
+         {
+            weightIndex.remove((VertexPair) edgeEntry.key());
+            weightIndex.insert((VertexPair) edgeEntry.key(), weight);
+         }
+
+         uEdge.setWeight(weight);
+         ((Entry) ((EdgeNode) 
                edgeEntry.value()).partner().item()).setWeight(weight);
+         version++;
       }
       else
       {
+         linkEdge(edge, weight);
+      }
+   }
 
-         // finds the Entry holding Vertex u, goes to its value reference to the
-         // DListNode holding the vertex in the DList of vertices, and goes to
-         // that vertex
-         DListNode uVertex = ((DListNode) vertices.find(u).value());
-         
-         // uVertex is not a valid node if u is not a vertex in the graph
-         if (!uVertex.isValidNode())
+   /**
+    * addEdges() adds the edges (u[i], v[i]) with weights w[i] to the graph,
+    * exactly as if addEdge() were called on each i in turn.  Before anything
+    * is added, the edges hash table is grown once to fit all of them, so it
+    * does not double repeatedly during the load.
+    *
+    * @param u, v and w are parallel arrays of the same length holding the
+    *    Object vertices and the weight of each edge.
+    *
+    * Running time:  O(n), where n is the length of the arrays.
+    */
+   public void addEdges(Object[] u, Object[] v, int[] w)
+   {
+      addEdges(u, v, w, false);
+   }
+
+   /**
+    * addEdges() adds the edges (u[i], v[i]) with weights w[i] to the graph.
+    * If "distinct" is true, the caller promises that none of the edges is
+    * already in the graph and that no edge appears twice (in either order);
+    * the edges hash table is then not probed for an existing edge before
+    * each one is added.  If the promise is broken, the graph is corrupted.
+    * Edges with an endpoint that is not a vertex are skipped either way.
+    * If "distinct" is false, this behaves like addEdges(Object[], Object[],
+    * int[]).
+    *
+    * @param u, v and w are parallel arrays of the same length holding the
+    *    Object vertices and the weight of each edge.
+    * @param distinct true if the edges are known to be new and distinct.
+    *
+    * Running time:  O(n), where n is the length of the arrays.
+    */
+   public void addEdges(Object[] u, Object[] v, int[] w, boolean distinct)
+   {
+      ensureCapacity(vertexCount(), edgeCount() + u.length);
+
+      for (int i = 0; i < u.length; i++)
+      {
+         if (distinct)
          {
-            return;
+            linkEdge(new VertexPair(u[i], v[i]), w[i]);
          }
-         DListNode vVertex = ((DListNode) vertices.find(v).value());
-         
-         // vVertex is not a valid node if v is not a vertex in the graph
-         if (!vVertex.isValidNode())
+         else
          {
-            return;
+            addEdge(u[i], v[i], w[i]);
          }
-         
-         edgeEntry = new Entry();
-         edgeEntry.setKey(edge);
-         edgeEntry.setWeight(weight);
+      }
+   }
 
-         uVertex.adjList().insertBack(edgeEntry);
+   /**
+    * linkEdge() adds the edge "edge", which must not already be in the graph,
+    * with weight "weight".  If either endpoint is not a vertex of the graph,
+    * the graph is unchanged.  The edge is added to the adjacency list of both
+    * vertices (only once for a self-edge) and to the edges hash table, and
+    * the two adjacency nodes are linked through their partner, vertexOne and
+    * vertexTwo fields.  Both adjacency Entries share "edge" as their key.
+    */
+   private void linkEdge(VertexPair edge, int weight)
+   {
+      // finds the Entry holding each vertex; its value references the
+      // DListNode holding the vertex in the DList of vertices
+      Entry uHolder = vertices.find(edge.object1);
+      Entry vHolder = vertices.find(edge.object2);
 
-         // key is the VertexPair, value is the node in the adjacency list 
-         // holding the Entry object
-         edges.insert(edge, uVertex.adjList().back());
-         Entry edgeHash = edges.find(edge);
-         
-         // adjList node Entry's value is the hash table Entry
-         edgeEntry.setValue(edgeHash); 
-         
-         if (u == v)  // if u and v are the same vertex
-         {
-            DListNode uEdgeNode = (DListNode) uVertex.adjList().back();
-            uEdgeNode.setPartner(uEdgeNode);
-            uEdgeNode.setVertexOne(uVertex);
-            uEdgeNode.setVertexTwo(uVertex);
-            return;
-         }
+      if (uHolder == null || vHolder == null)
+      {
+         return;
+      }
+      version++;
 
-         edgeEntry = new Entry();
-         edge = new VertexPair(v, u);   // Changing the order of the vertices
-         edgeEntry.setKey(edge);
-         edgeEntry.setWeight(weight);
+      VertexNode uVertex = (VertexNode) uHolder.value();
+      VertexNode vVertex = (VertexNode) vHolder.value();
 
-         vVertex.adjList().insertBack(edgeEntry);
-         
-         DListNode uEdgeNode = (DListNode) uVertex.adjList().back();
-         DListNode vEdgeNode = (DListNode) vVertex.adjList().back();
+      Entry edgeEntry = new Entry();
+      edgeEntry.setKey(edge);
+      edgeEntry.setWeight(weight);
+
+      uVertex.adjList().insertBack(edgeEntry);
+      EdgeNode uEdgeNode = (EdgeNode) uVertex.adjList().back();
+
+      // key is the VertexPair, value is the node in the adjacency list 
+      // holding the Entry object; adjList node Entry's value is the hash
+      // table Entry
+      edgeEntry.setValue(edges.insert(edge, uEdgeNode)); 
+
+      if (weightIndex != null)
+      {
+         weightIndex.insert(edge, weight);
+      }
+
+      if (edgeFilter != null)
+      {
+         edgeFilter.add(edge.object1, edge.object2);
 
-         uEdgeNode.setPartner(vEdgeNode);
-         vEdgeNode.setPartner(uEdgeNode);
+         if (edgeFilter.isOverloaded())
+         {
+            rebuildEdgeFilter(2 * edges.size());
+         }
+      }
 
+      if (uVertex == vVertex)  // if u and v are the same vertex
+      {
+         uEdgeNode.setPartner(uEdgeNode);
          uEdgeNode.setVertexOne(uVertex);
-         uEdgeNode.setVertexTwo(vVertex);
-         vEdgeNode.setVertexOne(vVertex);
-         vEdgeNode.setVertexTwo(uVertex);
+         uEdgeNode.setVertexTwo(uVertex);
+         updateDegree(uVertex);
+         return;
       }
+
+      edgeEntry = new Entry();
+      edgeEntry.setKey(edge);
+      edgeEntry.setWeight(weight);
+
+      vVertex.adjList().insertBack(edgeEntry);
+      EdgeNode vEdgeNode = (EdgeNode) vVertex.adjList().back();
+
+      uEdgeNode.setPartner(vEdgeNode);
+      vEdgeNode.setPartner(uEdgeNode);
+
+      uEdgeNode.setVertexOne(uVertex);
+      uEdgeNode.setVertexTwo(vVertex);
+      vEdgeNode.setVertexOne(vVertex);
+      vEdgeNode.setVertexTwo(uVertex);
+
+      updateDegree(uVertex);
+      updateDegree(vVertex);
    }
 
    /**
@@ -455,6 +824,11 @@ public class WUGraph {
     */
    public void removeEdge(Object u, Object v)
    {
+      if (edgeFilter != null && !edgeFilter.mightContain(u, v))
+      {
+         return;
+      }
+
       VertexPair edge = new VertexPair(u, v);
       Entry edgeEntry = edges.find(edge);
       
@@ -462,15 +836,31 @@ public class WUGraph {
       {
          try
          {
+            EdgeNode edgeNode = (EdgeNode) edgeEntry.value();
+            VertexNode uVertex = edgeNode.vertexOne();
+            VertexNode vVertex = edgeNode.vertexTwo();
+
             // If the edge is not a self-edge.
-            if (((DListNode) edgeEntry.value()).partner() != 
-                  ((DListNode) edgeEntry.value()))
+            if (edgeNode.partner() != edgeNode)
             {
-               ((DListNode) edgeEntry.value()).partner().remove();
+               edgeNode.partner().remove();
+               updateDegree(vVertex);
             }
 
-            ((DListNode) edgeEntry.value()).remove();
+            edgeNode.remove();
+            updateDegree(uVertex);
             edges.remove(edge);
+            version++;
+
+            if (weightIndex != null)
+            {
+               weightIndex.remove((VertexPair) edgeEntry.key());
+            }
+
+            if (edgeFilter != null)
+            {
+               edgeFilter.remove(u, v);
+            }
          }
          catch (InvalidNodeException e)
          {
@@ -485,7 +875,8 @@ public class WUGraph {
     * if (u, v) is not an edge (including the case where either of the
     * parameters u and v does not represent a vertex of the graph). The method
     * creates a VertexPair object to hold both Object vertices, and hashes it
-    * to check whether the edge exists in the edges hash table.
+    * to check whether the edge exists in the edges hash table.  If the edge
+    * filter is on and rules the edge out, neither is done.
     * 
     * @param Object u and Object v are the Object vertices from the application.
     * @return true if the two vertices are connected by an edge, false if
@@ -495,6 +886,11 @@ public class WUGraph {
     */
    public boolean isEdge(Object u, Object v)
    {
+      if (edgeFilter != null && !edgeFilter.mightContain(u, v))
+      {
+         return false;
+      }
+
       VertexPair edge = new VertexPair(u, v);
       Entry edgeEntry = edges.find(edge);
 
@@ -532,6 +928,11 @@ public class WUGraph {
     */
    public int weight(Object u, Object v)
    {
+      if (edgeFilter != null && !edgeFilter.mightContain(u, v))
+      {
+         return 0;
+      }
+
       VertexPair edge = new VertexPair(u, v);
       Entry edgeEntry = edges.find(edge);
 
@@ -545,4 +946,759 @@ public class WUGraph {
       }
    }
 
+   /**
+    * idOf() returns the dense int id of the vertex "vertex", or -1 if
+    * "vertex" does not represent a vertex of the graph.  Ids lie between 0
+    * and idCapacity() - 1.  A vertex keeps its id until it is removed; the
+    * id may then be given to a vertex added later.
+    *
+    * @param the Object vertex from the application.
+    * @return the id of the vertex, or -1.
+    *
+    * Running time:  O(1).
+    */
+   public int idOf(Object vertex)
+   {
+      Entry foundVertex = vertices.find(vertex);
+
+      if (foundVertex == null)
+      {
+         return -1;
+      }
+      return ((VertexNode) foundVertex.value()).vertexId();
+   }
+
+   /**
+    * vertexOf() returns the application vertex whose id is "id", or null if
+    * no vertex of the graph currently has that id.
+    *
+    * @param id a vertex id.
+    * @return the object provided by the application in addVertex(), or null.
+    *
+    * Running time:  O(1).
+    */
+   public Object vertexOf(int id)
+   {
+      VertexNode vertexNode = vertexNode(id);
+
+      if (vertexNode == null)
+      {
+         return null;
+      }
+      return ((Entry) vertexNode.item()).key();
+   }
+
+   /**
+    * idCapacity() returns one more than the largest id ever handed out, so
+    * an array of this length can be indexed by the id of any vertex of the
+    * graph.  It never exceeds the largest number of vertices the graph has
+    * held at one time.
+    *
+    * Running time:  O(1).
+    */
+   public int idCapacity()
+   {
+      return nextId;
+   }
+
+   /**
+    * degree() returns the degree of the vertex whose id is "id".  Self-edges
+    * add only one to the degree of a vertex.  If no vertex has that id, zero
+    * is returned.  Unlike degree(Object), no hash table is probed.
+    *
+    * @param id a vertex id.
+    * @return the number of edges that the vertex has (self-edges count as one).
+    *
+    * Running time:  O(1).
+    */
+   public int degree(int id)
+   {
+      VertexNode vertexNode = vertexNode(id);
+
+      if (vertexNode == null)
+      {
+         return 0;
+      }
+      return vertexNode.adjList().length();
+   }
+
+   /**
+    * isEdge() returns true if the vertices whose ids are "u" and "v" are
+    * connected by an edge.  Returns false if either id does not belong to a
+    * vertex of the graph.  The vertices are found through idTable, so only
+    * the edges hash table is probed.
+    *
+    * @param u and v are vertex ids.
+    * @return true if the two vertices are connected by an edge.
+    *
+    * Running time:  O(1).
+    */
+   public boolean isEdge(int u, int v)
+   {
+      return findEdge(u, v) != null;
+   }
+
+   /**
+    * weight() returns the weight of the edge between the vertices whose ids
+    * are "u" and "v".  Returns zero if there is no such edge (including the
+    * case where either id does not belong to a vertex of the graph).
+    *
+    * @param u and v are vertex ids.
+    * @return the int weight of the edge, or 0.
+    *
+    * Running time:  O(1).
+    */
+   public int weight(int u, int v)
+   {
+      Entry edgeEntry = findEdge(u, v);
+
+      if (edgeEntry == null)
+      {
+         return 0;
+      }
+      return ((Entry) ((DListNode) edgeEntry.value()).item()).weight();
+   }
+
+   /**
+    * findEdge() returns the edges hash table Entry for the edge between the
+    * vertices whose ids are "u" and "v", or null if there is no such edge.
+    */
+   private Entry findEdge(int u, int v)
+   {
+      VertexNode uVertex = vertexNode(u);
+      VertexNode vVertex = vertexNode(v);
+
+      if (uVertex == null || vVertex == null)
+      {
+         return null;
+      }
+
+      Object uObject = ((Entry) uVertex.item()).key();
+      Object vObject = ((Entry) vVertex.item()).key();
+
+      if (edgeFilter != null && !edgeFilter.mightContain(uObject, vObject))
+      {
+         return null;
+      }
+      return edges.find(new VertexPair(uObject, vObject));
+   }
+
+   /**
+    * vertexNode() returns the node in vertexList whose vertex has the id
+    * "id", or null if no vertex currently has that id.
+    */
+   private VertexNode vertexNode(int id)
+   {
+      if (id < 0 || id >= nextId)
+      {
+         return null;
+      }
+      return idTable[id];
+   }
+
+   /**
+    * assignId() gives the new vertex node "vertexNode" an id.  The most
+    * recently released id is reused if there is one; otherwise the next
+    * unused id is taken, growing idTable if it is full.
+    */
+   private void assignId(VertexNode vertexNode)
+   {
+      int id;
+
+      if (numFreeIds > 0)
+      {
+         numFreeIds--;
+         id = freeIds[numFreeIds];
+      }
+      else
+      {
+         id = nextId;
+         nextId++;
+         ensureIdCapacity(nextId);
+      }
+
+      idTable[id] = vertexNode;
+      vertexNode.setVertexId(id);
+   }
+
+   /**
+    * ensureIdCapacity() grows idTable, at least doubling it, so that it can
+    * hold "capacity" ids.
+    */
+   private void ensureIdCapacity(int capacity)
+   {
+      if (capacity > idTable.length)
+      {
+         VertexNode[] tempTable = idTable;
+         idTable = new VertexNode[Math.max(capacity, tempTable.length * 2)];
+         System.arraycopy(tempTable, 0, idTable, 0, tempTable.length);
+      }
+   }
+
+   /**
+    * releaseId() frees the id of the vertex node "vertexNode", which is about
+    * to be removed, by pushing it onto the freeIds stack.
+    */
+   private void releaseId(VertexNode vertexNode)
+   {
+      int id = vertexNode.vertexId();
+
+      idTable[id] = null;
+
+      if (numFreeIds == freeIds.length)
+      {
+         int[] tempIds = freeIds;
+         freeIds = new int[tempIds.length * 2];
+         System.arraycopy(tempIds, 0, freeIds, 0, tempIds.length);
+      }
+      freeIds[numFreeIds] = id;
+      numFreeIds++;
+   }
+
+   /**
+    * version() returns a number that changes every time a vertex or edge is
+    * added or removed, or the weight of an edge is set.  Two calls that
+    * return the same number saw the same graph.
+    *
+    * Running time:  O(1).
+    */
+   public long version()
+   {
+      return version;
+   }
+
+   /**
+    * snapshot() returns an immutable, point-in-time view of the graph as a
+    * CsrGraph.  The last snapshot taken is remembered together with the
+    * version() it was taken at; as long as the graph has not changed since,
+    * that same snapshot is returned again without copying anything.
+    * Otherwise a new one is built by freeze() and remembered in its place.
+    *
+    * A snapshot never changes and never refers to the DListNodes of this
+    * graph, so a reader can run as long a query on it as it likes (a full
+    * Kruskal.minSpanTree(), say) while this graph goes on changing; the
+    * reader will never see a half-finished update or an invalid node.
+    *
+    * @return a CsrGraph holding the vertices and edges of this graph.
+    *
+    * Running time:  O(1) if the graph is unchanged since the last snapshot;
+    *    otherwise O(|V| + |E|).
+    */
+   public CsrGraph snapshot()
+   {
+      if (lastSnapshot == null || lastSnapshot.version() != version)
+      {
+         lastSnapshot = freeze();
+      }
+      return lastSnapshot;
+   }
+
+   /**
+    * freeze() returns an immutable compressed-sparse-row snapshot of the
+    * graph.  The vertices are numbered 0...|V| - 1 in the order they appear
+    * in vertexList.  A temporary array, indexed by vertex id, maps each
+    * internal vertex node to its number, so that the vertexTwo reference of
+    * every adjacency node can be turned into the number of the neighbor.
+    * The adjacency lists are then copied, one vertex after another, into a
+    * single neighbor array and a single weight array.  Later changes to this
+    * graph do not affect the returned CsrGraph.  Every call builds a new
+    * snapshot; see snapshot() for one that is shared between calls.
+    *
+    * @return a CsrGraph holding the vertices and edges of this graph.
+    *
+    * Running time:  O(|V| + |E|).
+    */
+   public CsrGraph freeze()
+   {
+      int numVertices = vertexList.length();
+      Object[] vertexOf = new Object[numVertices];
+      int[] offsets = new int[numVertices + 1];
+      int[] snapshotIds = new int[nextId];
+      DListNode currVertexNode = (DListNode) vertexList.front();
+
+      // First pass: number the vertices and count the slots each one
+      // needs.
+      for (int i = 0; i < numVertices; i++)
+      {
+         vertexOf[i] = ((Entry) currVertexNode.item()).key();
+         snapshotIds[((VertexNode) currVertexNode).vertexId()] = i;
+         offsets[i + 1] = offsets[i] +
+               ((VertexNode) currVertexNode).adjList().length();
+         currVertexNode = currVertexNode.nextUnchecked();
+      }
+
+      int[] neighbors = new int[offsets[numVertices]];
+      int[] weights = new int[offsets[numVertices]];
+
+      // Second pass: copy each adjacency list into its run of slots.
+      currVertexNode = (DListNode) vertexList.front();
+      for (int i = 0; i < numVertices; i++)
+      {
+         DListNode currAdjListNode =
+               (DListNode) ((VertexNode) currVertexNode).adjList().front();
+
+         for (int s = offsets[i]; s < offsets[i + 1]; s++)
+         {
+            neighbors[s] = snapshotIds[
+               ((EdgeNode) currAdjListNode).vertexTwo().vertexId()];
+            weights[s] = ((Entry) currAdjListNode.item()).weight();
+            currAdjListNode = currAdjListNode.nextUnchecked();
+         }
+         currVertexNode = currVertexNode.nextUnchecked();
+      }
+
+      return new CsrGraph(vertexOf, offsets, neighbors, weights,
+            edges.size(), version);
+   }
+
+   /**
+    * enableWeightIndex() starts keeping an index of the edges of the graph
+    * ordered by weight.  Every edge already in the graph is indexed now;
+    * from then on addEdge(), removeEdge(), removeVertex() and weight changes
+    * keep the index up to date as they go, at a cost of O(log |E|) expected
+    * each.  With the index on, forEachEdgeByWeight() and
+    * forEachEdgeInWeightRange() can walk the edges in weight order without
+    * sorting them.  Calling this when the index is already on does nothing.
+    *
+    * Running time:  O(|E| log |E|) expected if the index was off; otherwise
+    *    O(1).
+    */
+   public void enableWeightIndex()
+   {
+      if (weightIndex != null)
+      {
+         return;
+      }
+      weightIndex = new WeightIndex();
+
+      DListNode currVertexNode = (DListNode) vertexList.front();
+
+      while (currVertexNode.isValidNode())
+      {
+         DListNode currAdjListNode =
+               (DListNode) ((VertexNode) currVertexNode).adjList().front();
+
+         while (currAdjListNode.isValidNode())
+         {
+            Entry edgeEntry = (Entry) currAdjListNode.item();
+
+            // only the copy of an edge whose value is the hash table
+            // Entry is indexed, so that each edge is indexed once
+            if (edgeEntry.value() != null)
+            {
+               weightIndex.insert((VertexPair) edgeEntry.key(),
+                     edgeEntry.weight());
+            }
+            currAdjListNode = currAdjListNode.nextUnchecked();
+         }
+         currVertexNode = currVertexNode.nextUnchecked();
+      }
+   }
+
+   /**
+    * disableWeightIndex() stops keeping the weight index and frees it.
+    *
+    * Running time:  O(|E|).
+    */
+   public void disableWeightIndex()
+   {
+      if (weightIndex != null)
+      {
+         weightIndex.clear();
+         weightIndex = null;
+      }
+   }
+
+   /**
+    * isWeightIndexEnabled() returns true if the weight index is being kept.
+    *
+    * Running time:  O(1).
+    */
+   public boolean isWeightIndexEnabled()
+   {
+      return weightIndex != null;
+   }
+
+   /**
+    * forEachEdgeByWeight() hands every edge of the graph to "visitor", in
+    * ascending order of weight if "ascending" is true and in descending order
+    * otherwise.  Edges of equal weight come in the order they were indexed
+    * (reversed, when descending):  enableWeightIndex() indexes the edges it
+    * finds in adjacency-list order, and addEdge() indexes each new edge, and
+    * each edge it reweights, behind the edges already there.  The visitor
+    * must not change the graph.
+    *
+    * @param ascending true for lightest first, false for heaviest first.
+    * @param visitor the EdgeVisitor to call for each edge.
+    * @exception IllegalStateException if the weight index is not enabled.
+    *
+    * Running time:  O(|E|).
+    */
+   public void forEachEdgeByWeight(boolean ascending, EdgeVisitor visitor)
+   {
+      checkWeightIndex();
+      weightIndex.forEach(ascending, visitor);
+   }
+
+   /**
+    * forEachEdgeInWeightRange() hands every edge whose weight is at least
+    * "low" and at most "high" to "visitor", in ascending order of weight.
+    * The visitor must not change the graph.
+    *
+    * @param low the smallest weight to visit.
+    * @param high the largest weight to visit.
+    * @param visitor the EdgeVisitor to call for each edge.
+    * @exception IllegalStateException if the weight index is not enabled.
+    *
+    * Running time:  O(log |E| + k) expected, where k is the number of edges
+    *    visited.
+    */
+   public void forEachEdgeInWeightRange(int low, int high, EdgeVisitor visitor)
+   {
+      checkWeightIndex();
+      weightIndex.forEachInRange(low, high, visitor);
+   }
+
+   /**
+    * checkWeightIndex() throws an IllegalStateException if the weight index
+    * is not enabled.
+    */
+   private void checkWeightIndex()
+   {
+      if (weightIndex == null)
+      {
+         throw new IllegalStateException("weight index is not enabled; "
+               + "call enableWeightIndex() first");
+      }
+   }
+
+   /**
+    * enableEdgeFilter() puts a counting Bloom filter of the edges in front of
+    * the edges hash table, sized for "expectedEdges" edges (or the current
+    * number of edges, if that is more).  From then on isEdge(), weight(),
+    * removeEdge() and addEdge() first ask the filter, and when it rules an
+    * edge out (as it does for all but about 1% of absent edges) they skip
+    * making a VertexPair and probing the table.  Edge additions and removals
+    * keep the filter up to date, and if the graph grows to twice the size
+    * the filter was built for, the filter is rebuilt twice as large.  If the
+    * filter is already on, it is rebuilt at the new size.
+    *
+    * @param expectedEdges the number of edges the graph is expected to hold.
+    *
+    * Running time:  O(|V| + |E|).
+    */
+   public void enableEdgeFilter(int expectedEdges)
+   {
+      rebuildEdgeFilter(Math.max(expectedEdges, edges.size()));
+   }
+
+   /**
+    * disableEdgeFilter() stops keeping the edge filter and frees it.
+    *
+    * Running time:  O(1).
+    */
+   public void disableEdgeFilter()
+   {
+      edgeFilter = null;
+   }
+
+   /**
+    * isEdgeFilterEnabled() returns true if the edge filter is being kept.
+    *
+    * Running time:  O(1).
+    */
+   public boolean isEdgeFilterEnabled()
+   {
+      return edgeFilter != null;
+   }
+
+   /**
+    * rebuildEdgeFilter() replaces the edge filter by a new one sized for
+    * "expectedEdges" edges and holding every edge of the graph.
+    */
+   private void rebuildEdgeFilter(int expectedEdges)
+   {
+      edgeFilter = new EdgeFilter(expectedEdges);
+
+      DListNode currVertexNode = (DListNode) vertexList.front();
+
+      while (currVertexNode.isValidNode())
+      {
+         DListNode currAdjListNode =
+               (DListNode) ((VertexNode) currVertexNode).adjList().front();
+
+         while (currAdjListNode.isValidNode())
+         {
+            Entry edgeEntry = (Entry) currAdjListNode.item();
+
+            // only the copy of an edge whose value is the hash table
+            // Entry is counted, so that each edge is counted once
+            if (edgeEntry.value() != null)
+            {
+               VertexPair pair = (VertexPair) edgeEntry.key();
+               edgeFilter.add(pair.object1, pair.object2);
+            }
+            currAdjListNode = currAdjListNode.nextUnchecked();
+         }
+         currVertexNode = currVertexNode.nextUnchecked();
+      }
+   }
+
+   /**
+    * enableDegreeIndex() starts keeping the vertices of the graph in buckets
+    * by degree:  bucket d is a DList of the vertex nodes whose degree is d.
+    * Every change to a degree moves one vertex from its bucket to the
+    * neighboring one in O(1), so the index is kept up to date by addVertex(),
+    * removeVertex(), addEdge() and removeEdge() at little cost.  With the
+    * index on, maxDegree(), topKByDegree(), verticesWithDegree() and
+    * degreeHistogram() answer without looking at every vertex.  Calling this
+    * when the index is already on does nothing.
+    *
+    * Running time:  O(|V|) if the index was off; otherwise O(1).
+    */
+   public void enableDegreeIndex()
+   {
+      if (degreeBuckets != null)
+      {
+         return;
+      }
+      // bucket 0 always exists, so the queries can read it even before any
+      // vertex has been added
+      degreeBuckets = new DList[] {new DList()};
+      maxDegree = 0;
+
+      DListNode currVertexNode = (DListNode) vertexList.front();
+
+      while (currVertexNode.isValidNode())
+      {
+         addToDegreeBucket((VertexNode) currVertexNode);
+         currVertexNode = currVertexNode.nextUnchecked();
+      }
+   }
+
+   /**
+    * disableDegreeIndex() stops keeping the degree index and frees it.
+    *
+    * Running time:  O(|V|).
+    */
+   public void disableDegreeIndex()
+   {
+      if (degreeBuckets == null)
+      {
+         return;
+      }
+
+      DListNode currVertexNode = (DListNode) vertexList.front();
+
+      while (currVertexNode.isValidNode())
+      {
+         ((VertexNode) currVertexNode).setDegreeNode(null);
+         currVertexNode = currVertexNode.nextUnchecked();
+      }
+
+      degreeBuckets = null;
+      maxDegree = 0;
+   }
+
+   /**
+    * isDegreeIndexEnabled() returns true if the degree index is being kept.
+    *
+    * Running time:  O(1).
+    */
+   public boolean isDegreeIndexEnabled()
+   {
+      return degreeBuckets != null;
+   }
+
+   /**
+    * maxDegree() returns the largest degree of any vertex in the graph, or
+    * zero if the graph has no vertices.
+    *
+    * @exception IllegalStateException if the degree index is not enabled.
+    *
+    * Running time:  O(1).
+    */
+   public int maxDegree()
+   {
+      checkDegreeIndex();
+      return maxDegree;
+   }
+
+   /**
+    * topKByDegree() returns the k vertices of highest degree, highest first,
+    * or every vertex if the graph has fewer than k.  Among vertices of the
+    * same degree, the order is arbitrary.
+    *
+    * @param k the number of vertices wanted.
+    * @return an array of at most k application vertices.
+    * @exception IllegalStateException if the degree index is not enabled.
+    *
+    * Running time:  O(k + b), where b is the number of empty buckets between
+    *    maxDegree() and the lowest degree returned.
+    */
+   public Object[] topKByDegree(int k)
+   {
+      checkDegreeIndex();
+
+      Object[] hubs = new Object[Math.max(0, Math.min(k, vertexCount()))];
+      int numHubs = 0;
+
+      for (int d = maxDegree; d >= 0 && numHubs < hubs.length; d--)
+      {
+         DListNode currBucketNode = (DListNode) degreeBuckets[d].front();
+
+         while (currBucketNode.isValidNode() && numHubs < hubs.length)
+         {
+            hubs[numHubs] = bucketVertex(currBucketNode);
+            numHubs++;
+            currBucketNode = currBucketNode.nextUnchecked();
+         }
+      }
+
+      return hubs;
+   }
+
+   /**
+    * verticesWithDegree() returns every vertex whose degree is exactly "d".
+    *
+    * @param d a degree.
+    * @return an array of the application vertices of degree d; empty if
+    *    there are none.
+    * @exception IllegalStateException if the degree index is not enabled.
+    *
+    * Running time:  O(k), where k is the number of vertices returned.
+    */
+   public Object[] verticesWithDegree(int d)
+   {
+      checkDegreeIndex();
+
+      if (d < 0 || d > maxDegree)
+      {
+         return new Object[0];
+      }
+
+      Object[] matches = new Object[degreeBuckets[d].length()];
+
+      DListNode currBucketNode = (DListNode) degreeBuckets[d].front();
+
+      for (int i = 0; i < matches.length; i++)
+      {
+         matches[i] = bucketVertex(currBucketNode);
+         currBucketNode = currBucketNode.nextUnchecked();
+      }
+
+      return matches;
+   }
+
+   /**
+    * degreeHistogram() returns an array whose element d is the number of
+    * vertices of degree d, for every d from zero to maxDegree().
+    *
+    * @exception IllegalStateException if the degree index is not enabled.
+    *
+    * Running time:  O(maxDegree()).
+    */
+   public int[] degreeHistogram()
+   {
+      checkDegreeIndex();
+
+      int[] counts = new int[maxDegree + 1];
+
+      for (int d = 0; d <= maxDegree; d++)
+      {
+         counts[d] = degreeBuckets[d].length();
+      }
+      return counts;
+   }
+
+   /**
+    * updateDegree() moves the vertex node "vertexNode" to the bucket for its
+    * current degree, if the degree index is on.
+    */
+   private void updateDegree(VertexNode vertexNode)
+   {
+      if (degreeBuckets != null)
+      {
+         removeFromDegreeBucket(vertexNode);
+         addToDegreeBucket(vertexNode);
+      }
+   }
+
+   /**
+    * addToDegreeBucket() puts the vertex node "vertexNode" at the back of the
+    * bucket for its degree.  If the array of buckets is too short, it is at
+    * least doubled, and every new slot gets an empty bucket so that no
+    * bucket at or below maxDegree is ever null.
+    */
+   private void addToDegreeBucket(VertexNode vertexNode)
+   {
+      int degree = vertexNode.adjList().length();
+
+      if (degree >= degreeBuckets.length)
+      {
+         DList[] tempBuckets = degreeBuckets;
+         degreeBuckets = new DList[Math.max(degree + 1, 
+               Math.max(8, tempBuckets.length * 2))];
+         System.arraycopy(tempBuckets, 0, degreeBuckets, 0, 
+               tempBuckets.length);
+
+         for (int d = tempBuckets.length; d < degreeBuckets.length; d++)
+         {
+            degreeBuckets[d] = new DList();
+         }
+      }
+
+      degreeBuckets[degree].insertBack(vertexNode);
+      vertexNode.setDegreeNode((DListNode) degreeBuckets[degree].back());
+
+      if (degree > maxDegree)
+      {
+         maxDegree = degree;
+      }
+   }
+
+   /**
+    * removeFromDegreeBucket() takes the vertex node "vertexNode" out of its
+    * degree bucket, and lowers maxDegree past any buckets left empty.
+    */
+   private void removeFromDegreeBucket(VertexNode vertexNode)
+   {
+      try
+      {
+         vertexNode.degreeNode().remove();
+      }
+      catch (InvalidNodeException e)
+      {
+         System.out.println(e);
+      }
+      vertexNode.setDegreeNode(null);
+
+      while (maxDegree > 0 && degreeBuckets[maxDegree].isEmpty())
+      {
+         maxDegree--;
+      }
+   }
+
+   /**
+    * bucketVertex() returns the application vertex held by the vertex node
+    * that the degree bucket node "bucketNode" refers to.
+    */
+   private static Object bucketVertex(DListNode bucketNode)
+   {
+      return ((Entry) ((DListNode) bucketNode.item()).item()).key();
+   }
+
+   /**
+    * checkDegreeIndex() throws an IllegalStateException if the degree index
+    * is not enabled.
+    */
+   private void checkDegreeIndex()
+   {
+      if (degreeBuckets == null)
+      {
+         throw new IllegalStateException("degree index is not enabled; "
+               + "call enableDegreeIndex() first");
+      }
+   }
+
 }
@@ -0,0 +1,281 @@
+/* WeightIndex.java */
+
+package graph;
+
+/**
+ * A WeightIndex keeps the edges of a WUGraph sorted by weight so that they
+ * can be walked in weight order, or just those in a range of weights, without
+ * sorting.  It is a treap:  a binary search tree ordered by (weight, serial),
+ * where serial is a number unique to each insertion that breaks ties between
+ * equal weights, and where each node also carries a random priority that is
+ * kept in heap order.  The random priorities keep the expected depth of the
+ * tree O(log n) whatever order the edges arrive in.
+ *
+ * Every indexed edge's VertexPair references its Node, so the edge can be
+ * removed without searching for it by endpoint.
+ */
+
+class WeightIndex {
+
+   /**
+    * A Node holds one edge of the index.
+    */
+   static final class Node {
+      final int weight;
+      final long serial;
+      final int priority;
+      final VertexPair edge;
+      Node left;
+      Node right;
+
+      Node(int weight, long serial, int priority, VertexPair edge)
+      {
+         this.weight = weight;
+         this.serial = serial;
+         this.priority = priority;
+         this.edge = edge;
+      }
+   }
+
+   private Node root;
+   private int size;
+   private long nextSerial;
+   private int seed = 0x2545F491;    // xorshift state for priorities
+
+   /**
+    * size() returns the number of edges in the index.
+    */
+   int size()
+   {
+      return size;
+   }
+
+   /**
+    * insert() adds the edge "edge" with weight "weight" to the index and
+    * records its node in edge.indexNode.
+    *
+    * Running time:  O(log n) expected.
+    */
+   void insert(VertexPair edge, int weight)
+   {
+      seed ^= seed << 13;
+      seed ^= seed >>> 17;
+      seed ^= seed << 5;
+
+      Node node = new Node(weight, nextSerial, seed, edge);
+      nextSerial++;
+      root = insert(root, node);
+      edge.indexNode = node;
+      size++;
+   }
+
+   /**
+    * remove() takes the edge "edge" out of the index.
+    *
+    * Running time:  O(log n) expected.
+    */
+   void remove(VertexPair edge)
+   {
+      root = remove(root, edge.indexNode);
+      edge.indexNode = null;
+      size--;
+   }
+
+   /**
+    * clear() empties the index, unhooking every edge from its node.
+    *
+    * Running time:  O(n).
+    */
+   void clear()
+   {
+      clear(root);
+      root = null;
+      size = 0;
+   }
+
+   /**
+    * forEach() hands every edge to "visitor", in ascending weight order if
+    * "ascending" is true and descending order otherwise.  Edges of equal
+    * weight are visited in the order they were indexed (reversed, when
+    * descending).
+    *
+    * Running time:  O(n).
+    */
+   void forEach(boolean ascending, EdgeVisitor visitor)
+   {
+      if (ascending)
+      {
+         ascend(root, visitor);
+      }
+      else
+      {
+         descend(root, visitor);
+      }
+   }
+
+   /**
+    * forEachInRange() hands every edge whose weight is between "low" and
+    * "high" inclusive to "visitor", in ascending weight order.  Subtrees that
+    * lie wholly outside the range are skipped.
+    *
+    * Running time:  O(log n + k) expected, where k is the number of edges
+    *    visited.
+    */
+   void forEachInRange(int low, int high, EdgeVisitor visitor)
+   {
+      range(root, low, high, visitor);
+   }
+
+   /**
+    * compare() orders two nodes by weight, then by serial.
+    */
+   private static int compare(Node a, Node b)
+   {
+      if (a.weight != b.weight)
+      {
+         return a.weight < b.weight ? -1 : 1;
+      }
+      if (a.serial != b.serial)
+      {
+         return a.serial < b.serial ? -1 : 1;
+      }
+      return 0;
+   }
+
+   private static Node insert(Node tree, Node node)
+   {
+      if (tree == null)
+      {
+         return node;
+      }
+
+      if (compare(node, tree) < 0)
+      {
+         tree.left = insert(tree.left, node);
+         if (tree.left.priority > tree.priority)
+         {
+            tree = rotateRight(tree);
+         }
+      }
+      else
+      {
+         tree.right = insert(tree.right, node);
+         if (tree.right.priority > tree.priority)
+         {
+            tree = rotateLeft(tree);
+         }
+      }
+      return tree;
+   }
+
+   private static Node remove(Node tree, Node node)
+   {
+      if (tree == null)
+      {
+         return null;
+      }
+
+      int cmp = compare(node, tree);
+
+      if (cmp < 0)
+      {
+         tree.left = remove(tree.left, node);
+      }
+      else if (cmp > 0)
+      {
+         tree.right = remove(tree.right, node);
+      }
+      else
+      {
+         // Rotate the node down until it has at most one child, then splice
+         // it out.
+         if (tree.left == null)
+         {
+            return tree.right;
+         }
+         if (tree.right == null)
+         {
+            return tree.left;
+         }
+         if (tree.left.priority > tree.right.priority)
+         {
+            tree = rotateRight(tree);
+            tree.right = remove(tree.right, node);
+         }
+         else
+         {
+            tree = rotateLeft(tree);
+            tree.left = remove(tree.left, node);
+         }
+      }
+      return tree;
+   }
+
+   private static Node rotateRight(Node tree)
+   {
+      Node newRoot = tree.left;
+      tree.left = newRoot.right;
+      newRoot.right = tree;
+      return newRoot;
+   }
+
+   private static Node rotateLeft(Node tree)
+   {
+      Node newRoot = tree.right;
+      tree.right = newRoot.left;
+      newRoot.left = tree;
+      return newRoot;
+   }
+
+   private static void clear(Node tree)
+   {
+      if (tree != null)
+      {
+         clear(tree.left);
+         tree.edge.indexNode = null;
+         clear(tree.right);
+      }
+   }
+
+   private static void ascend(Node tree, EdgeVisitor visitor)
+   {
+      if (tree != null)
+      {
+         ascend(tree.left, visitor);
+         visitor.visit(tree.edge.object1, tree.edge.object2, tree.weight);
+         ascend(tree.right, visitor);
+      }
+   }
+
+   private static void descend(Node tree, EdgeVisitor visitor)
+   {
+      if (tree != null)
+      {
+         descend(tree.right, visitor);
+         visitor.visit(tree.edge.object1, tree.edge.object2, tree.weight);
+         descend(tree.left, visitor);
+      }
+   }
+
+   private static void range(Node tree, int low, int high,
+         EdgeVisitor visitor)
+   {
+      if (tree == null)
+      {
+         return;
+      }
+      if (tree.weight >= low)
+      {
+         range(tree.left, low, high, visitor);
+      }
+      if (tree.weight >= low && tree.weight <= high)
+      {
+         visitor.visit(tree.edge.object1, tree.edge.object2, tree.weight);
+      }
+      if (tree.weight <= high)
+      {
+         range(tree.right, low, high, visitor);
+      }
+   }
+
+}
@@ -0,0 +1,275 @@
+package hash;
+/* BucketTree.java */
+
+import list.*;
+
+/**
+ *  A BucketTree indexes the chain of one bucket of a HashTableChained once
+ *  the chain has grown too long to scan.  It is an AVL tree of the chain's
+ *  DListNodes, ordered by the HashStrategy code of each key and then, for
+ *  keys with equal codes that are Comparable to each other, by compareTo().
+ *  The DList chain itself is left as it is; the tree only makes it faster
+ *  to find a node in it.
+ *
+ *  Keys in one bucket share only the low bits of their codes, so they can
+ *  nearly always be told apart by the full code, and a search takes
+ *  O(log n).  Only keys whose full codes are equal and that are not
+ *  Comparable force a search of both subtrees.
+ *
+ *  Several entries with the same key may be indexed; equal keys go to the
+ *  right.
+ **/
+
+class BucketTree {
+
+   /**
+    *  A Node indexes one node of the chain.
+    **/
+   private static final class Node {
+      final int hash;
+      final Object key;
+      final DListNode chainNode;
+      Node left;
+      Node right;
+      int height = 1;
+
+      Node(int hash, Object key, DListNode chainNode)
+      {
+         this.hash = hash;
+         this.key = key;
+         this.chainNode = chainNode;
+      }
+   }
+
+   private Node root;
+   private boolean removed;     // set by remove() when the node is found
+
+   /**
+    *  height() returns the height of the tree:  the most nodes a search
+    *  compares against before it finds its key or falls off.
+    **/
+
+   int height()
+   {
+      return height(root);
+   }
+
+   /**
+    *  insert() indexes the chain node "chainNode", whose key is "key" with
+    *  code "hash".
+    **/
+
+   void insert(int hash, Object key, DListNode chainNode)
+   {
+      root = insert(root, new Node(hash, key, chainNode));
+   }
+
+   /**
+    *  find() returns the chain node of an entry with key "key", whose code
+    *  is "hash", or null if none is indexed.
+    **/
+
+   DListNode find(int hash, Object key)
+   {
+      return find(root, hash, key);
+   }
+
+   /**
+    *  remove() drops the chain node "chainNode", whose key has code "hash",
+    *  from the index.  Nothing happens if it is not indexed.
+    **/
+
+   void remove(int hash, DListNode chainNode)
+   {
+      removed = false;
+      root = remove(root, hash, ((Entry) chainNode.item()).key(), chainNode);
+   }
+
+   /**
+    *  compare() orders a key against a node:  by code, then by compareTo()
+    *  if the keys are Comparable and of the same class.  It returns zero if
+    *  the two can't be ordered.
+    **/
+
+   @SuppressWarnings("unchecked")
+   private static int compare(int hash, Object key, Node node)
+   {
+      if (hash != node.hash)
+      {
+         return hash < node.hash ? -1 : 1;
+      }
+      if (key instanceof Comparable && key.getClass() == node.key.getClass())
+      {
+         return ((Comparable<Object>) key).compareTo(node.key);
+      }
+      return 0;
+   }
+
+   private static DListNode find(Node tree, int hash, Object key)
+   {
+      while (tree != null)
+      {
+         int cmp = compare(hash, key, tree);
+
+         if (cmp < 0)
+         {
+            tree = tree.left;
+         }
+         else if (cmp > 0)
+         {
+            tree = tree.right;
+         }
+         else
+         {
+            if (key.equals(tree.key))
+            {
+               return tree.chainNode;
+            }
+
+            // Can't tell which side the key is on; look on both.
+            DListNode found = find(tree.left, hash, key);
+
+            if (found != null)
+            {
+               return found;
+            }
+            tree = tree.right;
+         }
+      }
+      return null;
+   }
+
+   private static Node insert(Node tree, Node node)
+   {
+      if (tree == null)
+      {
+         return node;
+      }
+
+      if (compare(node.hash, node.key, tree) < 0)
+      {
+         tree.left = insert(tree.left, node);
+      }
+      else
+      {
+         tree.right = insert(tree.right, node);
+      }
+      return balance(tree);
+   }
+
+   private Node remove(Node tree, int hash, Object key, DListNode chainNode)
+   {
+      if (tree == null)
+      {
+         return null;
+      }
+
+      if (tree.chainNode == chainNode)
+      {
+         removed = true;
+
+         if (tree.left == null)
+         {
+            return tree.right;
+         }
+         if (tree.right == null)
+         {
+            return tree.left;
+         }
+
+         // Replace the node by the smallest node of its right subtree.
+         Node successor = tree.right;
+
+         while (successor.left != null)
+         {
+            successor = successor.left;
+         }
+         successor.right = removeSmallest(tree.right);
+         successor.left = tree.left;
+         return balance(successor);
+      }
+
+      int cmp = compare(hash, key, tree);
+
+      if (cmp <= 0)
+      {
+         tree.left = remove(tree.left, hash, key, chainNode);
+      }
+      if (cmp > 0 || (cmp == 0 && !removed))
+      {
+         tree.right = remove(tree.right, hash, key, chainNode);
+      }
+      return balance(tree);
+   }
+
+   private static Node removeSmallest(Node tree)
+   {
+      if (tree.left == null)
+      {
+         return tree.right;
+      }
+      tree.left = removeSmallest(tree.left);
+      return balance(tree);
+   }
+
+   private static int height(Node tree)
+   {
+      return tree == null ? 0 : tree.height;
+   }
+
+   /**
+    *  balance() restores the AVL property at "tree", whose subtrees are
+    *  balanced and differ in height by at most two, and returns the new
+    *  root of the subtree.
+    **/
+
+   private static Node balance(Node tree)
+   {
+      int skew = height(tree.left) - height(tree.right);
+
+      if (skew > 1)
+      {
+         if (height(tree.left.left) < height(tree.left.right))
+         {
+            tree.left = rotateLeft(tree.left);
+         }
+         tree = rotateRight(tree);
+      }
+      else if (skew < -1)
+      {
+         if (height(tree.right.right) < height(tree.right.left))
+         {
+            tree.right = rotateRight(tree.right);
+         }
+         tree = rotateLeft(tree);
+      }
+      else
+      {
+         tree.height = 1 + Math.max(height(tree.left), height(tree.right));
+      }
+      return tree;
+   }
+
+   private static Node rotateRight(Node tree)
+   {
+      Node newRoot = tree.left;
+      tree.left = newRoot.right;
+      newRoot.right = tree;
+      tree.height = 1 + Math.max(height(tree.left), height(tree.right));
+      newRoot.height = 1 + Math.max(height(newRoot.left),
+            height(newRoot.right));
+      return newRoot;
+   }
+
+   private static Node rotateLeft(Node tree)
+   {
+      Node newRoot = tree.right;
+      tree.right = newRoot.left;
+      newRoot.left = tree;
+      tree.height = 1 + Math.max(height(tree.left), height(tree.right));
+      newRoot.height = 1 + Math.max(height(newRoot.left),
+            height(newRoot.right));
+      return newRoot;
+   }
+
+}
@@ -0,0 +1,310 @@
+package hash;
+/* ConcurrentHashTableChained.java */
+
+
+import graph.Graph;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  ConcurrentHashTableChained implements a Dictionary that many threads can
+ *  use at once.  The table is split into segments, each an ordinary
+ *  HashTableChained guarded by its own read/write lock.  A key's segment is
+ *  chosen by the high bits of its HashStrategy code, and its bucket within
+ *  the segment by the low bits, so the two choices are independent.  So:
+ *
+ *    - find() read-locks one segment, so any number of finds run at once,
+ *      even on the same segment.
+ *    - insert() and remove() write-lock one segment, so writers to
+ *      different segments run in parallel.
+ *    - Each segment grows and shrinks by itself under its own write lock.
+ *      A resize only blocks the threads using that one segment, never the
+ *      whole table; and with setIncrementalResize(true) it is spread over
+ *      later writes to the segment as well.
+ *    - makeEmpty() write-locks every segment, lowest first.
+ *
+ *  Operations on one key are atomic, but nothing locks several keys
+ *  together; callers that need that must lock for themselves.
+ *
+ *  This table is meant for callers that share a dictionary between threads
+ *  and need nothing more than that.  graph.ConcurrentWUGraph does not use
+ *  it:  every change to that graph touches a vertex's entry, its adjacency
+ *  list and the entries of its edges together, so it must hold its own
+ *  stripe lock over all of them anyway.  Keeping the tables in the stripes
+ *  it already locks makes the stripe lock do the segment lock's job.  Using
+ *  this table there would take a second lock on every query and gain no
+ *  parallelism.
+ **/
+
+public class ConcurrentHashTableChained implements Graph {
+
+   private static final int DEFAULT_SEGMENTS = 16;
+   private static final HashStrategy DEFAULT_STRATEGY =
+         new MixingHashStrategy();
+
+   private final Segment[] segments;
+   private final int segmentShift;    // code >>> segmentShift --> segment
+   private final HashStrategy strategy;
+   private final AtomicInteger numEntries = new AtomicInteger();
+
+   /**
+    *  A Segment is one lock and the HashTableChained it guards.
+    **/
+   private static final class Segment {
+      final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+      final HashTableChained table;
+
+      Segment(int sizeEstimate, HashStrategy strategy)
+      {
+         table = new HashTableChained(sizeEstimate, strategy);
+      }
+   }
+
+   /**
+    *  Construct a new empty table with a default size and number of
+    *  segments.
+    **/
+
+   public ConcurrentHashTableChained()
+   {
+      this(0, DEFAULT_SEGMENTS, DEFAULT_STRATEGY);
+   }
+
+   /**
+    *  Construct a new empty table intended to hold roughly sizeEstimate
+    *  entries, with "concurrencyLevel" rounded up to a power of two segments
+    *  (roughly that many writers can work on the table at once), whose keys
+    *  are hashed by "strategy".
+    *
+    *  @param sizeEstimate the expected number of entries.
+    *  @param concurrencyLevel the expected number of concurrent writers.
+    *  @param strategy the HashStrategy of every segment.
+    **/
+
+   public ConcurrentHashTableChained(int sizeEstimate, int concurrencyLevel,
+         HashStrategy strategy)
+   {
+      int numSegments = 1;
+      int shift = 32;
+
+      while (numSegments < concurrencyLevel && numSegments < (1 << 16))
+      {
+         numSegments = numSegments * 2;
+         shift--;
+      }
+
+      this.strategy = strategy;
+      segments = new Segment[numSegments];
+      segmentShift = shift;
+
+      for (int i = 0; i < numSegments; i++)
+      {
+         segments[i] = new Segment(sizeEstimate / numSegments + 1, strategy);
+      }
+   }
+
+   /**
+    *  segmentFor() returns the segment of "key":  the one picked by the top
+    *  bits of its code.
+    **/
+
+   private Segment segmentFor(Object key)
+   {
+      if (segmentShift == 32)
+      {
+         return segments[0];
+      }
+      return segments[strategy.hash(key) >>> segmentShift];
+   }
+
+   /**
+    *  setIncrementalResize() turns incremental resizing on or off in every
+    *  segment (see HashTableChained.setIncrementalResize()).
+    *
+    *  @param on true to resize incrementally.
+    **/
+
+   public void setIncrementalResize(boolean on)
+   {
+      for (int i = 0; i < segments.length; i++)
+      {
+         segments[i].lock.writeLock().lock();
+
+         try
+         {
+            segments[i].table.setIncrementalResize(on);
+         }
+         finally
+         {
+            segments[i].lock.writeLock().unlock();
+         }
+      }
+   }
+
+   /**
+    *  ensureCapacity() makes room for "expectedEntries" entries in all, split
+    *  evenly over the segments.  Each segment is write-locked in turn while
+    *  it grows.
+    *
+    *  @param expectedEntries the number of entries the table should hold.
+    **/
+
+   public void ensureCapacity(int expectedEntries)
+   {
+      for (int i = 0; i < segments.length; i++)
+      {
+         segments[i].lock.writeLock().lock();
+
+         try
+         {
+            segments[i].table.ensureCapacity(
+                  expectedEntries / segments.length + 1);
+         }
+         finally
+         {
+            segments[i].lock.writeLock().unlock();
+         }
+      }
+   }
+
+   /**
+    *  Returns the number of entries stored in the dictionary.  Entries with
+    *  the same key (or even the same key and value) each still count as
+    *  a separate entry.  While other threads insert or remove, the count is
+    *  only a recent value.
+    *  @return number of entries in the dictionary.
+    **/
+
+   public int size()
+   {
+      return numEntries.get();
+   }
+
+   /**
+    *  Tests if the dictionary is empty.
+    *
+    *  @return true if the dictionary has no entries; false otherwise.
+    **/
+
+   public boolean isEmpty()
+   {
+      return numEntries.get() == 0;
+   }
+
+   /**
+    *  Create a new Entry object referencing the input key and associated value,
+    *  and insert the entry into the dictionary.  Return a reference to the new
+    *  entry.  Multiple entries with the same key (or even the same key and
+    *  value) can coexist in the dictionary.  The key's segment is
+    *  write-locked.
+    *
+    *  @param key the key by which the entry can be retrieved.
+    *  @param value an arbitrary object.
+    *  @return an entry containing the key and value.
+    **/
+
+   public Entry insert(Object key, Object value)
+   {
+      Segment segment = segmentFor(key);
+      segment.lock.writeLock().lock();
+
+      try
+      {
+         Entry newEntry = segment.table.insert(key, value);
+         numEntries.incrementAndGet();
+         return newEntry;
+      }
+      finally
+      {
+         segment.lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    *  Search for an entry with the specified key.  If such an entry is found,
+    *  return it; otherwise return null.  If several entries have the specified
+    *  key, choose one arbitrarily and return it.  The key's segment is
+    *  read-locked.
+    *
+    *  @param key the search key.
+    *  @return an entry containing the key and an associated value, or null if
+    *          no entry contains the specified key.
+    **/
+
+   public Entry find(Object key)
+   {
+      Segment segment = segmentFor(key);
+      segment.lock.readLock().lock();
+
+      try
+      {
+         return segment.table.find(key);
+      }
+      finally
+      {
+         segment.lock.readLock().unlock();
+      }
+   }
+
+   /**
+    *  Remove an entry with the specified key.  If such an entry is found,
+    *  remove it from the table and return it; otherwise return null.
+    *  If several entries have the specified key, choose one arbitrarily, then
+    *  remove and return it.  The key's segment is write-locked.
+    *
+    *  @param key the search key.
+    *  @return an entry containing the key and an associated value, or null if
+    *          no entry contains the specified key.
+    */
+
+   public Entry remove(Object key)
+   {
+      Segment segment = segmentFor(key);
+      segment.lock.writeLock().lock();
+
+      try
+      {
+         Entry removed = segment.table.remove(key);
+
+         if (removed != null)
+         {
+            numEntries.decrementAndGet();
+         }
+         return removed;
+      }
+      finally
+      {
+         segment.lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    *  Remove all entries from the dictionary.  Every segment is write-locked,
+    *  lowest first, so no thread sees the table half emptied.
+    */
+
+   public void makeEmpty()
+   {
+      for (int i = 0; i < segments.length; i++)
+      {
+         segments[i].lock.writeLock().lock();
+      }
+
+      try
+      {
+         for (int i = 0; i < segments.length; i++)
+         {
+            numEntries.addAndGet(-segments[i].table.size());
+            segments[i].table.makeEmpty();
+         }
+      }
+      finally
+      {
+         for (int i = segments.length - 1; i >= 0; i--)
+         {
+            segments[i].lock.writeLock().unlock();
+         }
+      }
+   }
+
+}
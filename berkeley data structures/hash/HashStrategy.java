@@ -0,0 +1,23 @@
+package hash;
+/* HashStrategy.java */
+
+/**
+ *  A HashStrategy turns a key into the int hash code a hash table uses to
+ *  pick the key's bucket (or slot).  HashTableChained and HashTableOpen keep
+ *  only the low bits of the code (their sizes are powers of two), so a
+ *  strategy must spread the information of the whole key into those bits.
+ *  Two keys that are equals() must be given the same code.
+ **/
+
+public interface HashStrategy {
+
+  /**
+   *  hash() returns the hash code of "key".
+   *
+   *  @param key a key; never null.
+   *  @return the hash code of the key.
+   **/
+
+  public int hash(Object key);
+
+}
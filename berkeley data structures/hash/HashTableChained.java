@@ -10,9 +10,15 @@ import list.*;
  *  All objects used as keys must have a valid hashCode() method, which is
  *  used to determine which bucket of the hash table an entry is stored in.
  *  Each object's hashCode() is presumed to return an int between
- *  Integer.MIN_VALUE and Integer.MAX_VALUE.  The HashTableChained class
- *  implements only the compression function, which maps the hash code to
- *  a bucket in the table's range.
+ *  Integer.MIN_VALUE and Integer.MAX_VALUE.  A HashStrategy (by default an
+ *  unseeded MixingHashStrategy) mixes the hashCode() into a well-scattered
+ *  code, and the compression function keeps its low bits; the number of
+ *  buckets is always a power of two.
+ *
+ *  A bucket whose chain grows past TREEIFY_THRESHOLD entries is also indexed
+ *  by a BucketTree, a balanced tree ordered by code and then key, so even a
+ *  bucket that many keys collide in is searched in O(log n).  The tree is
+ *  dropped again once the chain shrinks below UNTREEIFY_THRESHOLD.
  *
  *  DO NOT CHANGE ANY PROTOTYPES IN THIS FILE.
  **/
@@ -23,60 +29,446 @@ public class HashTableChained implements Graph {
     *  Place any data fields here.
     **/
 
+   private static final HashStrategy DEFAULT_STRATEGY = 
+         new MixingHashStrategy();
+
    private DList[] hashTable;
+   private final HashStrategy strategy;
 
    private int numEntries = 0;
    private int numBuckets;
-   private double loadFactor = 0.85;
+   private double loadFactor = 0.85;     // grow when the load passes this
+   private double minLoadFactor = 0.2;   // shrink when the load drops below
+   private int minBuckets;               // never shrink below this
+
+   // Incremental resizing.  While a resize is under way, oldTable holds the
+   // buckets not yet moved into hashTable; buckets below nextOldBucket have
+   // been moved (and set to null).  Buckets of hashTable may be null while
+   // a resize is under way; they are created when first inserted into.
+   private static final int BUCKETS_PER_STEP = 2;
+   private boolean incremental = false;
+   private DList[] oldTable;
+   private int oldBuckets;
+   private int nextOldBucket;
+
+   // Treeified buckets.  trees[i] indexes the chain hashTable[i] if it is
+   // long; trees itself is null until some bucket needs a tree.  oldTrees
+   // does the same for oldTable during an incremental resize.  The two
+   // thresholds differ so that a chain hovering around one length does not
+   // build and drop its tree over and over.
+   static final int TREEIFY_THRESHOLD = 8;
+   static final int UNTREEIFY_THRESHOLD = 6;
+   private BucketTree[] trees;
+   private BucketTree[] oldTrees;
+   private int numTrees;         // trees in trees and in the unmoved part
+                                 // of oldTrees
+
+   // Metrics.  METRICS is a compile-time switch:  when it is false, javac
+   // drops every metrics statement from the hot paths.  When it is true,
+   // counting still costs nothing but a field test until enabled by
+   // setMetricsEnabled().
+   public static final boolean METRICS = true;
+   private boolean metricsOn = false;
+   private long probes;          // entries compared by every findNode()
+   private long finds;
+   private long findProbes;
+   private long removes;
+   private long removeProbes;
+   private long resizes;
+   private long resizeNanos;
+
 
+   /**
+    *  resizeTable() doubles the number of buckets if the load factor has
+    *  passed the maximum (0.85 unless set by setLoadFactors()).  Otherwise
+    *  the table is left alone.  In incremental mode, nothing is done while
+    *  an earlier resize is still being carried out.
+    *
+    *  insert() now does this by itself, so callers no longer need to.
+    **/
 
    public void resizeTable(){
 
-      if (((double) numEntries/(double) numBuckets) > 0.85)
+      if (oldTable != null)
+      {
+         return;
+      }
+
+      if (((double) numEntries/(double) numBuckets) > loadFactor)
+      {
+         rehash(numBuckets * 2);
+      }
+   }
+
+   /**
+    *  shrinkTable() halves the number of buckets if the load factor has
+    *  dropped below the minimum (0.2 unless set by setLoadFactors()), but
+    *  never to fewer buckets than the table was constructed with.  remove()
+    *  calls this after every removal, so a table that has had most of its
+    *  entries removed gives back the memory of its empty buckets.
+    **/
+
+   private void shrinkTable()
+   {
+      if (oldTable != null || numBuckets <= minBuckets)
+      {
+         return;
+      }
+
+      if (((double) numEntries/(double) numBuckets) < minLoadFactor)
+      {
+         rehash(Math.max(minBuckets, numBuckets / 2));
+      }
+   }
+
+   /**
+    *  setLoadFactors() sets the load factors (entries per bucket) at which
+    *  the table grows and shrinks.  The table doubles when an insert() pushes
+    *  the load past "max", and halves when a remove() drops it below "min".
+    *  Since doubling halves the load and halving doubles it, "min" must be
+    *  less than half of "max", so that one resize never sets off the other.
+    *  A "min" of zero turns shrinking off.
+    *
+    *  @param min the load below which the table shrinks; 0 for never.
+    *  @param max the load above which the table grows.
+    *  @exception IllegalArgumentException if max is not positive, or min is
+    *     negative or not less than max / 2.
+    **/
+
+   public void setLoadFactors(double min, double max)
+   {
+      if (!(max > 0) || !(min >= 0) || !(min < max / 2))
+      {
+         throw new IllegalArgumentException("load factors must satisfy "
+               + "0 <= min < max / 2; got min " + min + ", max " + max);
+      }
+      minLoadFactor = min;
+      loadFactor = max;
+   }
+
+   /**
+    *  setIncrementalResize() turns incremental resizing on or off.  When it
+    *  is off (the default), a resize moves every entry into the new bucket
+    *  array at once, which takes time proportional to the size of the table.
+    *  When it is on, a resize only allocates the new bucket array; the old
+    *  one is kept beside it, and every insert() and remove() afterward moves
+    *  a couple of old buckets across until none are left.  find() and
+    *  remove() look in both arrays until then.  No single operation ever
+    *  pays for the whole rehash, at the cost of a second lookup for keys
+    *  that have not moved yet.
+    *
+    *  find() never moves buckets, so several threads may still call find()
+    *  at once on a table no one is changing.  Turning the mode off finishes
+    *  any resize under way.
+    *
+    *  @param on true to resize incrementally.
+    **/
+
+   public void setIncrementalResize(boolean on)
+   {
+      if (!on)
+      {
+         finishMigration();
+      }
+      incremental = on;
+   }
+
+   /**
+    *  isResizing() returns true if an incremental resize is under way.
+    **/
+
+   public boolean isResizing()
+   {
+      return oldTable != null;
+   }
+
+   /**
+    *  ensureCapacity() makes room for "expectedEntries" entries in all, so
+    *  that inserting up to that many entries will not push the load factor
+    *  past 0.85.  If the table is already big enough, nothing happens;
+    *  otherwise every entry is rehashed once into the larger table.  Bulk
+    *  loaders call this before inserting many entries, so the table does not
+    *  double over and over on the way up.
+    *
+    *  @param expectedEntries the number of entries the table should hold.
+    **/
+
+   public void ensureCapacity(int expectedEntries)
+   {
+      int neededBuckets = bucketsFor(expectedEntries / loadFactor);
+
+      if (neededBuckets > numBuckets)
       {
+         rehash(neededBuckets);
+      }
+   }
 
-         DList[] tempTable = hashTable;
-         DListNode currNode;
-         Entry currEntry;
-         numBuckets = numBuckets * 2;
-         hashTable = new DList[numBuckets];
+   /**
+    *  rehash() moves every entry into a new table of "newBuckets" buckets.
+    *  Any incremental resize under way is finished first.  In incremental
+    *  mode, the entries are then left where they are and moved a few buckets
+    *  at a time by later calls to migrateStep().
+    **/
 
-         try
+   private void rehash(int newBuckets)
+   {
+      finishMigration();
+
+      long startNanos = (METRICS && metricsOn) ? System.nanoTime() : 0;
+      DList[] tempTable = hashTable;
+      int tempBuckets = numBuckets;
+      numBuckets = newBuckets;
+      hashTable = new DList[numBuckets];
+
+      BucketTree[] tempTrees = trees;
+      trees = null;
+
+      if (incremental)
+      {
+         oldTable = tempTable;
+         oldTrees = tempTrees;
+         oldBuckets = tempBuckets;
+         nextOldBucket = 0;
+      }
+      else
+      {
+         numTrees = 0;    // moveBucket() builds the trees the new table needs
+         for (int i=0;i<tempTable.length; i++)
          {
-            for (int i=0; i<hashTable.length; i++)
-            {
-               hashTable[i] = new DList();
-            }
+            moveBucket(tempTable[i], i, tempBuckets);
+         }
+      }
 
-            for (int i=0;i<tempTable.length; i++)
-            {
-               currNode = (DListNode)tempTable[i].front();
-
-               for (int j = 0;j < tempTable[i].length(); j++)
-               {
-                  currEntry = (Entry)currNode.item();
-                  insert(currEntry.key, currEntry.value); 
-                  currNode = ((DListNode)currNode.next());
-               }
-            }
+      if (METRICS && metricsOn)
+      {
+         resizes++;
+         resizeNanos += System.nanoTime() - startNanos;
+      }
+   }
+
+   /**
+    *  migrateStep() moves the next BUCKETS_PER_STEP buckets of an incremental
+    *  resize under way into the new bucket array.  After a doubling, buckets
+    *  are moved at twice the rate entries can be inserted, so the resize is
+    *  finished before the new array fills up enough to need another one.
+    *  After a halving that is not so: the new array starts out near the
+    *  maximum load, and inserts can push it past before every old bucket has
+    *  moved.  resizeTable() then defers the new resize, leaving the table
+    *  over the maximum load until this resize finishes; the insert() that
+    *  moves the last old bucket then starts the deferred one.
+    **/
+
+   private void migrateStep()
+   {
+      if (oldTable == null)
+      {
+         return;
+      }
+
+      long startNanos = (METRICS && metricsOn) ? System.nanoTime() : 0;
+
+      for (int i = 0; i < BUCKETS_PER_STEP && nextOldBucket < oldBuckets; i++)
+      {
+         moveBucket(oldTable[nextOldBucket], nextOldBucket, oldBuckets);
+         oldTable[nextOldBucket] = null;
+         if (oldTrees != null && oldTrees[nextOldBucket] != null)
+         {
+            oldTrees[nextOldBucket] = null;
+            numTrees--;
          }
-         catch(InvalidNodeException e)
+         nextOldBucket++;
+      }
+
+      if (METRICS && metricsOn)
+      {
+         resizeNanos += System.nanoTime() - startNanos;
+      }
+
+      if (nextOldBucket == oldBuckets)
+      {
+         oldTable = null;
+         oldTrees = null;
+      }
+   }
+
+   /**
+    *  finishMigration() moves every bucket left in an incremental resize
+    *  under way.
+    **/
+
+   private void finishMigration()
+   {
+      while (oldTable != null)
+      {
+         migrateStep();
+      }
+   }
+
+   /**
+    *  moveBucket() moves every entry of "bucket", which was bucket number
+    *  "oldBucket" of a table of "fromBuckets" buckets, into hashTable.  The
+    *  chain nodes are relinked rather than copied, so neither the Entry
+    *  objects (which callers of insert() may hold) nor the DListNodes
+    *  holding them are reallocated.
+    *
+    *  When the table shrinks, every entry of an old bucket lands in the same
+    *  new bucket (the codes are masked by fewer bits), so the whole chain is
+    *  spliced onto it at once.  When the table grows, the chain splits over
+    *  several new buckets, and each node is moved on its own.
+    **/
+
+   private void moveBucket(DList bucket, int oldBucket, int fromBuckets)
+   {
+      if (bucket == null || bucket.isEmpty())
+      {
+         return;
+      }
+
+      if (numBuckets <= fromBuckets)
+      {
+         int newBucket = compFunction(oldBucket, numBuckets);
+
+         if (hashTable[newBucket] == null)
+         {
+            hashTable[newBucket] = bucket;
+         }
+         else
+         {
+            hashTable[newBucket].splice(bucket);
+         }
+
+         if ((trees != null && trees[newBucket] != null)
+               || hashTable[newBucket].length() > TREEIFY_THRESHOLD)
+         {
+            treeify(newBucket);
+         }
+         return;
+      }
+
+      try
+      {
+         DListNode currNode = (DListNode) bucket.front();
+
+         while (currNode.isValidNode())
          {
-            System.out.println(e);
+            DListNode nextNode = currNode.nextUnchecked();
+            moveNode(currNode);
+            currNode = nextNode;
          }
+      }
+      catch (InvalidNodeException e)
+      {
+         System.out.println(e);
+      }
+   }
+
+   /**
+    *  moveNode() moves the chain node "node" to the front of its bucket in
+    *  hashTable, creating the bucket if need be, and indexes it in the
+    *  bucket's tree, treeifying the bucket if its chain has grown too long.
+    *  numEntries is not changed.
+    **/
+
+   private void moveNode(DListNode node) throws InvalidNodeException
+   {
+      Object key = ((Entry) node.item()).key;
+      int hashCode = strategy.hash(key);
+      int bucket = compFunction(hashCode);
+
+      if (hashTable[bucket] == null)
+      {
+         hashTable[bucket] = new DList();
+      }
+      hashTable[bucket].moveToFront(node);
+
+      if (trees != null && trees[bucket] != null)
+      {
+         trees[bucket].insert(hashCode, key, node);
+      }
+      else if (hashTable[bucket].length() > TREEIFY_THRESHOLD)
+      {
+         treeify(bucket);
+      }
+   }
+
+   /**
+    *  insertEntry() puts "entry" at the front of its bucket in hashTable,
+    *  creating the bucket if need be, and indexes it in the bucket's tree,
+    *  treeifying the bucket if its chain has grown too long.  numEntries is
+    *  not changed.
+    **/
+
+   private void insertEntry(Entry entry)
+   {
+      int hashCode = strategy.hash(entry.key);
+      int bucket = compFunction(hashCode);
+
+      if (hashTable[bucket] == null)
+      {
+         hashTable[bucket] = new DList();
+      }
+      hashTable[bucket].insertFront(entry);
+
+      if (trees != null && trees[bucket] != null)
+      {
+         trees[bucket].insert(hashCode, entry.key, 
+               (DListNode) hashTable[bucket].front());
+      }
+      else if (hashTable[bucket].length() > TREEIFY_THRESHOLD)
+      {
+         treeify(bucket);
+      }
+   }
+
+   /**
+    *  treeify() builds a BucketTree over the chain of hashTable[bucket].
+    **/
+
+   private void treeify(int bucket)
+   {
+      if (trees == null)
+      {
+         trees = new BucketTree[numBuckets];
+      }
 
+      BucketTree tree = new BucketTree();
+      DListNode currNode = (DListNode) hashTable[bucket].front();
+
+      while (currNode.isValidNode())
+      {
+         Object key = ((Entry) currNode.item()).key;
+         tree.insert(strategy.hash(key), key, currNode);
+         currNode = currNode.nextUnchecked();
       }
+
+      if (trees[bucket] == null)
+      {
+         numTrees++;
+      }
+      trees[bucket] = tree;
    }
 
    /** 
     *  Construct a new empty hash table intended to hold roughly sizeEstimate
-    *  entries.  (The precise number of buckets is up to you, but we recommend
-    *  you use a prime number, and shoot for a load factor between 0.5 and 1.)
+    *  entries.  The number of buckets is the smallest power of two that
+    *  holds that many entries under the load factor.
     **/
 
    public HashTableChained(int sizeEstimate) 
    {
-      numBuckets = (int)(sizeEstimate/loadFactor);
+      this(sizeEstimate, DEFAULT_STRATEGY);
+   }
+
+   /** 
+    *  Construct a new empty hash table intended to hold roughly sizeEstimate
+    *  entries, whose keys are hashed by "strategy".
+    **/
+
+   public HashTableChained(int sizeEstimate, HashStrategy strategy) 
+   {
+      this.strategy = strategy;
+      numBuckets = bucketsFor(sizeEstimate/loadFactor);
+      minBuckets = numBuckets;
       hashTable = new DList[numBuckets];
 
       for (int i = 0; i < hashTable.length; i++)
@@ -86,14 +478,25 @@ public class HashTableChained implements Graph {
    }
 
    /** 
-    *  Construct a new empty hash table with a default size.  Say, a prime in
-    *  the neighborhood of 100.
+    *  Construct a new empty hash table with a default size of 8 buckets.
     **/
 
    public HashTableChained() 
    {
-      hashTable = new DList[5];
-      numBuckets = 5;
+      this(DEFAULT_STRATEGY);
+   }
+
+   /** 
+    *  Construct a new empty hash table with a default size, whose keys are
+    *  hashed by "strategy".
+    **/
+
+   public HashTableChained(HashStrategy strategy) 
+   {
+      this.strategy = strategy;
+      hashTable = new DList[8];
+      numBuckets = 8;
+      minBuckets = numBuckets;
 
       for (int i = 0; i < hashTable.length; i++)
       {
@@ -101,9 +504,26 @@ public class HashTableChained implements Graph {
       }
    }
 
+   /**
+    *  bucketsFor() returns the smallest power of two that is at least
+    *  "buckets" (and at least 1).
+    **/
+
+   private static int bucketsFor(double buckets)
+   {
+      int powerOfTwo = 1;
+
+      while (powerOfTwo < buckets && powerOfTwo < (1 << 30))
+      {
+         powerOfTwo = powerOfTwo * 2;
+      }
+      return powerOfTwo;
+   }
+
    /**
     *  Converts a hash code in the range Integer.MIN_VALUE...Integer.MAX_VALUE
-    *  to a value in the range 0...(size of hash table) - 1.
+    *  to a value in the range 0...(size of hash table) - 1.  The code has
+    *  already been mixed by the HashStrategy, so its low bits are kept.
     *
     *  This function should have package protection (so we can test it), and
     *  should be used by insert, find, and remove.
@@ -111,16 +531,17 @@ public class HashTableChained implements Graph {
 
    int compFunction(int code) 
    {
-      int usedCode = code;
+      return compFunction(code, numBuckets);
+   }
 
-      if (code < 0)
-      {
-         usedCode = usedCode * -1;
-      }
-      int binNum = (((65324*(usedCode%5000) + (usedCode%9856) + 576546)% 3169) 
-            % numBuckets);
+   /**
+    *  compFunction() maps "code" to a bucket of a table of "buckets" buckets,
+    *  where "buckets" is a power of two.
+    **/
 
-      return binNum;
+   private static int compFunction(int code, int buckets) 
+   {
+      return code & (buckets - 1);
    }
 
    /** 
@@ -154,7 +575,8 @@ public class HashTableChained implements Graph {
     *  Create a new Entry object referencing the input key and associated value,
     *  and insert the entry into the dictionary.  Return a reference to the new
     *  entry.  Multiple entries with the same key (or even the same key and
-    *  value) can coexist in the dictionary.
+    *  value) can coexist in the dictionary.  If the load factor passes the
+    *  maximum, the table doubles.
     *
     *  This method should run in O(1) time if the number of collisions is small.
     *
@@ -165,18 +587,16 @@ public class HashTableChained implements Graph {
 
    public Entry insert(Object key, Object value) 
    {
-      int hashCode;
+      migrateStep();
+
       Entry newEntry = new Entry();
 
       newEntry.key = key;
       newEntry.value = value;
 
-      hashCode = key.hashCode();
-
-      hashCode = compFunction(hashCode);
-
-      hashTable[hashCode].insertFront(newEntry);
+      insertEntry(newEntry);
       numEntries++;
+      resizeTable();
 
       return newEntry;
    }
@@ -195,62 +615,98 @@ public class HashTableChained implements Graph {
 
    public DListNode findNode(Object key) 
    {
-      int hashCode = key.hashCode();
-      hashCode = compFunction(hashCode);
+      int hashCode = strategy.hash(key);
+      DListNode iter = findNode(hashTable, trees, compFunction(hashCode),
+            hashCode, key);
 
-      DListNode iter = (DListNode)hashTable[hashCode].front();
-      try
+      // During an incremental resize, a key whose old bucket has not been
+      // moved yet is still in oldTable.
+      if (iter == null && oldTable != null)
       {
-         while (iter != null)
+         int oldBucket = compFunction(hashCode, oldBuckets);
+
+         if (oldBucket >= nextOldBucket)
          {
-            if (key.equals(((Entry)iter.item()).key()))
-            {
-               return (iter);
-            }          
-            iter = (DListNode)iter.next();
+            iter = findNode(oldTable, oldTrees, oldBucket, hashCode, key);
          }
       }
-      catch (InvalidNodeException e)
+      return iter;
+   }
+
+   /**
+    *  findNode() returns the node of table[bucket] holding an entry with key
+    *  "key", whose code is "hashCode", or null if there is none.  If the
+    *  bucket has a tree, the tree is searched (and counted as probing as
+    *  many entries as it is tall); otherwise the chain is scanned.
+    **/
+
+   private DListNode findNode(DList[] table, BucketTree[] tableTrees,
+         int bucket, int hashCode, Object key)
+   {
+      if (tableTrees != null && tableTrees[bucket] != null)
       {
-         System.out.println(e);
+         if (METRICS && metricsOn)
+         {
+            probes += tableTrees[bucket].height();
+         }
+         return tableTrees[bucket].find(hashCode, key);
       }
-
-      return null;
+      return findNode(table[bucket], key);
    }
 
-   public Entry find(Object key) 
+   /**
+    *  findNode() returns the node of "bucket" holding an entry with key
+    *  "key", or null if there is none (or "bucket" is null).
+    **/
+
+   private DListNode findNode(DList bucket, Object key)
    {
-      int hashCode = key.hashCode();
-      hashCode = compFunction(hashCode);
+      if (bucket == null)
+      {
+         return null;
+      }
 
-      DListNode iter = (DListNode)hashTable[hashCode].front();
+      DListNode iter = (DListNode) bucket.front();
 
       while (iter.isValidNode())
       {
-         try 
+         if (METRICS && metricsOn)
          {
-            if (key.equals(((Entry) iter.item()).key()))
-            {
-               return ((Entry) iter.item());
-            }
-
-
-            iter = (DListNode) iter.next();
-         } 
-         catch (InvalidNodeException e) 
+            probes++;
+         }
+         if (key.equals(((Entry) iter.item()).key))
          {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            return iter;
          }
+         iter = iter.nextUnchecked();
       }
       return null;
    }
 
+   public Entry find(Object key) 
+   {
+      long startProbes = probes;
+      DListNode iter = findNode(key);
+
+      if (METRICS && metricsOn)
+      {
+         finds++;
+         findProbes += probes - startProbes;
+      }
+
+      if (iter == null)
+      {
+         return null;
+      }
+      return ((Entry) iter.item());
+   }
+
    /** 
     *  Remove an entry with the specified key.  If such an entry is found,
     *  remove it from the table and return it; otherwise return null.
     *  If several entries have the specified key, choose one arbitrarily, then
-    *  remove and return it.
+    *  remove and return it.  If the load factor drops below the minimum,
+    *  the table halves.
     *
     *  This method should run in O(1) time if the number of collisions is small.
     *
@@ -261,39 +717,78 @@ public class HashTableChained implements Graph {
 
    public Entry remove(Object key) 
    {
+      migrateStep();
 
-      int hashCode = key.hashCode();
-      hashCode = compFunction(hashCode);
+      int hashCode = strategy.hash(key);
+      DList[] table = hashTable;
+      BucketTree[] tableTrees = trees;
+      int bucket = compFunction(hashCode);
+      long startProbes = probes;
+      DListNode iter = findNode(table, tableTrees, bucket, hashCode, key);
 
-      DListNode iter = (DListNode)hashTable[hashCode].front();
-
-      while (iter.isValidNode())
+      // As in findNode(), look in oldTable if the bucket has not moved yet.
+      if (iter == null && oldTable != null)
       {
-         try
-         {
-            if (key.equals(((Entry)iter.item()).key()))
-            {
-               iter.remove();
-               numEntries--;
-               return ((Entry)iter.item());
-            }      
+         int oldBucket = compFunction(hashCode, oldBuckets);
 
-            iter = (DListNode) iter.next();
+         if (oldBucket >= nextOldBucket)
+         {
+            table = oldTable;
+            tableTrees = oldTrees;
+            bucket = oldBucket;
+            iter = findNode(table, tableTrees, bucket, hashCode, key);
          }
-         catch (InvalidNodeException e)
+      }
+
+      if (METRICS && metricsOn)
+      {
+         removes++;
+         removeProbes += probes - startProbes;
+      }
+
+      if (iter == null)
+      {
+         return null;
+      }
+
+      try
+      {
+         iter.remove();
+         numEntries--;
+
+         if (tableTrees != null && tableTrees[bucket] != null)
          {
-            System.out.println(e);
+            if (table[bucket].length() < UNTREEIFY_THRESHOLD)
+            {
+               tableTrees[bucket] = null;
+               numTrees--;
+            }
+            else
+            {
+               tableTrees[bucket].remove(hashCode, iter);
+            }
          }
+         shrinkTable();
+      }
+      catch (InvalidNodeException e)
+      {
+         System.out.println(e);
       }
 
-      return null;
+      return ((Entry)iter.item());
    }
 
    /**
-    *  Remove all entries from the dictionary.
+    *  Remove all entries from the dictionary.  Any incremental resize under
+    *  way is abandoned.
     */
    public void makeEmpty() 
    {
+      oldTable = null;
+      oldTrees = null;
+      trees = null;
+      numTrees = 0;
+
       for (int i = 0; i < hashTable.length; i++)
       {
          hashTable[i] = new DList();
@@ -302,8 +797,126 @@ public class HashTableChained implements Graph {
       numEntries = 0;
    }
 
+   /**
+    *  setMetricsEnabled() starts or stops counting finds, removes, probes
+    *  and resizes.  Counting is off by default.  The counters are plain
+    *  fields, so if several threads call find() at once on a table with
+    *  metrics enabled, some counts may be lost; nothing else is affected.
+    *
+    *  @param on true to count.
+    **/
+
+   public void setMetricsEnabled(boolean on)
+   {
+      metricsOn = METRICS && on;
+   }
+
+   /**
+    *  isMetricsEnabled() returns true if operations are being counted.
+    **/
+
+   public boolean isMetricsEnabled()
+   {
+      return metricsOn;
+   }
+
+   /**
+    *  resetMetrics() sets every counter back to zero.
+    **/
+
+   public void resetMetrics()
+   {
+      probes = 0;
+      finds = 0;
+      findProbes = 0;
+      removes = 0;
+      removeProbes = 0;
+      resizes = 0;
+      resizeNanos = 0;
+   }
+
+   /**
+    *  loadFactor() returns the current number of entries per bucket.
+    *
+    *  Running time:  O(1).
+    **/
+
+   public double loadFactor()
+   {
+      return (double) numEntries / numBuckets;
+   }
+
+   /**
+    *  metrics() returns a snapshot of the table's size, its number of
+    *  buckets and of tree buckets, and its counters.  Every figure is kept
+    *  as the table changes, so this is cheap enough to call at any time;
+    *  the chain lengths, which are not kept, come from chainHistogram().
+    *
+    *  @return a HashTableMetrics holding the figures.
+    *
+    *  Running time:  O(1).
+    **/
+
+   public HashTableMetrics metrics()
+   {
+      return new HashTableMetrics(numEntries, numBuckets, numTrees, finds,
+            findProbes, removes, removeProbes, resizes, resizeNanos);
+   }
+
+   /**
+    *  chainHistogram() returns a new array whose element k is the number of
+    *  buckets whose chain holds exactly k entries, for k from zero to the
+    *  length of the longest chain (so the array is never empty).  It walks
+    *  every bucket, including those of an incremental resize not yet moved,
+    *  so it is meant for diagnostics rather than for every request.
+    *
+    *  @return the chain-length histogram.
+    *
+    *  Running time:  O(number of buckets).
+    **/
+
+   public int[] chainHistogram()
+   {
+      int maxChain = 0;
+
+      for (int i = 0; i < hashTable.length; i++)
+      {
+         maxChain = Math.max(maxChain, chainLength(hashTable[i]));
+      }
+      for (int i = nextOldBucket; oldTable != null && i < oldBuckets; i++)
+      {
+         maxChain = Math.max(maxChain, chainLength(oldTable[i]));
+      }
+
+      int[] histogram = new int[maxChain + 1];
+
+      for (int i = 0; i < hashTable.length; i++)
+      {
+         histogram[chainLength(hashTable[i])]++;
+      }
+      for (int i = nextOldBucket; oldTable != null && i < oldBuckets; i++)
+      {
+         histogram[chainLength(oldTable[i])]++;
+      }
+      return histogram;
+   }
+
+   /**
+    *  chainLength() returns the number of entries in "bucket", which may be
+    *  null.
+    **/
+
+   private static int chainLength(DList bucket)
+   {
+      return bucket == null ? 0 : bucket.length();
+   }
+
    public DList getEntry(int entryNum)
    {
+      if (hashTable[entryNum] == null)
+      {
+         hashTable[entryNum] = new DList();
+      }
       return (hashTable[entryNum]);
    }
 }
@@ -0,0 +1,161 @@
+package hash;
+/* HashTableMetrics.java */
+
+/**
+ *  A HashTableMetrics is a snapshot of the occupancy and the operation
+ *  counters of a HashTableChained, taken by HashTableChained.metrics() in
+ *  O(1) time.  It never changes after it is taken.  Chain lengths are not
+ *  part of it; HashTableChained.chainHistogram() walks the buckets for them.
+ *
+ *  The occupancy figures (size, buckets, load factor, tree buckets) are
+ *  always filled in.  The counters (finds, removes, probes, resizes and
+ *  time spent resizing) only move while the table's metrics are enabled,
+ *  and are zero if HashTableChained.METRICS is compiled to false.
+ **/
+
+public class HashTableMetrics {
+
+   private final int size;
+   private final int buckets;
+   private final int treeBuckets;
+   private final long finds;
+   private final long findProbes;
+   private final long removes;
+   private final long removeProbes;
+   private final long resizes;
+   private final long resizeNanos;
+
+   /**
+    *  HashTableMetrics() constructs a snapshot from figures gathered by
+    *  HashTableChained.
+    **/
+
+   HashTableMetrics(int size, int buckets, int treeBuckets, long finds,
+         long findProbes, long removes, long removeProbes, long resizes,
+         long resizeNanos)
+   {
+      this.size = size;
+      this.buckets = buckets;
+      this.treeBuckets = treeBuckets;
+      this.finds = finds;
+      this.findProbes = findProbes;
+      this.removes = removes;
+      this.removeProbes = removeProbes;
+      this.resizes = resizes;
+      this.resizeNanos = resizeNanos;
+   }
+
+   /**
+    *  size() returns the number of entries in the table.
+    **/
+
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    *  buckets() returns the number of buckets in the table.
+    **/
+
+   public int buckets()
+   {
+      return buckets;
+   }
+
+   /**
+    *  loadFactor() returns the number of entries per bucket.
+    **/
+
+   public double loadFactor()
+   {
+      return (double) size / buckets;
+   }
+
+   /**
+    *  treeBuckets() returns the number of buckets whose chain is long enough
+    *  to be indexed by a tree.  More than a handful means the keys' codes
+    *  collide badly.
+    **/
+
+   public int treeBuckets()
+   {
+      return treeBuckets;
+   }
+
+   /**
+    *  finds() returns the number of calls to find() counted.
+    **/
+
+   public long finds()
+   {
+      return finds;
+   }
+
+   /**
+    *  averageFindProbes() returns the average number of entries compared by
+    *  a find(), or zero if none were counted.
+    **/
+
+   public double averageFindProbes()
+   {
+      return finds == 0 ? 0 : (double) findProbes / finds;
+   }
+
+   /**
+    *  removes() returns the number of calls to remove() counted.
+    **/
+
+   public long removes()
+   {
+      return removes;
+   }
+
+   /**
+    *  averageRemoveProbes() returns the average number of entries compared
+    *  by a remove(), or zero if none were counted.
+    **/
+
+   public double averageRemoveProbes()
+   {
+      return removes == 0 ? 0 : (double) removeProbes / removes;
+   }
+
+   /**
+    *  resizes() returns the number of times the table was resized (grown or
+    *  shrunk) while counted.
+    **/
+
+   public long resizes()
+   {
+      return resizes;
+   }
+
+   /**
+    *  resizeNanos() returns the total time, in nanoseconds, spent moving
+    *  entries during resizes (including incremental steps) while counted.
+    **/
+
+   public long resizeNanos()
+   {
+      return resizeNanos;
+   }
+
+   /**
+    *  toString() returns the metrics on one line, for logging.
+    **/
+
+   public String toString()
+   {
+      return "size " + size + ", buckets " + buckets
+            + ", load " + String.format("%.3f", loadFactor())
+            + ", tree buckets " + treeBuckets
+            + ", finds " + finds
+            + " (avg probes " + String.format("%.2f", averageFindProbes())
+            + "), removes " + removes
+            + " (avg probes " + String.format("%.2f", averageRemoveProbes())
+            + "), resizes " + resizes
+            + " (" + (resizeNanos / 1000000) + " ms)";
+   }
+
+}
@@ -0,0 +1,328 @@
+package hash;
+/* HashTableOpen.java */
+
+
+import graph.Graph;
+
+/**
+ *  HashTableOpen implements a Dictionary as a hash table with open
+ *  addressing and linear probing.  Where HashTableChained keeps a DList per
+ *  bucket, and so spends an Entry, a DListNode and a share of a sentinel on
+ *  every entry, HashTableOpen keeps three flat parallel arrays:  the hash
+ *  code, the key and the Entry of each slot.  A search probes consecutive
+ *  slots, comparing int hash codes first, so it usually touches one or two
+ *  cache lines and calls equals() only on a real match.
+ *
+ *  The number of slots is always a power of two, and the table doubles
+ *  itself whenever an insert would push the load factor past 0.75, so
+ *  callers never need to call resizeTable().  Entries are removed by
+ *  backward-shift deletion, so there are no tombstones and a search stops
+ *  at the first empty slot.
+ *
+ *  Keys are hashed by a HashStrategy, by default an unseeded
+ *  MixingHashStrategy.  As with HashTableChained, several entries with the
+ *  same key can coexist.
+ **/
+
+public class HashTableOpen implements Graph {
+
+   private static final double LOAD_FACTOR = 0.75;
+   private static final int MIN_SLOTS = 8;
+
+   private static final HashStrategy DEFAULT_STRATEGY = 
+         new MixingHashStrategy();
+
+   private final HashStrategy strategy;
+   private int[] hashes;      // slot --> strategy's hash code of the key
+   private Object[] keys;     // slot --> key, or null if the slot is empty
+   private Entry[] entries;   // slot --> Entry holding the key and value
+   private int mask;          // number of slots - 1
+   private int numEntries = 0;
+   private int growAt;        // numEntries that triggers the next doubling
+
+   /**
+    *  Construct a new empty hash table intended to hold roughly sizeEstimate
+    *  entries without growing.
+    **/
+
+   public HashTableOpen(int sizeEstimate)
+   {
+      this(sizeEstimate, DEFAULT_STRATEGY);
+   }
+
+   /**
+    *  Construct a new empty hash table intended to hold roughly sizeEstimate
+    *  entries without growing, whose keys are hashed by "strategy".
+    **/
+
+   public HashTableOpen(int sizeEstimate, HashStrategy strategy)
+   {
+      this.strategy = strategy;
+      allocate(slotsFor(sizeEstimate));
+   }
+
+   /**
+    *  Construct a new empty hash table with a default size.
+    **/
+
+   public HashTableOpen()
+   {
+      this(0, DEFAULT_STRATEGY);
+   }
+
+   /**
+    *  Construct a new empty hash table with a default size, whose keys are
+    *  hashed by "strategy".
+    **/
+
+   public HashTableOpen(HashStrategy strategy)
+   {
+      this(0, strategy);
+   }
+
+   /**
+    *  ensureCapacity() makes room for "expectedEntries" entries in all, so
+    *  that inserting up to that many entries will not make the table grow.
+    *  If the table is already big enough, nothing happens; otherwise every
+    *  entry is rehashed once into the larger table.
+    *
+    *  @param expectedEntries the number of entries the table should hold.
+    **/
+
+   public void ensureCapacity(int expectedEntries)
+   {
+      int neededSlots = slotsFor(expectedEntries);
+
+      if (neededSlots > mask + 1)
+      {
+         rehash(neededSlots);
+      }
+   }
+
+   /**
+    *  slotsFor() returns the smallest power of two number of slots that holds
+    *  "expectedEntries" entries under the load factor.
+    **/
+
+   private static int slotsFor(int expectedEntries)
+   {
+      long needed = (long) Math.ceil(expectedEntries / LOAD_FACTOR) + 1;
+      int slots = MIN_SLOTS;
+
+      while (slots < needed && slots < (1 << 30))
+      {
+         slots = slots * 2;
+      }
+      return slots;
+   }
+
+   /**
+    *  allocate() replaces the arrays with empty ones of "slots" slots.
+    **/
+
+   private void allocate(int slots)
+   {
+      hashes = new int[slots];
+      keys = new Object[slots];
+      entries = new Entry[slots];
+      mask = slots - 1;
+      growAt = (int) (slots * LOAD_FACTOR);
+   }
+
+   /**
+    *  rehash() moves every entry into a new table of "newSlots" slots.  The
+    *  stored hash codes are reused, so no key's hashCode() is called again.
+    **/
+
+   private void rehash(int newSlots)
+   {
+      int[] tempHashes = hashes;
+      Object[] tempKeys = keys;
+      Entry[] tempEntries = entries;
+
+      allocate(newSlots);
+
+      for (int i = 0; i < tempKeys.length; i++)
+      {
+         if (tempKeys[i] != null)
+         {
+            int slot = tempHashes[i] & mask;
+
+            while (keys[slot] != null)
+            {
+               slot = (slot + 1) & mask;
+            }
+            hashes[slot] = tempHashes[i];
+            keys[slot] = tempKeys[i];
+            entries[slot] = tempEntries[i];
+         }
+      }
+   }
+
+   /**
+    *  Returns the number of entries stored in the dictionary.  Entries with
+    *  the same key (or even the same key and value) each still count as
+    *  a separate entry.
+    *  @return number of entries in the dictionary.
+    **/
+
+   public int size()
+   {
+      return numEntries;
+   }
+
+   /**
+    *  Tests if the dictionary is empty.
+    *
+    *  @return true if the dictionary has no entries; false otherwise.
+    **/
+
+   public boolean isEmpty()
+   {
+      return numEntries == 0;
+   }
+
+   /**
+    *  Create a new Entry object referencing the input key and associated value,
+    *  and insert the entry into the dictionary.  Return a reference to the new
+    *  entry.  Multiple entries with the same key (or even the same key and
+    *  value) can coexist in the dictionary.
+    *
+    *  @param key the key by which the entry can be retrieved.
+    *  @param value an arbitrary object.
+    *  @return an entry containing the key and value.
+    **/
+
+   public Entry insert(Object key, Object value)
+   {
+      if (numEntries >= growAt)
+      {
+         rehash((mask + 1) * 2);
+      }
+
+      Entry newEntry = new Entry();
+      newEntry.key = key;
+      newEntry.value = value;
+
+      int hash = strategy.hash(key);
+      int slot = hash & mask;
+
+      while (keys[slot] != null)
+      {
+         slot = (slot + 1) & mask;
+      }
+      hashes[slot] = hash;
+      keys[slot] = key;
+      entries[slot] = newEntry;
+      numEntries++;
+
+      return newEntry;
+   }
+
+   /**
+    *  Search for an entry with the specified key.  If such an entry is found,
+    *  return it; otherwise return null.  If several entries have the specified
+    *  key, choose one arbitrarily and return it.
+    *
+    *  @param key the search key.
+    *  @return an entry containing the key and an associated value, or null if
+    *          no entry contains the specified key.
+    **/
+
+   public Entry find(Object key)
+   {
+      int slot = findSlot(key);
+
+      if (slot < 0)
+      {
+         return null;
+      }
+      return entries[slot];
+   }
+
+   /**
+    *  Remove an entry with the specified key.  If such an entry is found,
+    *  remove it from the table and return it; otherwise return null.
+    *  If several entries have the specified key, choose one arbitrarily, then
+    *  remove and return it.
+    *
+    *  The entries after the removed one in its run of full slots are shifted
+    *  back to close the gap, as far as each one's home slot allows.
+    *
+    *  @param key the search key.
+    *  @return an entry containing the key and an associated value, or null if
+    *          no entry contains the specified key.
+    */
+
+   public Entry remove(Object key)
+   {
+      int slot = findSlot(key);
+
+      if (slot < 0)
+      {
+         return null;
+      }
+
+      Entry removed = entries[slot];
+      int gap = slot;
+      int next = (gap + 1) & mask;
+
+      while (keys[next] != null)
+      {
+         int home = hashes[next] & mask;
+
+         // The entry at "next" may move into the gap only if its home slot
+         // is not in the cyclic range (gap, next].
+         if (((next - home) & mask) >= ((next - gap) & mask))
+         {
+            hashes[gap] = hashes[next];
+            keys[gap] = keys[next];
+            entries[gap] = entries[next];
+            gap = next;
+         }
+         next = (next + 1) & mask;
+      }
+
+      keys[gap] = null;
+      entries[gap] = null;
+      numEntries--;
+
+      return removed;
+   }
+
+   /**
+    *  findSlot() returns the slot holding an entry with key "key", or -1 if
+    *  there is none.
+    **/
+
+   private int findSlot(Object key)
+   {
+      int hash = strategy.hash(key);
+      int slot = hash & mask;
+
+      while (keys[slot] != null)
+      {
+         if (hashes[slot] == hash && key.equals(keys[slot]))
+         {
+            return slot;
+         }
+         slot = (slot + 1) & mask;
+      }
+      return -1;
+   }
+
+   /**
+    *  Remove all entries from the dictionary.  The table keeps its size.
+    */
+   public void makeEmpty()
+   {
+      for (int i = 0; i < keys.length; i++)
+      {
+         keys[i] = null;
+         entries[i] = null;
+      }
+
+      numEntries = 0;
+   }
+
+}
@@ -0,0 +1,125 @@
+package hash;
+/* IntIntMap.java */
+
+/**
+ *  IntIntMap maps int keys to int values.  It is a hash table with open
+ *  addressing and linear probing, kept in flat int arrays, so unlike
+ *  HashTableChained it boxes nothing and creates no Entry or DListNode per
+ *  mapping:  a mapping costs two ints and a boolean, and a lookup reads one
+ *  or two neighboring slots of each array.  See IntObjectMap for values
+ *  that are objects; the probing code both share is in IntKeyTable.
+ *
+ *  Unlike the Graph dictionaries, an IntIntMap holds at most one value per
+ *  key; put() replaces the value of a key already present.  The number of
+ *  slots is a power of two and doubles whenever a put() would push the load
+ *  factor past 0.75.  Keys are mixed by MixingHashStrategy.mix(), so runs of
+ *  consecutive ids scatter over the table.
+ **/
+
+public class IntIntMap extends IntKeyTable {
+
+   private int[] values;
+
+   /**
+    *  Construct a new empty map with a default size.
+    **/
+
+   public IntIntMap()
+   {
+      this(0);
+   }
+
+   /**
+    *  Construct a new empty map intended to hold roughly sizeEstimate
+    *  mappings without growing.
+    **/
+
+   public IntIntMap(int sizeEstimate)
+   {
+      super(sizeEstimate);
+   }
+
+   void allocateValues(int slots)
+   {
+      values = new int[slots];
+   }
+
+   Object valueArray()
+   {
+      return values;
+   }
+
+   void copyValue(Object fromValues, int from, int to)
+   {
+      values[to] = ((int[]) fromValues)[from];
+   }
+
+   void moveValue(int from, int to)
+   {
+      values[to] = values[from];
+   }
+
+   void clearValue(int slot)
+   {
+   }
+
+   /**
+    *  get() returns the value "key" is mapped to, or "missing" if it is not
+    *  in the map.
+    *
+    *  @param key the key to look up.
+    *  @param missing the value to return if the key is absent.
+    **/
+
+   public int get(int key, int missing)
+   {
+      int slot = findSlot(key);
+
+      if (!full[slot])
+      {
+         return missing;
+      }
+      return values[slot];
+   }
+
+   /**
+    *  put() maps "key" to "value", replacing any value it had.
+    *
+    *  @return true if the key was not in the map before.
+    **/
+
+   public boolean put(int key, int value)
+   {
+      int slot = findSlot(key);
+
+      if (full[slot])
+      {
+         values[slot] = value;
+         return false;
+      }
+
+      slot = claimSlot(key);     // may grow the table and values
+      values[slot] = value;
+      return true;
+   }
+
+   /**
+    *  remove() removes the mapping of "key", if it has one.
+    *
+    *  @return true if the key was in the map.
+    **/
+
+   public boolean remove(int key)
+   {
+      int slot = findSlot(key);
+
+      if (!full[slot])
+      {
+         return false;
+      }
+
+      releaseSlot(slot);
+      return true;
+   }
+
+}
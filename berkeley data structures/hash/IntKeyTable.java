@@ -0,0 +1,231 @@
+package hash;
+/* IntKeyTable.java */
+
+/**
+ *  IntKeyTable is the open-addressing machinery shared by IntIntMap and
+ *  IntObjectMap:  a power-of-two array of int keys with linear probing, a
+ *  flag per slot, growth past a load factor of 0.75 and backward-shift
+ *  removal.  Keys are mixed by MixingHashStrategy.mix(), so runs of
+ *  consecutive ids scatter over the table.
+ *
+ *  A subclass keeps the values in an array of its own type, slot for slot
+ *  with the keys, and moves them when told to by allocateValues(),
+ *  copyValue(), moveValue() and clearValue().  The values array must be
+ *  made only by allocateValues(), which this class's constructor calls
+ *  before the subclass's own constructor runs.
+ **/
+
+abstract class IntKeyTable {
+
+   private static final double LOAD_FACTOR = 0.75;
+   private static final int MIN_SLOTS = 8;
+
+   int[] keys;
+   boolean[] full;           // slot --> true if it holds a mapping
+   int mask;                 // number of slots - 1
+   private int size = 0;
+   private int growAt;       // size that triggers the next doubling
+
+   /**
+    *  Construct a new empty table intended to hold roughly sizeEstimate
+    *  mappings without growing.
+    **/
+
+   IntKeyTable(int sizeEstimate)
+   {
+      allocate(slotsFor(sizeEstimate));
+   }
+
+   /**
+    *  allocateValues() makes a new, empty values array of "slots" slots.
+    **/
+
+   abstract void allocateValues(int slots);
+
+   /**
+    *  valueArray() returns the current values array, so that rehash() can
+    *  hand it back to copyValue() after allocateValues() has replaced it.
+    **/
+
+   abstract Object valueArray();
+
+   /**
+    *  copyValue() copies slot "from" of the old values array "fromValues"
+    *  into slot "to" of the current one.
+    **/
+
+   abstract void copyValue(Object fromValues, int from, int to);
+
+   /**
+    *  moveValue() moves the value in slot "from" to slot "to".
+    **/
+
+   abstract void moveValue(int from, int to);
+
+   /**
+    *  clearValue() drops the value in slot "slot", so it can be garbage
+    *  collected.
+    **/
+
+   abstract void clearValue(int slot);
+
+   /**
+    *  slotsFor() returns the smallest power of two number of slots that holds
+    *  "expected" mappings under the load factor.
+    **/
+
+   private static int slotsFor(int expected)
+   {
+      long needed = (long) Math.ceil(expected / LOAD_FACTOR) + 1;
+      int slots = MIN_SLOTS;
+
+      while (slots < needed && slots < (1 << 30))
+      {
+         slots = slots * 2;
+      }
+      return slots;
+   }
+
+   private void allocate(int slots)
+   {
+      keys = new int[slots];
+      full = new boolean[slots];
+      allocateValues(slots);
+      mask = slots - 1;
+      growAt = (int) (slots * LOAD_FACTOR);
+   }
+
+   private void rehash(int newSlots)
+   {
+      int[] tempKeys = keys;
+      boolean[] tempFull = full;
+      Object tempValues = valueArray();
+
+      allocate(newSlots);
+
+      for (int i = 0; i < tempKeys.length; i++)
+      {
+         if (tempFull[i])
+         {
+            int slot = MixingHashStrategy.mix(tempKeys[i]) & mask;
+
+            while (full[slot])
+            {
+               slot = (slot + 1) & mask;
+            }
+            keys[slot] = tempKeys[i];
+            full[slot] = true;
+            copyValue(tempValues, i, slot);
+         }
+      }
+   }
+
+   /**
+    *  findSlot() returns the slot holding "key", or the empty slot where it
+    *  would go if it is absent.
+    **/
+
+   final int findSlot(int key)
+   {
+      int slot = MixingHashStrategy.mix(key) & mask;
+
+      while (full[slot] && keys[slot] != key)
+      {
+         slot = (slot + 1) & mask;
+      }
+      return slot;
+   }
+
+   /**
+    *  claimSlot() adds the absent key "key", growing the table first if it
+    *  is full enough, and returns the slot it now holds.  The caller stores
+    *  the value there.
+    **/
+
+   final int claimSlot(int key)
+   {
+      if (size >= growAt)
+      {
+         rehash((mask + 1) * 2);
+      }
+
+      int slot = findSlot(key);
+
+      keys[slot] = key;
+      full[slot] = true;
+      size++;
+      return slot;
+   }
+
+   /**
+    *  releaseSlot() removes the mapping in the full slot "gap".  The
+    *  mappings after it in its run of full slots are shifted back to close
+    *  the gap.
+    **/
+
+   final void releaseSlot(int gap)
+   {
+      int next = (gap + 1) & mask;
+
+      while (full[next])
+      {
+         int home = MixingHashStrategy.mix(keys[next]) & mask;
+
+         // The mapping at "next" may move into the gap only if its home
+         // slot is not in the cyclic range (gap, next].
+         if (((next - home) & mask) >= ((next - gap) & mask))
+         {
+            keys[gap] = keys[next];
+            moveValue(next, gap);
+            gap = next;
+         }
+         next = (next + 1) & mask;
+      }
+
+      full[gap] = false;
+      clearValue(gap);
+      size--;
+   }
+
+   /**
+    *  size() returns the number of mappings in the map.
+    **/
+
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    *  isEmpty() returns true if the map holds no mappings.
+    **/
+
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    *  containsKey() returns true if "key" is mapped to a value.
+    **/
+
+   public boolean containsKey(int key)
+   {
+      return full[findSlot(key)];
+   }
+
+   /**
+    *  makeEmpty() removes every mapping.  The table keeps its size.
+    **/
+
+   public void makeEmpty()
+   {
+      for (int i = 0; i < full.length; i++)
+      {
+         full[i] = false;
+         clearValue(i);
+      }
+      size = 0;
+   }
+
+}
@@ -0,0 +1,128 @@
+package hash;
+/* IntObjectMap.java */
+
+/**
+ *  IntObjectMap maps int keys to object values.  It is a hash table with
+ *  open addressing and linear probing, kept in flat arrays, so unlike
+ *  HashTableChained it boxes no key and creates no Entry or DListNode per
+ *  mapping:  a mapping costs an int, a reference and a boolean, and a
+ *  lookup reads one or two neighboring slots of each array.
+ *
+ *  Unlike the Graph dictionaries, an IntObjectMap holds at most one value per
+ *  key; put() replaces the value of a key already present.  The number of
+ *  slots is a power of two and doubles whenever a put() would push the load
+ *  factor past 0.75.  Keys are mixed by MixingHashStrategy.mix(), so runs of
+ *  consecutive ids scatter over the table.  IntIntMap is the same table
+ *  with int values; the probing code both share is in IntKeyTable.
+ **/
+
+public class IntObjectMap extends IntKeyTable {
+
+   private Object[] values;
+
+   /**
+    *  Construct a new empty map with a default size.
+    **/
+
+   public IntObjectMap()
+   {
+      this(0);
+   }
+
+   /**
+    *  Construct a new empty map intended to hold roughly sizeEstimate
+    *  mappings without growing.
+    **/
+
+   public IntObjectMap(int sizeEstimate)
+   {
+      super(sizeEstimate);
+   }
+
+   void allocateValues(int slots)
+   {
+      values = new Object[slots];
+   }
+
+   Object valueArray()
+   {
+      return values;
+   }
+
+   void copyValue(Object fromValues, int from, int to)
+   {
+      values[to] = ((Object[]) fromValues)[from];
+   }
+
+   void moveValue(int from, int to)
+   {
+      values[to] = values[from];
+   }
+
+   void clearValue(int slot)
+   {
+      values[slot] = null;
+   }
+
+   /**
+    *  get() returns the value "key" is mapped to, or null if it is not in
+    *  the map.  (A key can also be mapped to null; use containsKey() to tell
+    *  the two apart.)
+    *
+    *  @param key the key to look up.
+    **/
+
+   public Object get(int key)
+   {
+      int slot = findSlot(key);
+
+      if (!full[slot])
+      {
+         return null;
+      }
+      return values[slot];
+   }
+
+   /**
+    *  put() maps "key" to "value", replacing any value it had.
+    *
+    *  @return the value the key had, or null if it was not in the map.
+    **/
+
+   public Object put(int key, Object value)
+   {
+      int slot = findSlot(key);
+
+      if (full[slot])
+      {
+         Object oldValue = values[slot];
+         values[slot] = value;
+         return oldValue;
+      }
+
+      slot = claimSlot(key);     // may grow the table and values
+      values[slot] = value;
+      return null;
+   }
+
+   /**
+    *  remove() removes the mapping of "key", if it has one.
+    *
+    *  @return the value the key had, or null if it was not in the map.
+    **/
+
+   public Object remove(int key)
+   {
+      int slot = findSlot(key);
+
+      if (!full[slot])
+      {
+         return null;
+      }
+
+      Object oldValue = values[slot];
+      releaseSlot(slot);
+      return oldValue;
+   }
+
+}
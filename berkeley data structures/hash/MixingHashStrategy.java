@@ -0,0 +1,119 @@
+package hash;
+/* MixingHashStrategy.java */
+
+/**
+ *  MixingHashStrategy is the default HashStrategy.  It takes the key's own
+ *  hashCode(), xors in a seed, and runs the result through the 32-bit
+ *  finalizer of MurmurHash3, so that every bit of the hashCode() affects
+ *  every bit of the result.  Keys whose codes differ only in their high
+ *  bits, or that are consecutive integers, therefore land in well-scattered
+ *  buckets even when only the low bits are kept.
+ *
+ *  The mixing is a bijection, so two keys with different hashCode()s never
+ *  collide outright; only the bucket they share can.  A table that may be
+ *  fed keys chosen by an adversary to pile into one bucket should be given
+ *  its own randomly seeded strategy (see withRandomSeed()), since the bucket
+ *  a key lands in then can't be predicted from outside.
+ **/
+
+public class MixingHashStrategy implements HashStrategy {
+
+   private static long seedUniquifier = 0x2545F4914F6CDD1DL;
+
+   private final int seed;
+
+   /**
+    *  MixingHashStrategy() constructs an unseeded strategy.  All unseeded
+    *  strategies give the same code for the same key.
+    **/
+
+   public MixingHashStrategy()
+   {
+      this(0);
+   }
+
+   /**
+    *  MixingHashStrategy() constructs a strategy with seed "seed".
+    *
+    *  @param seed the seed xored into every hashCode() before mixing.
+    **/
+
+   public MixingHashStrategy(int seed)
+   {
+      this.seed = seed;
+   }
+
+   /**
+    *  withRandomSeed() returns a strategy with a seed no one can guess, made
+    *  from the clock and a counter so that two tables created together
+    *  still get different seeds.
+    **/
+
+   public static MixingHashStrategy withRandomSeed()
+   {
+      long s;
+
+      synchronized (MixingHashStrategy.class)
+      {
+         seedUniquifier = seedUniquifier * 0x5DEECE66DL + 0xBL;
+         s = seedUniquifier ^ System.nanoTime();
+      }
+      return new MixingHashStrategy(mix((int) (s ^ (s >>> 32))));
+   }
+
+   /**
+    *  seed() returns this strategy's seed.
+    **/
+
+   public int seed()
+   {
+      return seed;
+   }
+
+   /**
+    *  hash() returns the mixed, seeded hashCode() of "key".
+    **/
+
+   public int hash(Object key)
+   {
+      return mix(key.hashCode() ^ seed);
+   }
+
+   /**
+    *  mix() is the 32-bit finalizer of MurmurHash3:  a bijection on ints in
+    *  which flipping any one bit of the input flips each bit of the output
+    *  with probability about one half.
+    *
+    *  @param h the int to mix.
+    *  @return the mixed int.
+    **/
+
+   public static int mix(int h)
+   {
+      h ^= h >>> 16;
+      h *= 0x85EBCA6B;
+      h ^= h >>> 13;
+      h *= 0xC2B2AE35;
+      h ^= h >>> 16;
+      return h;
+   }
+
+   /**
+    *  mix64() is the 64-bit finalizer of MurmurHash3, the long counterpart
+    *  of mix().
+    *
+    *  @param h the long to mix.
+    *  @return the mixed long.
+    **/
+
+   public static long mix64(long h)
+   {
+      h ^= h >>> 33;
+      h *= 0xFF51AFD7ED558CCDL;
+      h ^= h >>> 33;
+      h *= 0xC4CEB9FE1A85EC53L;
+      h ^= h >>> 33;
+      return h;
+   }
+
+}
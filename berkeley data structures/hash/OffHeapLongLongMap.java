@@ -0,0 +1,370 @@
+package hash;
+/* OffHeapLongLongMap.java */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ *  OffHeapLongLongMap maps long keys to long values, like IntIntMap, but
+ *  keeps its table outside the Java heap in direct ByteBuffers.  The heap
+ *  holds only the map object and one ByteBuffer per page, so a map of
+ *  hundreds of millions of ids adds almost nothing for the garbage
+ *  collector to trace or copy, and no Entry, DListNode or boxed key is
+ *  created per mapping.
+ *
+ *  The table uses open addressing with linear probing.  Each slot takes 16
+ *  bytes of key and value plus one byte marking it full.  One ByteBuffer can
+ *  hold at most 2 GB, so the slots are split over pages of PAGE_SLOTS slots
+ *  each; a slot number's high bits pick its page and its low bits the
+ *  offset in the page.  The number of slots is a power of two (up to 2^40)
+ *  and doubles whenever a put() would push the load factor past 0.75.
+ *  Growing needs the old and the new table at once, so callers that know
+ *  the final size should call ensureCapacity() first.
+ *
+ *  The pages are ordinary direct ByteBuffers, so their memory goes back to
+ *  the system only when the garbage collector frees the buffers.  When the
+ *  table grows, each old page is dropped as soon as its mappings have
+ *  moved, so it can be collected while the rest are still being copied;
+ *  the JVM also runs the collector itself before it refuses a direct
+ *  allocation.  The current pages are given back once the map is garbage
+ *  collected; makeEmpty() keeps them for reuse.  The map is not
+ *  thread-safe.
+ *
+ *  This is a standalone map for callers whose keys are longs, such as a
+ *  loader turning 64-bit external ids into dense vertex ids before it builds
+ *  a graph.  Nothing in this tree uses it:  the tables of WUGraph and
+ *  ConcurrentWUGraph are keyed by arbitrary Objects, and the importer's ids
+ *  fit in an IntObjectMap.
+ **/
+
+public class OffHeapLongLongMap {
+
+   private static final double LOAD_FACTOR = 0.75;
+   private static final long MIN_SLOTS = 8;
+   private static final long MAX_SLOTS = 1L << 40;
+
+   private static final int PAGE_SHIFT = 20;          // log2 of PAGE_SLOTS
+   private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+   private static final int PAGE_MASK = PAGE_SLOTS - 1;
+   private static final int SLOT_BYTES = 16;          // key, then value
+
+   private ByteBuffer[] data;     // page --> keys and values of its slots
+   private ByteBuffer[] full;     // page --> 1 byte per slot, 1 if full
+   private long mask;             // number of slots - 1
+   private long size = 0;
+   private long growAt;           // size that triggers the next doubling
+
+   /**
+    *  Construct a new empty map with a default size.
+    **/
+
+   public OffHeapLongLongMap()
+   {
+      this(0);
+   }
+
+   /**
+    *  Construct a new empty map intended to hold roughly sizeEstimate
+    *  mappings without growing.
+    **/
+
+   public OffHeapLongLongMap(long sizeEstimate)
+   {
+      allocate(slotsFor(sizeEstimate));
+   }
+
+   /**
+    *  slotsFor() returns the smallest power of two number of slots that holds
+    *  "expected" mappings under the load factor.
+    **/
+
+   private static long slotsFor(long expected)
+   {
+      long needed = (long) Math.ceil(expected / LOAD_FACTOR) + 1;
+      long slots = MIN_SLOTS;
+
+      while (slots < needed && slots < MAX_SLOTS)
+      {
+         slots = slots * 2;
+      }
+      return slots;
+   }
+
+   /**
+    *  allocate() replaces the pages with zeroed (empty) ones holding "slots"
+    *  slots in all.
+    **/
+
+   private void allocate(long slots)
+   {
+      int pageSlots = (int) Math.min(slots, PAGE_SLOTS);
+      int numPages = (int) (slots / pageSlots);
+
+      data = new ByteBuffer[numPages];
+      full = new ByteBuffer[numPages];
+      for (int i = 0; i < numPages; i++)
+      {
+         data[i] = ByteBuffer.allocateDirect(pageSlots * SLOT_BYTES)
+               .order(ByteOrder.nativeOrder());
+         full[i] = ByteBuffer.allocateDirect(pageSlots);
+      }
+      mask = slots - 1;
+      growAt = (long) (slots * LOAD_FACTOR);
+   }
+
+   private boolean isFull(long slot)
+   {
+      return full[(int) (slot >>> PAGE_SHIFT)].get((int) (slot & PAGE_MASK))
+            != 0;
+   }
+
+   private void setFull(long slot, boolean isFull)
+   {
+      full[(int) (slot >>> PAGE_SHIFT)].put((int) (slot & PAGE_MASK),
+            (byte) (isFull ? 1 : 0));
+   }
+
+   private long keyAt(long slot)
+   {
+      return data[(int) (slot >>> PAGE_SHIFT)].getLong(
+            (int) (slot & PAGE_MASK) * SLOT_BYTES);
+   }
+
+   private long valueAt(long slot)
+   {
+      return data[(int) (slot >>> PAGE_SHIFT)].getLong(
+            (int) (slot & PAGE_MASK) * SLOT_BYTES + 8);
+   }
+
+   private void setSlot(long slot, long key, long value)
+   {
+      ByteBuffer page = data[(int) (slot >>> PAGE_SHIFT)];
+      int offset = (int) (slot & PAGE_MASK) * SLOT_BYTES;
+
+      page.putLong(offset, key);
+      page.putLong(offset + 8, value);
+   }
+
+   private void setValue(long slot, long value)
+   {
+      data[(int) (slot >>> PAGE_SHIFT)].putLong(
+            (int) (slot & PAGE_MASK) * SLOT_BYTES + 8, value);
+   }
+
+   /**
+    *  rehash() moves every mapping into a new table of "newSlots" slots.
+    *  Each old page is dropped as soon as it has been emptied, so the
+    *  collector may free it before the whole table has moved.
+    **/
+
+   private void rehash(long newSlots)
+   {
+      ByteBuffer[] tempData = data;
+      ByteBuffer[] tempFull = full;
+      long oldSlots = mask + 1;
+
+      allocate(newSlots);
+
+      for (int page = 0; page < tempData.length; page++)
+      {
+         int pageSlots = (int) Math.min(oldSlots, PAGE_SLOTS);
+
+         for (int i = 0; i < pageSlots; i++)
+         {
+            if (tempFull[page].get(i) != 0)
+            {
+               long key = tempData[page].getLong(i * SLOT_BYTES);
+               long slot = MixingHashStrategy.mix64(key) & mask;
+
+               while (isFull(slot))
+               {
+                  slot = (slot + 1) & mask;
+               }
+               setSlot(slot, key, tempData[page].getLong(i * SLOT_BYTES + 8));
+               setFull(slot, true);
+            }
+         }
+
+         tempData[page] = null;
+         tempFull[page] = null;
+      }
+   }
+
+   /**
+    *  findSlot() returns the slot holding "key", or the empty slot where it
+    *  would go if it is absent.
+    **/
+
+   private long findSlot(long key)
+   {
+      long slot = MixingHashStrategy.mix64(key) & mask;
+
+      while (isFull(slot) && keyAt(slot) != key)
+      {
+         slot = (slot + 1) & mask;
+      }
+      return slot;
+   }
+
+   /**
+    *  ensureCapacity() makes room for "expected" mappings in all, so that
+    *  putting up to that many will not make the table grow.
+    *
+    *  @param expected the number of mappings the map should hold.
+    **/
+
+   public void ensureCapacity(long expected)
+   {
+      long neededSlots = slotsFor(expected);
+
+      if (neededSlots > mask + 1)
+      {
+         rehash(neededSlots);
+      }
+   }
+
+   /**
+    *  size() returns the number of mappings in the map.
+    **/
+
+   public long size()
+   {
+      return size;
+   }
+
+   /**
+    *  isEmpty() returns true if the map holds no mappings.
+    **/
+
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    *  offHeapBytes() returns the number of bytes of direct memory the table
+    *  occupies.
+    **/
+
+   public long offHeapBytes()
+   {
+      return (mask + 1) * (SLOT_BYTES + 1);
+   }
+
+   /**
+    *  containsKey() returns true if "key" is mapped to a value.
+    **/
+
+   public boolean containsKey(long key)
+   {
+      return isFull(findSlot(key));
+   }
+
+   /**
+    *  get() returns the value "key" is mapped to, or "missing" if it is not
+    *  in the map.
+    *
+    *  @param key the key to look up.
+    *  @param missing the value to return if the key is absent.
+    **/
+
+   public long get(long key, long missing)
+   {
+      long slot = findSlot(key);
+
+      if (!isFull(slot))
+      {
+         return missing;
+      }
+      return valueAt(slot);
+   }
+
+   /**
+    *  put() maps "key" to "value", replacing any value it had.
+    *
+    *  @return true if the key was not in the map before.
+    **/
+
+   public boolean put(long key, long value)
+   {
+      long slot = findSlot(key);
+
+      if (isFull(slot))
+      {
+         setValue(slot, value);
+         return false;
+      }
+
+      if (size >= growAt && mask + 1 < MAX_SLOTS)
+      {
+         rehash((mask + 1) * 2);
+         slot = findSlot(key);
+      }
+      else if (size == mask)
+      {
+         throw new IllegalStateException("OffHeapLongLongMap is full");
+      }
+      setSlot(slot, key, value);
+      setFull(slot, true);
+      size++;
+      return true;
+   }
+
+   /**
+    *  remove() removes the mapping of "key", if it has one.  The mappings
+    *  after it in its run of full slots are shifted back to close the gap.
+    *
+    *  @return true if the key was in the map.
+    **/
+
+   public boolean remove(long key)
+   {
+      long gap = findSlot(key);
+
+      if (!isFull(gap))
+      {
+         return false;
+      }
+
+      long next = (gap + 1) & mask;
+
+      while (isFull(next))
+      {
+         long nextKey = keyAt(next);
+         long home = MixingHashStrategy.mix64(nextKey) & mask;
+
+         // The mapping at "next" may move into the gap only if its home
+         // slot is not in the cyclic range (gap, next].
+         if (((next - home) & mask) >= ((next - gap) & mask))
+         {
+            setSlot(gap, nextKey, valueAt(next));
+            gap = next;
+         }
+         next = (next + 1) & mask;
+      }
+
+      setFull(gap, false);
+      size--;
+      return true;
+   }
+
+   /**
+    *  makeEmpty() removes every mapping.  The table keeps its size and its
+    *  off-heap memory.
+    **/
+
+   public void makeEmpty()
+   {
+      for (int page = 0; page < full.length; page++)
+      {
+         ByteBuffer flags = full[page];
+
+         for (int i = 0; i < flags.capacity(); i++)
+         {
+            flags.put(i, (byte) 0);
+         }
+      }
+      size = 0;
+   }
+
+}
@@ -2,14 +2,26 @@
 
 package list;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  *  A DList is a mutable doubly-linked list ADT.  Its implementation is
  *  circularly-linked and employs a sentinel node at the head of the list.
  *
+ *  A DList is also Iterable over its items, and its spliterator() knows the
+ *  list's size and splits off batches of items, so stream() and
+ *  parallelStream() pipelines can run over it.  The list must not be
+ *  changed while an iterator, spliterator or stream over it is in use.
+ *
  *  DO NOT CHANGE ANY METHOD PROTOTYPES IN THIS FILE.
  **/
 
-public class DList extends List {
+public class DList extends List implements Iterable<Object> {
 
   /**
    *  (inherited)  size is the number of items in the list.
@@ -53,6 +65,16 @@ public class DList extends List {
     return new DListNode(item, list, prev, next);
   }
 
+  /**
+   *  newList() calls the DList constructor.  splitAfter() uses it to make
+   *  the list that takes the nodes it splits off, so that a subclass of
+   *  DList whose newNode() makes a different kind of node can override this
+   *  to split into a list of its own kind.
+   **/
+  protected DList newList() {
+    return new DList();
+  }
+
   /**
    *  DList() constructs for an empty DList.
    **/
@@ -75,7 +97,6 @@ public class DList extends List {
   public void insertFront(Object item) {
      DListNode tracker = head.next;
      head.next = newNode(item, this, head, tracker);
-     head.next.adjList = new DList();
      tracker.prev = head.next;
      this.size++;
     // Your solution here.  Similar to Homework 4, but now you need to specify
@@ -92,13 +113,168 @@ public class DList extends List {
   public void insertBack(Object item) {
      DListNode tracker = head.prev;
      head.prev = newNode(item, this, tracker, head);
-     head.prev.adjList = new DList();
      tracker.next = head.prev;
      this.size++;
     // Your solution here.  Similar to Homework 4, but now you need to specify
     //   the `list' field (second parameter) as well.
   }
 
+  /**
+   *  splice() moves every node of "other" to the back of this DList, in
+   *  order, leaving "other" empty.  Like LinkedQueue.append(), it takes the
+   *  nodes over rather than copying them, so no node is allocated and every
+   *  node stays valid, now as a node of this list.  Splicing a list onto
+   *  itself does nothing.  "other" must be of the same class as this list,
+   *  so that its nodes are of the kind this list's newNode() makes; a plain
+   *  DList's nodes can't join a VertexList, for instance.
+   *
+   *  @param other the DList whose nodes are moved.
+   *  @exception IllegalArgumentException if "other" is not of this list's
+   *    class.
+   *
+   *  Performance:  the nodes are relinked in O(1) time, but each one's
+   *  "myList" field must then be pointed at this list, so the whole
+   *  operation runs in O(k) time, where k is the length of "other".
+   **/
+  public void splice(DList other) {
+    if (other.getClass() != getClass()) {
+      throw new IllegalArgumentException("splice() of a "
+                                         + other.getClass().getName()
+                                         + " into a "
+                                         + getClass().getName());
+    }
+    if (other == this || other.size == 0) {
+      return;
+    }
+
+    DListNode first = other.head.next;
+    DListNode last = other.head.prev;
+
+    for (DListNode node = first; node != other.head; node = node.next) {
+      node.myList = this;
+    }
+
+    last.next = head;
+    first.prev = head.prev;
+    head.prev.next = first;
+    head.prev = last;
+    size = size + other.size;
+
+    other.head.next = other.head;
+    other.head.prev = other.head;
+    other.size = 0;
+  }
+
+  /**
+   *  splitAfter() moves every node after "node" out of this DList, in order,
+   *  into a new DList made by newList(), and returns the new list.  The
+   *  nodes are taken over, not copied, and stay valid in the new list.
+   *
+   *  @param node a node of this DList.
+   *  @return the DList of the nodes that followed "node".
+   *  @exception InvalidNodeException if "node" is not a valid node of this
+   *    DList.
+   *
+   *  Performance:  the nodes are relinked in O(1) time, but each one's
+   *  "myList" field must then be pointed at the new list, so the whole
+   *  operation runs in O(k) time, where k is the number of nodes split off.
+   **/
+  public DList splitAfter(DListNode node) throws InvalidNodeException {
+    if (node.myList != this) {
+      throw new InvalidNodeException("splitAfter() called on a node not in "
+                                     + "this list");
+    }
+
+    DList rest = newList();
+    if (node.next == head) {
+      return rest;
+    }
+
+    DListNode first = node.next;
+    DListNode last = head.prev;
+    int moved = 0;
+
+    for (DListNode curr = first; curr != head; curr = curr.next) {
+      curr.myList = rest;
+      moved++;
+    }
+
+    node.next = head;
+    head.prev = node;
+    size = size - moved;
+
+    first.prev = rest.head;
+    last.next = rest.head;
+    rest.head.next = first;
+    rest.head.prev = last;
+    rest.size = moved;
+    return rest;
+  }
+
+  /**
+   *  moveToFront() moves "node" out of whatever DList holds it and onto the
+   *  front of this DList.  The node itself is relinked, so it stays valid
+   *  and keeps its item and any other fields; no node is allocated.  The
+   *  node must come from a list of the same class as this one.
+   *
+   *  @param node the node to move.
+   *  @exception InvalidNodeException if "node" is not valid, or is in a
+   *    list of another class.
+   *
+   *  Performance:  runs in O(1) time.
+   **/
+  public void moveToFront(DListNode node) throws InvalidNodeException {
+    unlink(node);
+    node.myList = this;
+    node.prev = head;
+    node.next = head.next;
+    head.next.prev = node;
+    head.next = node;
+    size++;
+  }
+
+  /**
+   *  moveToBack() moves "node" out of whatever DList holds it and onto the
+   *  back of this DList.  The node itself is relinked, so it stays valid
+   *  and keeps its item and any other fields; no node is allocated.  The
+   *  node must come from a list of the same class as this one.
+   *
+   *  @param node the node to move.
+   *  @exception InvalidNodeException if "node" is not valid, or is in a
+   *    list of another class.
+   *
+   *  Performance:  runs in O(1) time.
+   **/
+  public void moveToBack(DListNode node) throws InvalidNodeException {
+    unlink(node);
+    node.myList = this;
+    node.next = head;
+    node.prev = head.prev;
+    head.prev.next = node;
+    head.prev = node;
+    size++;
+  }
+
+  /**
+   *  unlink() takes the valid node "node" out of its DList without
+   *  invalidating it, so that it can be moved into this DList.  A node of a
+   *  list of another class may be of a kind this list's newNode() does not
+   *  make, so it is refused.
+   **/
+  private void unlink(DListNode node) throws InvalidNodeException {
+    if (!node.isValidNode()) {
+      throw new InvalidNodeException("move of an invalid node");
+    }
+    if (node.myList.getClass() != getClass()) {
+      throw new InvalidNodeException("move of a node of a "
+                                     + node.myList.getClass().getName()
+                                     + " into a " + getClass().getName());
+    }
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.myList.size--;
+  }
+
   /**
    *  front() returns the node at the front of this DList.  If the DList is
    *  empty, return an "invalid" node--a node with the property that any
@@ -129,6 +305,66 @@ public class DList extends List {
     return head.prev;
   }
 
+  /**
+   *  iterator() returns an Iterator over the items of this DList, front to
+   *  back.  It follows the nodes' links directly, so no step can throw an
+   *  InvalidNodeException.
+   *
+   *  @return an Iterator over the items.
+   *
+   *  Performance:  each step runs in O(1) time.
+   */
+  public Iterator<Object> iterator() {
+    return new Iterator<Object>() {
+      private DListNode current = head.next;
+
+      public boolean hasNext() {
+        return current != head;
+      }
+
+      public Object next() {
+        if (current == head) {
+          throw new NoSuchElementException();
+        }
+        Object item = current.item;
+        current = current.next;
+        return item;
+      }
+    };
+  }
+
+  /**
+   *  spliterator() returns an ordered Spliterator over the items of this
+   *  DList that reports the list's exact size.  A split hands off a batch
+   *  of items copied into an array (a linked list can't be split in the
+   *  middle without walking to it), and the batches grow as the split goes
+   *  on, so a parallel stream gets work to every thread early.
+   *
+   *  @return a Spliterator over the items.
+   */
+  public Spliterator<Object> spliterator() {
+    return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+  }
+
+  /**
+   *  stream() returns a sequential Stream of the items of this DList.
+   *
+   *  @return a Stream of the items.
+   */
+  public Stream<Object> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   *  parallelStream() returns a possibly parallel Stream of the items of
+   *  this DList.
+   *
+   *  @return a parallel Stream of the items.
+   */
+  public Stream<Object> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
   /**
    *  toString() returns a String representation of this DList.
    *
@@ -5,6 +5,13 @@ package list;
 
 /**
  *  A DListNode is a mutable node in a DList (doubly-linked list).
+ *
+ *  A plain DListNode holds just an item and its links.  The nodes that hold
+ *  a WUGraph's vertices and edges need more, and get it from two subclasses
+ *  made by the newNode() of their lists:  a VertexNode (in a VertexList)
+ *  owns the vertex's adjacency list, id and degree bucket node, and an
+ *  EdgeNode (in an EdgeList) links an edge to its partner and its two
+ *  vertices.  Callers cast a node to its subclass to reach those fields.
  **/
 
 public class DListNode extends ListNode {
@@ -21,18 +28,6 @@ public class DListNode extends ListNode {
    protected Object item;         // Object would be an Entry object
    protected DListNode prev;   
    protected DListNode next;
-   protected DListNode partner;   // reference to the DListNode holding the 
-                                  // Entry with the partner VertexPair; (u, g) 
-                                  // --> (g, u);
-                                  // could also be itself (a self-edge)
-   protected DListNode vertexOne; // reference to the first vertex of VertexPair
-                                  // in the DList of vertices
-   protected DListNode vertexTwo; // reference to the second vertex of VertexPair
-                                  // in the DList of vertices
-   protected DList adjList;       // this DList is a field of the DListNodes
-                                  // in the DList of vertices; contains the
-                                  // DListNodes that contain Entry objects 
-                                  // that contain the VertexPair objects
 
   /**
    *  DListNode() constructor.
@@ -108,6 +103,34 @@ public class DListNode extends ListNode {
     return prev;
   }
 
+  /**
+   *  nextUnchecked() returns the node following this node, like next(), but
+   *  without checking that this node is valid, so it declares no exception
+   *  and a loop over it needs no try/catch.  It is for code that
+   *  knows this node is in a list:  the last node's successor is the
+   *  sentinel, whose isValidNode() is false, so a walk from front() can stop
+   *  on that as usual.  On a node that has been removed it returns null.
+   *
+   *  @return the node following this node.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public final DListNode nextUnchecked() {
+    return next;
+  }
+
+  /**
+   *  prevUnchecked() returns the node preceding this node, like prev(), but
+   *  without checking that this node is valid (see nextUnchecked()).
+   *
+   *  @return the node preceding this node.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public final DListNode prevUnchecked() {
+    return prev;
+  }
+
   /**
    *  insertAfter() inserts an item immediately following this node.  If this
    *  node is invalid, throws an exception.
@@ -179,60 +202,10 @@ public class DListNode extends ListNode {
     //   "this" is null.  Remember that this node's "myList" field tells you
     //   what DList it's in.
 
-    this.partner = null;
-    this.vertexOne = null;
-    this.vertexTwo = null;
-    this.adjList = null;
-
     // Make this node an invalid node, so it cannot be used to corrupt myList.
     myList = null;
     // Set other references to null to improve garbage collection.
     next = null;
     prev = null;
   }
-  
-  public void setPartner(DListNode partner)
-  {
-     this.partner = partner;
-  }
-  
-  public void setVertexOne(DListNode vertexOne)
-  {
-     this.vertexOne = vertexOne;
-  }
-  
-  public void setVertexTwo(DListNode vertexTwo)
-  {
-     this.vertexTwo = vertexTwo;
-  }
-  
-  public void setAdjList(DList adjList)
-  {
-     this.adjList = adjList;
-  }
-  
-  public DListNode partner()
-  {
-     return this.partner;
-  }
-  
-  public DListNode vertexOne()
-  {
-     return this.vertexOne;
-  }
-  
-  public DListNode vertexTwo()
-  {
-     return this.vertexTwo;
-  }
-  
-  public DList adjList()
-  {
-     return this.adjList;
-  }
-
-  public void initializeAdjList()
-  {
-     adjList = new DList();
-  }
 }
@@ -0,0 +1,35 @@
+/* EdgeList.java */
+
+package list;
+
+/**
+ *  An EdgeList is a DList whose nodes are EdgeNodes:  the adjacency list of
+ *  a vertex, owned by its VertexNode.  Its sentinel is a plain DListNode.
+ **/
+
+public class EdgeList extends DList {
+
+  /**
+   *  newList() makes an EdgeList, so splitAfter() splits into one.
+   **/
+  protected DList newList() {
+    return new EdgeList();
+  }
+
+  /**
+   *  newNode() makes an EdgeNode for an item, or a plain DListNode for the
+   *  sentinel.
+   *
+   *  @param item the item to store in the node.
+   *  @param list the list that owns this node.  (null for sentinels.)
+   *  @param prev the node previous to this node.
+   *  @param next the node following this node.
+   **/
+  protected DListNode newNode(Object item, DList list,
+                              DListNode prev, DListNode next) {
+    if (list == null) {
+      return super.newNode(item, list, prev, next);
+    }
+    return new EdgeNode(item, list, prev, next);
+  }
+}
@@ -0,0 +1,77 @@
+/* EdgeNode.java */
+
+package list;
+
+/**
+ *  An EdgeNode is the DListNode of an EdgeList.  It holds one end of an edge
+ *  of a WUGraph in the adjacency list of one of the edge's vertices, and
+ *  links it to the node holding the other end and to both vertices.
+ **/
+
+public class EdgeNode extends DListNode {
+
+   protected EdgeNode partner;     // reference to the EdgeNode holding the
+                                   // Entry with the partner VertexPair;
+                                   // (u, g) --> (g, u);
+                                   // could also be itself (a self-edge)
+   protected VertexNode vertexOne; // reference to the first vertex of
+                                   // VertexPair in the VertexList
+   protected VertexNode vertexTwo; // reference to the second vertex of
+                                   // VertexPair in the VertexList
+
+  /**
+   *  EdgeNode() constructor.
+   *  @param i the item to store in the node.
+   *  @param l the list this node is in.
+   *  @param p the node previous to this node.
+   *  @param n the node following this node.
+   */
+  EdgeNode(Object i, DList l, DListNode p, DListNode n) {
+    super(i, l, p, n);
+  }
+
+  /**
+   *  remove() removes this node from its EdgeList.  If this node is invalid,
+   *  throws an exception.
+   *
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void remove() throws InvalidNodeException {
+    super.remove();
+    partner = null;
+    vertexOne = null;
+    vertexTwo = null;
+  }
+
+  public void setPartner(EdgeNode partner)
+  {
+     this.partner = partner;
+  }
+
+  public void setVertexOne(VertexNode vertexOne)
+  {
+     this.vertexOne = vertexOne;
+  }
+
+  public void setVertexTwo(VertexNode vertexTwo)
+  {
+     this.vertexTwo = vertexTwo;
+  }
+
+  public EdgeNode partner()
+  {
+     return this.partner;
+  }
+
+  public VertexNode vertexOne()
+  {
+     return this.vertexOne;
+  }
+
+  public VertexNode vertexTwo()
+  {
+     return this.vertexTwo;
+  }
+}
@@ -0,0 +1,362 @@
+/* UList.java */
+
+package list;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ *  A UList is a mutable unrolled linked list ADT:  a doubly-linked list of
+ *  chunks, each holding up to CHUNK_ITEMS items in an array.  A walk over a
+ *  UList reads the items of a chunk from one contiguous array, rather than
+ *  chasing one node per item as in a DList, so it misses the cache about
+ *  CHUNK_ITEMS times less often.
+ *
+ *  The positional ListNode API works as it does for a DList.  front(),
+ *  back(), next() and prev() return UListNodes, which are handles on items
+ *  rather than the storage of the items.  A handle is made the first time
+ *  its item is reached through the ListNode API and is kept with the item
+ *  from then on, so the same handle is returned every time, and it stays
+ *  valid as other items are inserted and removed around it (even when that
+ *  moves its item to another chunk) until its own item is removed.  Walking
+ *  the list with iterator() or forEach() makes no handles at all.
+ *
+ *  The chunks are circularly linked through a sentinel chunk.  A chunk that
+ *  is full when an item is inserted into it is split in two; a chunk that
+ *  falls below a quarter full is merged with the next chunk if the two fit
+ *  in one.
+ **/
+
+public class UList extends List implements Iterable<Object> {
+
+  static final int CHUNK_ITEMS = 16;
+
+  /**
+   *  A Chunk holds up to CHUNK_ITEMS consecutive items of the list, and the
+   *  handles of those that have one.
+   **/
+  static final class Chunk {
+    final Object[] items = new Object[CHUNK_ITEMS];
+    UListNode[] handles;       // item index --> its handle, or null if it
+                               // has none; null until the first handle
+    int count;
+    Chunk prev;
+    Chunk next;
+  }
+
+  /**
+   *  (inherited)  size is the number of items in the list.
+   *  head references the sentinel chunk, which never holds items.
+   *  invalid is the invalid node returned past the ends of the list.
+   **/
+
+  protected Chunk head;
+  protected UListNode invalid;
+
+  /**
+   *  UList() constructs an empty UList.
+   **/
+  public UList() {
+    head = new Chunk();
+    head.next = head;
+    head.prev = head;
+    invalid = new UListNode(null, null, 0);
+    size = 0;
+  }
+
+  /**
+   *  insertFront() inserts an item at the front of this UList.
+   *
+   *  @param item is the item to be inserted.
+   *
+   *  Performance:  runs in O(1) time.
+   **/
+  public void insertFront(Object item) {
+    if (head.next == head) {
+      linkChunkAfter(head);
+    }
+    insertAt(head.next, 0, item);
+  }
+
+  /**
+   *  insertBack() inserts an item at the back of this UList.
+   *
+   *  @param item is the item to be inserted.
+   *
+   *  Performance:  runs in O(1) time.
+   **/
+  public void insertBack(Object item) {
+    if (head.prev == head) {
+      linkChunkAfter(head);
+    }
+    insertAt(head.prev, head.prev.count, item);
+  }
+
+  /**
+   *  front() returns the node at the front of this UList.  If the UList is
+   *  empty, return an "invalid" node--a node with the property that any
+   *  attempt to use it will cause an exception.
+   *
+   *  @return a ListNode at the front of this UList.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode front() {
+    if (size == 0) {
+      return invalid;
+    }
+    return handle(head.next, 0);
+  }
+
+  /**
+   *  back() returns the node at the back of this UList.  If the UList is
+   *  empty, return an "invalid" node--a node with the property that any
+   *  attempt to use it will cause an exception.
+   *
+   *  @return a ListNode at the back of this UList.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode back() {
+    if (size == 0) {
+      return invalid;
+    }
+    return handle(head.prev, head.prev.count - 1);
+  }
+
+  /**
+   *  iterator() returns an Iterator over the items of this UList, front to
+   *  back.  It reads the chunks' arrays directly and makes no handles.  The
+   *  list must not be changed while the iterator is in use.
+   *
+   *  @return an Iterator over the items.
+   */
+  public Iterator<Object> iterator() {
+    return new Iterator<Object>() {
+      private Chunk chunk = head.next;
+      private int index = 0;
+
+      public boolean hasNext() {
+        return chunk != head;
+      }
+
+      public Object next() {
+        if (chunk == head) {
+          throw new NoSuchElementException();
+        }
+        Object item = chunk.items[index];
+        index++;
+        if (index == chunk.count) {
+          chunk = chunk.next;
+          index = 0;
+        }
+        return item;
+      }
+    };
+  }
+
+  /**
+   *  spliterator() returns an ordered Spliterator over the items of this
+   *  UList that reports the list's exact size and splits off batches of
+   *  items, as DList's does.
+   *
+   *  @return a Spliterator over the items.
+   */
+  public Spliterator<Object> spliterator() {
+    return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+  }
+
+  /**
+   *  stream() returns a sequential Stream of the items of this UList.
+   *
+   *  @return a Stream of the items.
+   */
+  public Stream<Object> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   *  parallelStream() returns a possibly parallel Stream of the items of
+   *  this UList.
+   *
+   *  @return a parallel Stream of the items.
+   */
+  public Stream<Object> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  /**
+   *  toString() returns a String representation of this UList.
+   *
+   *  @return a String representation of this UList.
+   *
+   *  Performance:  runs in O(n) time, where n is the length of the list.
+   */
+  public String toString() {
+    String result = "[  ";
+    for (Chunk chunk = head.next; chunk != head; chunk = chunk.next) {
+      for (int i = 0; i < chunk.count; i++) {
+        result = result + chunk.items[i] + "  ";
+      }
+    }
+    return result + "]";
+  }
+
+  /**
+   *  handle() returns the handle of item "index" of "chunk", making it if
+   *  the item has none yet.
+   **/
+  UListNode handle(Chunk chunk, int index) {
+    if (chunk.handles == null) {
+      chunk.handles = new UListNode[CHUNK_ITEMS];
+    }
+    UListNode node = chunk.handles[index];
+    if (node == null) {
+      node = new UListNode(this, chunk, index);
+      chunk.handles[index] = node;
+    }
+    return node;
+  }
+
+  /**
+   *  linkChunkAfter() links a new empty chunk after "chunk" and returns it.
+   **/
+  private Chunk linkChunkAfter(Chunk chunk) {
+    Chunk newChunk = new Chunk();
+    newChunk.prev = chunk;
+    newChunk.next = chunk.next;
+    chunk.next.prev = newChunk;
+    chunk.next = newChunk;
+    return newChunk;
+  }
+
+  /**
+   *  unlinkChunk() takes "chunk" out of the chain of chunks.
+   **/
+  private static void unlinkChunk(Chunk chunk) {
+    chunk.prev.next = chunk.next;
+    chunk.next.prev = chunk.prev;
+  }
+
+  /**
+   *  moveItems() moves "count" items, with their handles, from index "from"
+   *  of "source" to index "to" of "dest".  The ranges may overlap.  The
+   *  counts of the chunks are not changed.
+   **/
+  private static void moveItems(Chunk source, int from, Chunk dest, int to,
+                                int count) {
+    System.arraycopy(source.items, from, dest.items, to, count);
+    if (source.handles == null) {
+      if (dest.handles != null) {
+        for (int i = 0; i < count; i++) {
+          dest.handles[to + i] = null;
+        }
+      }
+      return;
+    }
+    if (dest.handles == null) {
+      dest.handles = new UListNode[CHUNK_ITEMS];
+    }
+    System.arraycopy(source.handles, from, dest.handles, to, count);
+    for (int i = 0; i < count; i++) {
+      UListNode node = dest.handles[to + i];
+      if (node != null) {
+        node.chunk = dest;
+        node.index = to + i;
+      }
+    }
+  }
+
+  /**
+   *  clearSlots() empties indices "from" through "to" - 1 of "chunk", so the
+   *  items and handles there can be garbage collected.
+   **/
+  private static void clearSlots(Chunk chunk, int from, int to) {
+    for (int i = from; i < to; i++) {
+      chunk.items[i] = null;
+      if (chunk.handles != null) {
+        chunk.handles[i] = null;
+      }
+    }
+  }
+
+  /**
+   *  insertAt() inserts "item" at index "index" of "chunk", splitting the
+   *  chunk first if it is full.
+   **/
+  void insertAt(Chunk chunk, int index, Object item) {
+    if (chunk.count == CHUNK_ITEMS) {
+      Chunk upper = linkChunkAfter(chunk);
+      int half = CHUNK_ITEMS / 2;
+      moveItems(chunk, half, upper, 0, CHUNK_ITEMS - half);
+      clearSlots(chunk, half, CHUNK_ITEMS);
+      chunk.count = half;
+      upper.count = CHUNK_ITEMS - half;
+      if (index > half) {
+        chunk = upper;
+        index = index - half;
+      }
+    }
+    moveItems(chunk, index, chunk, index + 1, chunk.count - index);
+    chunk.items[index] = item;
+    if (chunk.handles != null) {
+      chunk.handles[index] = null;
+    }
+    chunk.count++;
+    size++;
+  }
+
+  /**
+   *  removeAt() removes the item at index "index" of "chunk".  Its handle,
+   *  if any, is left for the caller to invalidate.
+   **/
+  void removeAt(Chunk chunk, int index) {
+    moveItems(chunk, index + 1, chunk, index, chunk.count - index - 1);
+    chunk.count--;
+    clearSlots(chunk, chunk.count, chunk.count + 1);
+    size--;
+
+    if (chunk.count == 0) {
+      unlinkChunk(chunk);
+    } else if (chunk.count < CHUNK_ITEMS / 4 && chunk.next != head
+               && chunk.count + chunk.next.count <= CHUNK_ITEMS) {
+      Chunk next = chunk.next;
+      moveItems(next, 0, chunk, chunk.count, next.count);
+      chunk.count = chunk.count + next.count;
+      unlinkChunk(next);
+    }
+  }
+
+  /**
+   *  nodeAfter() returns the handle of the item after index "index" of
+   *  "chunk", or the invalid node if that is the last item.
+   **/
+  ListNode nodeAfter(Chunk chunk, int index) {
+    if (index + 1 < chunk.count) {
+      return handle(chunk, index + 1);
+    }
+    if (chunk.next == head) {
+      return invalid;
+    }
+    return handle(chunk.next, 0);
+  }
+
+  /**
+   *  nodeBefore() returns the handle of the item before index "index" of
+   *  "chunk", or the invalid node if that is the first item.
+   **/
+  ListNode nodeBefore(Chunk chunk, int index) {
+    if (index > 0) {
+      return handle(chunk, index - 1);
+    }
+    if (chunk.prev == head) {
+      return invalid;
+    }
+    return handle(chunk.prev, chunk.prev.count - 1);
+  }
+
+}
@@ -0,0 +1,150 @@
+/* UListNode.java */
+
+package list;
+
+/**
+ *  A UListNode is a handle on one item of a UList.  It records the chunk
+ *  holding the item and the item's index there, and the UList updates both
+ *  whenever it moves the item, so the handle stays valid until its item is
+ *  removed.
+ **/
+
+public class UListNode extends ListNode {
+
+  /**
+   *  (inherited)  myList references the UList that contains this node.
+   *  chunk references the chunk holding this node's item.
+   *  index is the index of the item in the chunk.
+   **/
+
+  protected UList.Chunk chunk;
+  protected int index;
+
+  /**
+   *  UListNode() constructor.
+   *  @param l the list this node is in.  (null for the invalid node.)
+   *  @param c the chunk holding the item.
+   *  @param i the index of the item in the chunk.
+   */
+  UListNode(UList l, UList.Chunk c, int i) {
+    myList = l;
+    chunk = c;
+    index = i;
+  }
+
+  /**
+   *  item() returns this node's item.  If this node is invalid, throws an
+   *  exception.
+   *
+   *  @return the item stored in this node.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public Object item() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("item() called on invalid node");
+    }
+    return chunk.items[index];
+  }
+
+  /**
+   *  setItem() sets this node's item to "item".  If this node is invalid,
+   *  throws an exception.
+   *
+   *  @param item the new item.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void setItem(Object item) throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("setItem() called on invalid node");
+    }
+    chunk.items[index] = item;
+  }
+
+  /**
+   *  next() returns the node following this node.  If this node is invalid,
+   *  throws an exception.
+   *
+   *  @return the node following this node.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode next() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("next() called on invalid node");
+    }
+    return ((UList) myList).nodeAfter(chunk, index);
+  }
+
+  /**
+   *  prev() returns the node preceding this node.  If this node is invalid,
+   *  throws an exception.
+   *
+   *  @return the node preceding this node.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode prev() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("prev() called on invalid node");
+    }
+    return ((UList) myList).nodeBefore(chunk, index);
+  }
+
+  /**
+   *  insertAfter() inserts an item immediately following this node.  If this
+   *  node is invalid, throws an exception.
+   *
+   *  @param item the item to be inserted.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void insertAfter(Object item) throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("insertAfter() called on invalid node");
+    }
+    ((UList) myList).insertAt(chunk, index + 1, item);
+  }
+
+  /**
+   *  insertBefore() inserts an item immediately preceding this node.  If this
+   *  node is invalid, throws an exception.
+   *
+   *  @param item the item to be inserted.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void insertBefore(Object item) throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("insertBefore() called on invalid node");
+    }
+    ((UList) myList).insertAt(chunk, index, item);
+  }
+
+  /**
+   *  remove() removes this node's item from its UList, and makes this node
+   *  invalid.  If this node is invalid, throws an exception.
+   *
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void remove() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("remove() called on invalid node");
+    }
+    ((UList) myList).removeAt(chunk, index);
+
+    // Make this node an invalid node, so it cannot be used to corrupt myList.
+    myList = null;
+    chunk = null;
+  }
+
+}
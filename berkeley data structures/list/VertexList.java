@@ -0,0 +1,35 @@
+/* VertexList.java */
+
+package list;
+
+/**
+ *  A VertexList is a DList whose nodes are VertexNodes, each of which owns
+ *  the adjacency list of its vertex.  Its sentinel is a plain DListNode.
+ **/
+
+public class VertexList extends DList {
+
+  /**
+   *  newList() makes a VertexList, so splitAfter() splits into one.
+   **/
+  protected DList newList() {
+    return new VertexList();
+  }
+
+  /**
+   *  newNode() makes a VertexNode for an item, or a plain DListNode for the
+   *  sentinel.
+   *
+   *  @param item the item to store in the node.
+   *  @param list the list that owns this node.  (null for sentinels.)
+   *  @param prev the node previous to this node.
+   *  @param next the node following this node.
+   **/
+  protected DListNode newNode(Object item, DList list,
+                              DListNode prev, DListNode next) {
+    if (list == null) {
+      return super.newNode(item, list, prev, next);
+    }
+    return new VertexNode(item, list, prev, next);
+  }
+}
@@ -0,0 +1,68 @@
+/* VertexNode.java */
+
+package list;
+
+/**
+ *  A VertexNode is the DListNode of a VertexList.  It holds one vertex of a
+ *  WUGraph and is the only kind of node that owns an adjacency list:  an
+ *  EdgeList of the EdgeNodes of the vertex's edges, made with the node.
+ **/
+
+public class VertexNode extends DListNode {
+
+   protected EdgeList adjList;     // the EdgeNodes of this vertex's edges
+   protected int vertexId;         // dense id of the vertex
+   protected DListNode degreeNode; // node of the vertex in the degree bucket
+                                   // holding the vertices of its degree
+
+  /**
+   *  VertexNode() constructor.
+   *  @param i the item to store in the node.
+   *  @param l the list this node is in.
+   *  @param p the node previous to this node.
+   *  @param n the node following this node.
+   */
+  VertexNode(Object i, DList l, DListNode p, DListNode n) {
+    super(i, l, p, n);
+    adjList = new EdgeList();
+  }
+
+  /**
+   *  remove() removes this node from its VertexList, and drops its adjacency
+   *  list.  If this node is invalid, throws an exception.
+   *
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void remove() throws InvalidNodeException {
+    super.remove();
+    adjList = null;
+    degreeNode = null;
+  }
+
+  public void setVertexId(int vertexId)
+  {
+     this.vertexId = vertexId;
+  }
+
+  public void setDegreeNode(DListNode degreeNode)
+  {
+     this.degreeNode = degreeNode;
+  }
+
+  public EdgeList adjList()
+  {
+     return this.adjList;
+  }
+
+  public int vertexId()
+  {
+     return this.vertexId;
+  }
+
+  public DListNode degreeNode()
+  {
+     return this.degreeNode;
+  }
+}
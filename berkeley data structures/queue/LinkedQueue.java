@@ -2,8 +2,23 @@
 
 package queue;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class LinkedQueue implements Queue {
+/**
+ *  A LinkedQueue is a Queue kept in a singly-linked list.  It is Iterable
+ *  over its items, front to back, without dequeuing them, and its
+ *  spliterator() knows the queue's size and splits off batches of items, so
+ *  stream() and parallelStream() pipelines can run over it.  The queue must
+ *  not be changed while an iterator, spliterator or stream over it is in
+ *  use.
+ **/
+
+public class LinkedQueue implements Queue, Iterable<Object> {
 
   private SListNode head;
   private SListNode tail;
@@ -118,6 +133,57 @@ public class LinkedQueue implements Queue {
     q.size = 0;
   }
 
+  /**
+   *  iterator() returns an Iterator over the items of this LinkedQueue, from
+   *  front to back.  The queue is not changed.
+   *  @return an Iterator over the items.
+   **/
+  public Iterator<Object> iterator() {
+    return new Iterator<Object>() {
+      private SListNode current = head;
+
+      public boolean hasNext() {
+        return current != null;
+      }
+
+      public Object next() {
+        if (current == null) {
+          throw new NoSuchElementException();
+        }
+        Object item = current.item;
+        current = current.next;
+        return item;
+      }
+    };
+  }
+
+  /**
+   *  spliterator() returns an ordered Spliterator over the items of this
+   *  LinkedQueue that reports the queue's exact size, and that splits by
+   *  handing off growing batches of items copied into arrays.
+   *  @return a Spliterator over the items.
+   **/
+  public Spliterator<Object> spliterator() {
+    return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+  }
+
+  /**
+   *  stream() returns a sequential Stream of the items of this LinkedQueue.
+   *  @return a Stream of the items.
+   **/
+  public Stream<Object> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   *  parallelStream() returns a possibly parallel Stream of the items of
+   *  this LinkedQueue.
+   *  @return a parallel Stream of the items.
+   **/
+  public Stream<Object> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
   /**
    *  toString() converts this queue to a String.
    **/